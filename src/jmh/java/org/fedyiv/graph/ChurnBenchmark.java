@@ -0,0 +1,76 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.CompactDirectedGraph;
+import org.fedyiv.graph.impl.ConcurrentDirectedGraph;
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Average time of replacing a random vertex of a directed graph with a new one of the same degree, which leaves
+ * a tombstone behind in the adjacency of its predecessors, and of queries running on the churned graph.
+ * Run with {@code -prof gc} to see that compaction keeps allocation and memory steady.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChurnBenchmark {
+
+    public enum Implementation {
+        HASH_SET(DirectedGraph::new),
+        COMPACT(CompactDirectedGraph::new),
+        COPY_ON_WRITE(ConcurrentDirectedGraph::new);
+
+        private final Supplier<Graph<Integer>> factory;
+
+        Implementation(Supplier<Graph<Integer>> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"HASH_SET", "COMPACT", "COPY_ON_WRITE"})
+    public Implementation implementation;
+
+    @Param({"100000"})
+    public int numberOfVertices;
+
+    @Param({"8"})
+    public int degree;
+
+    private Graph<Integer> graph;
+
+    @Setup
+    public void setUp() {
+        graph = implementation.factory.get();
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            addVertexWithEdges(vertex);
+    }
+
+    @Benchmark
+    public void replaceVertex() {
+        int vertex = ThreadLocalRandom.current().nextInt(numberOfVertices);
+        graph.removeVertex(vertex);
+        addVertexWithEdges(vertex);
+    }
+
+    @Benchmark
+    public long bfsAfterChurn() {
+        replaceVertex();
+        return graph.bfs(ThreadLocalRandom.current().nextInt(numberOfVertices), 2).count();
+    }
+
+    private void addVertexWithEdges(int vertex) {
+        var random = ThreadLocalRandom.current();
+        graph.addVertex(vertex);
+        for (int edge = 0; edge < degree; edge++) {
+            graph.addEdge(vertex, random.nextInt(numberOfVertices));
+            graph.addEdge(random.nextInt(numberOfVertices), vertex);
+        }
+    }
+}
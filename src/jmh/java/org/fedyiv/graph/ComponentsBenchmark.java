@@ -0,0 +1,68 @@
+package org.fedyiv.graph;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connected components with the parallel union-find, compared with Tarjan's sequential algorithm, and
+ * k-hop neighborhoods with reused scratch buffers, compared with the lazy {@link FrozenGraph#bfs(Object, int)}.
+ * Run with {@code -prof gc} to see the allocation of both neighborhood queries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ComponentsBenchmark {
+
+    @Param({"1000000"})
+    public int numberOfVertices;
+
+    @Param({"2000000"})
+    public int numberOfEdges;
+
+    @Param({"2"})
+    public int k;
+
+    private FrozenGraph<Integer> graph;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        GraphBuilder<Integer> builder = GraphBuilder.undirected();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            builder.addVertex(vertex);
+        for (int edge = 0; edge < numberOfEdges; edge++)
+            builder.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+
+        graph = builder.build();
+        pool = ForkJoinPool.commonPool();
+    }
+
+    @Benchmark
+    public int[] parallelUnionFind() {
+        return ConnectedComponents.find(graph.adjacency(), pool);
+    }
+
+    @Benchmark
+    public int[] sequentialTarjan() {
+        return StronglyConnectedComponents.find(graph.adjacency());
+    }
+
+    @Benchmark
+    public int kHopNeighborhood() {
+        return graph.kHopNeighborhood(ThreadLocalRandom.current().nextInt(numberOfVertices), k).size();
+    }
+
+    @Benchmark
+    public long lazyBfs() {
+        return graph.bfs(ThreadLocalRandom.current().nextInt(numberOfVertices), k).count();
+    }
+}
@@ -0,0 +1,55 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.ConcurrentDirectedGraph;
+import org.fedyiv.graph.impl.ConcurrentUndirectedGraph;
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.fedyiv.graph.impl.UndirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of addEdge from many producer threads, e.g. {@code gradle jmh --args="ConcurrentIngestionBenchmark -t 32"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ConcurrentIngestionBenchmark {
+
+    public enum Implementation {
+        LOCKING_DIRECTED(DirectedGraph::new),
+        LOCKING_UNDIRECTED(UndirectedGraph::new),
+        CONCURRENT_DIRECTED(ConcurrentDirectedGraph::new),
+        CONCURRENT_UNDIRECTED(ConcurrentUndirectedGraph::new);
+
+        private final Supplier<Graph<Integer>> factory;
+
+        Implementation(Supplier<Graph<Integer>> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"LOCKING_DIRECTED", "LOCKING_UNDIRECTED", "CONCURRENT_DIRECTED", "CONCURRENT_UNDIRECTED"})
+    public Implementation implementation;
+
+    @Param({"1000000"})
+    public int numberOfVertices;
+
+    private Graph<Integer> graph;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        graph = implementation.factory.get();
+    }
+
+    @Benchmark
+    public void addEdge() {
+        var random = ThreadLocalRandom.current();
+        graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+    }
+}
@@ -0,0 +1,62 @@
+package org.fedyiv.graph;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Topological sort, cycle detection and strongly connected components on a frozen random DAG, shaped like
+ * a job dependency graph: every job depends on a few jobs shortly before it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class DagBenchmark {
+
+    private static final int MAX_DEPENDENCY_DISTANCE = 1000;
+
+    @Param({"1000000"})
+    public int numberOfVertices;
+
+    @Param({"10000000"})
+    public int numberOfEdges;
+
+    private FrozenGraph<Integer> graph;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        GraphBuilder<Integer> builder = GraphBuilder.directed();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            builder.addVertex(vertex);
+        for (int edge = 0; edge < numberOfEdges; edge++) {
+            int vertex = 1 + random.nextInt(numberOfVertices - 1);
+            builder.addEdge(Math.max(0, vertex - 1 - random.nextInt(MAX_DEPENDENCY_DISTANCE)), vertex);
+        }
+
+        graph = builder.build();
+    }
+
+    @Benchmark
+    public int[] topologicalSort() {
+        return TopologicalSort.sort(graph.adjacency());
+    }
+
+    @Benchmark
+    public int[] findCycle() {
+        return TopologicalSort.findCycle(graph.adjacency());
+    }
+
+    /**
+     * Uncached, unlike {@link FrozenGraph#stronglyConnectedComponents()}.
+     */
+    @Benchmark
+    public int[] stronglyConnectedComponents() {
+        return StronglyConnectedComponents.find(graph.adjacency());
+    }
+}
@@ -0,0 +1,56 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the throughput of {@link DurableGraph#addEdge(Object, Object)} under every {@link FsyncPolicy}
+ * with several writer threads, which share the fsyncs of {@link FsyncPolicy#PER_OPERATION}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Threads(4)
+public class DurableGraphBenchmark {
+
+    @Param({"PER_OPERATION", "PER_BATCH", "INTERVAL"})
+    public FsyncPolicy fsyncPolicy;
+
+    @Param({"1000000"})
+    public int numberOfVertices;
+
+    private Path directory;
+    private DurableGraph<Integer> graph;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("durable-graph-benchmark");
+        graph = DurableGraph.open(directory, new DirectedGraph<>(), VertexSerializer.integers(), fsyncPolicy);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        graph.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public void addEdge() {
+        var random = ThreadLocalRandom.current();
+        graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+    }
+}
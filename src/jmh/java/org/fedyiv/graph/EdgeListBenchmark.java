@@ -0,0 +1,92 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.CompactDirectedGraph;
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading a generated TSV edge list, 1 GB by default, into a compact and a hash set based graph.
+ * {@code countEdges} parses the file without building a graph, which is the bound set by the disk and the parser.
+ * Divide the file size by the time for the throughput.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx16g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class EdgeListBenchmark {
+
+    @Param({"1024"})
+    public int megabytes;
+
+    @Param({"10000000"})
+    public int numberOfVertices;
+
+    private Path directory;
+    private Path path;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("edge-list-benchmark");
+        path = directory.resolve("graph.tsv");
+
+        var random = new SplittableRandom(1);
+        long size = (long) megabytes << 20;
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            var writer = new ByteWriter(channel);
+            for (long written = 0; written < size; written += 1 << 20) {
+                for (int edge = 0; edge < (1 << 20) / 16; edge++) {
+                    writer.put(random.nextInt(numberOfVertices));
+                    writer.put('\t');
+                    writer.put(random.nextInt(numberOfVertices));
+                    writer.put('\n');
+                }
+            }
+            writer.flush();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(path);
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long countEdges() throws IOException {
+        return GraphImporter.readEdgeList(path, new CountingGraph());
+    }
+
+    @Benchmark
+    public Graph<Integer> readCompactGraph() throws IOException {
+        var graph = new CompactDirectedGraph<Integer>();
+        GraphImporter.readEdgeList(path, graph);
+        return graph;
+    }
+
+    @Benchmark
+    public Graph<Integer> readDirectedGraph() throws IOException {
+        var graph = new DirectedGraph<Integer>();
+        GraphImporter.readEdgeList(path, graph);
+        return graph;
+    }
+
+    /**
+     * Discards the edges, so only reading and parsing are measured.
+     */
+    private static class CountingGraph extends DirectedGraph<Integer> {
+        @Override
+        public void addEdges(Iterable<? extends Map.Entry<Integer, Integer>> edges) {
+        }
+    }
+}
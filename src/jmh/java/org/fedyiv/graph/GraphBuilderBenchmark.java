@@ -0,0 +1,55 @@
+package org.fedyiv.graph;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures how {@link GraphBuilder#build()} scales with the number of cores of the fork-join pool.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx16g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class GraphBuilderBenchmark {
+
+    @Param({"1", "2", "4", "8", "16", "48"})
+    public int parallelism;
+
+    @Param({"1000000"})
+    public int numberOfVertices;
+
+    @Param({"20000000"})
+    public int numberOfEdges;
+
+    private ForkJoinPool pool;
+    private GraphBuilder<Integer> builder;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        builder = GraphBuilder.directed(pool);
+
+        int numberOfProducers = Runtime.getRuntime().availableProcessors();
+        IntStream.range(0, numberOfProducers).parallel().forEach(producer -> {
+            var random = ThreadLocalRandom.current();
+            for (int edge = producer; edge < numberOfEdges; edge += numberOfProducers)
+                builder.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public FrozenGraph<Integer> build() {
+        return builder.build();
+    }
+}
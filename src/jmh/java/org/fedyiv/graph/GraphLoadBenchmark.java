@@ -0,0 +1,34 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the time to load a graph scales with the number of vertices.
+ * Every vertex gets two outgoing edges, so the load time should grow linearly.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx16g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class GraphLoadBenchmark {
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int numberOfVertices;
+
+    @Benchmark
+    public Graph<Integer> loadDirectedGraph() {
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+            graph.addEdge(vertex, (vertex + 1) % numberOfVertices);
+            graph.addEdge(vertex, (vertex * 31 + 7) % numberOfVertices);
+        }
+
+        return graph;
+    }
+}
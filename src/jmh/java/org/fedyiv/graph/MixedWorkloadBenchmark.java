@@ -0,0 +1,68 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.ConcurrentDirectedGraph;
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of a mixed workload where every operation is either a path query or an edge insertion.
+ * Run with different thread counts to compare the lock based and the copy-on-write graphs, e.g.
+ * {@code gradle jmh --args="MixedWorkloadBenchmark -t 1"}, {@code -t 8} and {@code -t 64}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MixedWorkloadBenchmark {
+
+    public enum Implementation {
+        LOCKING(DirectedGraph::new),
+        COPY_ON_WRITE(ConcurrentDirectedGraph::new);
+
+        private final Supplier<Graph<Integer>> factory;
+
+        Implementation(Supplier<Graph<Integer>> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"LOCKING", "COPY_ON_WRITE"})
+    public Implementation implementation;
+
+    @Param({"100000"})
+    public int numberOfVertices;
+
+    @Param({"1", "10", "50"})
+    public int writePercentage;
+
+    private Graph<Integer> graph;
+
+    @Setup
+    public void setUp() {
+        var random = ThreadLocalRandom.current();
+
+        graph = implementation.factory.get();
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            graph.addEdge(vertex, random.nextInt(numberOfVertices));
+    }
+
+    @Benchmark
+    public Object mixedReadWrite() {
+        var random = ThreadLocalRandom.current();
+        int vertex1 = random.nextInt(numberOfVertices);
+        int vertex2 = random.nextInt(numberOfVertices);
+
+        if (random.nextInt(100) < writePercentage) {
+            graph.addEdge(vertex1, vertex2);
+            return null;
+        }
+
+        return graph.getPath(vertex1, vertex2);
+    }
+}
@@ -0,0 +1,63 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breadth-first getPath on a random directed graph and on its snapshot. Run with {@code -prof gc}:
+ * with the traversal context of the thread reused by every query, {@code gc.alloc.rate.norm} should
+ * only account for the returned path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PathAllocationBenchmark {
+
+    private static final int NUMBER_OF_QUERIES = 1024;
+
+    @Param({"100000"})
+    public int numberOfVertices;
+
+    @Param({"4"})
+    public int degree;
+
+    private DirectedGraph<Integer> graph;
+    private FrozenGraph<Integer> snapshot;
+    private Integer[] sources;
+    private Integer[] targets;
+    private int query;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+
+        graph = new DirectedGraph<>(numberOfVertices);
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            graph.addVertex(vertex);
+        for (int edge = 0; edge < degree * numberOfVertices; edge++)
+            graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+        snapshot = graph.snapshot();
+
+        // boxed up front, so that the queries do not allocate keys
+        sources = random.ints(NUMBER_OF_QUERIES, 0, numberOfVertices).boxed().toArray(Integer[]::new);
+        targets = random.ints(NUMBER_OF_QUERIES, 0, numberOfVertices).boxed().toArray(Integer[]::new);
+    }
+
+    @Benchmark
+    public Object directedGraph() {
+        query = (query + 1) % NUMBER_OF_QUERIES;
+        return graph.getPath(sources[query], targets[query]);
+    }
+
+    @Benchmark
+    public Object frozenGraph() {
+        query = (query + 1) % NUMBER_OF_QUERIES;
+        return snapshot.getPath(sources[query], targets[query]);
+    }
+}
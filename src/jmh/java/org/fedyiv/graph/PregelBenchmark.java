@@ -0,0 +1,62 @@
+package org.fedyiv.graph;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link PageRank} and {@link WeaklyConnectedComponents} runs of {@link Pregel}
+ * scale with the number of cores of the fork-join pool on a random directed graph.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx16g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PregelBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int parallelism;
+
+    @Param({"1000000"})
+    public int numberOfVertices;
+
+    @Param({"8"})
+    public int averageDegree;
+
+    private ForkJoinPool pool;
+    private FrozenGraph<Integer> graph;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        pool = new ForkJoinPool(parallelism);
+
+        var builder = GraphBuilder.<Integer>directed();
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            builder.addVertex(vertex);
+        for (long edge = 0; edge < (long) numberOfVertices * averageDegree; edge++)
+            builder.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+
+        graph = builder.build();
+        graph.incomingAdjacency();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object pageRank() {
+        return Pregel.run(graph, new PageRank(PageRank.DEFAULT_DAMPING_FACTOR, 1e-6, 30), pool, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Object weaklyConnectedComponents() {
+        return Pregel.run(graph, new WeaklyConnectedComponents(), pool, Integer.MAX_VALUE);
+    }
+}
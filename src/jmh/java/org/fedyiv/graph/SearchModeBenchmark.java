@@ -0,0 +1,60 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.UndirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares unidirectional and bidirectional getPath on random undirected graphs.
+ * Sample time mode reports latency percentiles, including p0.99.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SearchModeBenchmark {
+
+    private static final int NUMBER_OF_QUERIES = 1024;
+
+    @Param({"100000", "1000000"})
+    public int numberOfVertices;
+
+    @Param({"4", "16"})
+    public int averageDegree;
+
+    @Param({"UNIDIRECTIONAL", "BIDIRECTIONAL"})
+    public SearchMode searchMode;
+
+    private UndirectedGraph<Integer> graph;
+    private int[] sources;
+    private int[] targets;
+    private int query;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+
+        graph = new UndirectedGraph<>();
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            graph.addVertex(vertex);
+
+        long numberOfEdges = (long) numberOfVertices * averageDegree / 2;
+        for (long edge = 0; edge < numberOfEdges; edge++)
+            graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+
+        graph.setSearchMode(searchMode);
+
+        sources = random.ints(NUMBER_OF_QUERIES, 0, numberOfVertices).toArray();
+        targets = random.ints(NUMBER_OF_QUERIES, 0, numberOfVertices).toArray();
+    }
+
+    @Benchmark
+    public Object getPath() {
+        int index = query++ & (NUMBER_OF_QUERIES - 1);
+        return graph.getPath(sources[index], targets[index]);
+    }
+}
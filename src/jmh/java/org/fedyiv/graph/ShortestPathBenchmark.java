@@ -0,0 +1,87 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.CompactUndirectedGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares unweighted breadth-first getPath with Dijkstra, A* and landmark (ALT) shortest paths on a frozen,
+ * road-like grid whose edge weights are the euclidean distances between jittered grid points.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xmx8g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ShortestPathBenchmark {
+
+    private static final int NUMBER_OF_QUERIES = 1024;
+
+    @Param({"300", "1000"})
+    public int gridSize;
+
+    private FrozenGraph<Integer> graph;
+    private LandmarkIndex<Integer> landmarkIndex;
+    private double[] xs;
+    private double[] ys;
+    private int[] sources;
+    private int[] targets;
+    private int query;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        int numberOfVertices = gridSize * gridSize;
+
+        xs = new double[numberOfVertices];
+        ys = new double[numberOfVertices];
+        for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+            xs[vertex] = vertex % gridSize + 0.4 * random.nextDouble();
+            ys[vertex] = vertex / gridSize + 0.4 * random.nextDouble();
+        }
+
+        var compactGraph = new CompactUndirectedGraph<Integer>(numberOfVertices);
+        for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+            if (vertex % gridSize + 1 < gridSize)
+                compactGraph.addEdge(vertex, vertex + 1, distance(vertex, vertex + 1));
+            if (vertex + gridSize < numberOfVertices)
+                compactGraph.addEdge(vertex, vertex + gridSize, distance(vertex, vertex + gridSize));
+        }
+        graph = compactGraph.freeze();
+        landmarkIndex = LandmarkIndex.build(graph, 16);
+
+        sources = random.ints(NUMBER_OF_QUERIES, 0, numberOfVertices).toArray();
+        targets = random.ints(NUMBER_OF_QUERIES, 0, numberOfVertices).toArray();
+    }
+
+    private double distance(int vertex1, int vertex2) {
+        return Math.hypot(xs[vertex1] - xs[vertex2], ys[vertex1] - ys[vertex2]);
+    }
+
+    @Benchmark
+    public Object breadthFirst() {
+        int index = query++ & (NUMBER_OF_QUERIES - 1);
+        return graph.getPath(sources[index], targets[index]);
+    }
+
+    @Benchmark
+    public Object dijkstra() {
+        int index = query++ & (NUMBER_OF_QUERIES - 1);
+        return graph.getShortestPath(sources[index], targets[index]);
+    }
+
+    @Benchmark
+    public Object aStar() {
+        int index = query++ & (NUMBER_OF_QUERIES - 1);
+        return graph.getShortestPath(sources[index], targets[index], this::distance);
+    }
+
+    @Benchmark
+    public Object landmarks() {
+        int index = query++ & (NUMBER_OF_QUERIES - 1);
+        return landmarkIndex.getPath(sources[index], targets[index]);
+    }
+}
@@ -0,0 +1,776 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Graph which interns vertices to dense int ids and keeps the adjacent vertices of every vertex
+ * in a sorted, growable {@code int[]}. {@link #freeze()} turns it into a {@link FrozenGraph}
+ * with compressed sparse row adjacency.
+ * <p>
+ * Edge weights are kept in {@code double[]} rows parallel to the adjacency rows, which are allocated
+ * only once an edge with a weight other than {@link #DEFAULT_WEIGHT} is added.
+ * <p>
+ * Removed vertices keep their ids as tombstones with empty adjacency, so a removal does not shift any id.
+ * Once enough ids are dead {@link #compact()} renumbers the remaining vertices and drops the tombstones.
+ */
+public abstract class AbstractCompactGraph<T> implements WeightedGraph<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int[] NO_ADJACENT_VERTICES = new int[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+
+    /**
+     * Value of a removed vertex id.
+     */
+    private static final Object REMOVED = new Object();
+
+    protected final ReadWriteLock rwl = new ReentrantReadWriteLock();
+
+    private final Map<T, Integer> vertexIds;
+
+    private Object[] values;
+    private int[][] adjacentVertices;
+    private double[][] weights;
+    private int[] degrees;
+    private int numberOfVertexIds;
+    private int numberOfRemovedVertices;
+    private long numberOfAdjacencies;
+
+    /**
+     * Incremented under the write lock on every structural modification.
+     */
+    protected int modCount;
+
+    private volatile Snapshot<T> lastSnapshot;
+
+    private final IntAdjacency adjacency = new IntAdjacency() {
+        @Override
+        public int numberOfVertices() {
+            return numberOfVertexIds;
+        }
+
+        @Override
+        public int[] adjacentVertices(int vertex) {
+            return adjacentVertices[vertex];
+        }
+
+        @Override
+        public int adjacencyStart(int vertex) {
+            return 0;
+        }
+
+        @Override
+        public int adjacencyEnd(int vertex) {
+            return degrees[vertex];
+        }
+
+        @Override
+        public double[] adjacentWeights(int vertex) {
+            return weights == null ? null : weights[vertex];
+        }
+    };
+
+    protected AbstractCompactGraph() {
+        this(INITIAL_CAPACITY);
+    }
+
+    protected AbstractCompactGraph(int expectedNumberOfVertices) {
+        int capacity = Math.max(expectedNumberOfVertices, INITIAL_CAPACITY);
+
+        vertexIds = new HashMap<>(capacity * 4 / 3 + 1);
+        values = new Object[capacity];
+        adjacentVertices = new int[capacity][];
+        degrees = new int[capacity];
+    }
+
+    private static class Snapshot<T> {
+        private final int modCount;
+        private final FrozenGraph<T> graph;
+
+        private Snapshot(int modCount, FrozenGraph<T> graph) {
+            this.modCount = modCount;
+            this.graph = graph;
+        }
+    }
+
+    @Override
+    public void addVertex(T vertex) {
+        rwl.writeLock().lock();
+        try {
+            getOrCreateVertexId(vertex);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the vertex and its edges. Its id becomes a tombstone: an undirected graph removes the id from
+     * the adjacency of its neighbours right away, a directed graph leaves it in the adjacency of predecessors,
+     * where queries skip it. Once a quarter of the ids are tombstones the graph is {@link #compact() compacted},
+     * so removals take amortized time proportional to the average degree and memory stays proportional to
+     * the number of remaining vertices.
+     */
+    @Override
+    public boolean removeVertex(T vertex) {
+        rwl.writeLock().lock();
+        try {
+            var vertexId = vertexIds.remove(vertex);
+            if (vertexId == null)
+                return false;
+
+            if (!isDirected()) {
+                for (int i = 0; i < degrees[vertexId]; i++) {
+                    int adjacentVertexId = adjacentVertices[vertexId][i];
+                    if (adjacentVertexId != vertexId)
+                        removeAdjacentVertex(adjacentVertexId, vertexId);
+                }
+            }
+
+            numberOfAdjacencies -= degrees[vertexId];
+            degrees[vertexId] = 0;
+            adjacentVertices[vertexId] = NO_ADJACENT_VERTICES;
+            if (weights != null)
+                weights[vertexId] = NO_WEIGHTS;
+            values[vertexId] = REMOVED;
+            modCount++;
+
+            if (++numberOfRemovedVertices >= Math.max(MIN_TOMBSTONES_TO_COMPACT, numberOfVertexIds / 4))
+                compact();
+
+            return true;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renumbers the remaining vertices to dense ids in their current order, which keeps adjacency rows
+     * sorted, and drops the tombstones of removed vertices from all rows.
+     */
+    public void compact() {
+        rwl.writeLock().lock();
+        try {
+            if (numberOfRemovedVertices == 0)
+                return;
+
+            int[] renumberedVertexIds = renumberVertexIds();
+            long compactedNumberOfAdjacencies = 0;
+
+            for (int vertexId = 0; vertexId < numberOfVertexIds; vertexId++) {
+                if (values[vertexId] == REMOVED)
+                    continue;
+
+                int compactedVertexId = renumberedVertexIds[vertexId];
+                int degree = copyLiveAdjacentVertices(vertexId, renumberedVertexIds, adjacentVertices[vertexId],
+                        weights == null ? null : weights[vertexId], 0);
+
+                values[compactedVertexId] = values[vertexId];
+                adjacentVertices[compactedVertexId] = adjacentVertices[vertexId];
+                if (weights != null)
+                    weights[compactedVertexId] = weights[vertexId];
+                degrees[compactedVertexId] = degree;
+                compactedNumberOfAdjacencies += degree;
+            }
+
+            int compactedNumberOfVertexIds = numberOfVertexIds - numberOfRemovedVertices;
+            Arrays.fill(values, compactedNumberOfVertexIds, numberOfVertexIds, null);
+            Arrays.fill(adjacentVertices, compactedNumberOfVertexIds, numberOfVertexIds, null);
+            if (weights != null)
+                Arrays.fill(weights, compactedNumberOfVertexIds, numberOfVertexIds, null);
+            Arrays.fill(degrees, compactedNumberOfVertexIds, numberOfVertexIds, 0);
+
+            vertexIds.replaceAll((vertex, vertexId) -> renumberedVertexIds[vertexId]);
+            numberOfVertexIds = compactedNumberOfVertexIds;
+            numberOfRemovedVertices = 0;
+            numberOfAdjacencies = compactedNumberOfAdjacencies;
+            modCount++;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the dense id of every remaining vertex by its current id, or -1 for tombstones.
+     */
+    private int[] renumberVertexIds() {
+        int[] renumberedVertexIds = new int[numberOfVertexIds];
+        for (int vertexId = 0, renumberedVertexId = 0; vertexId < numberOfVertexIds; vertexId++)
+            renumberedVertexIds[vertexId] = values[vertexId] == REMOVED ? -1 : renumberedVertexId++;
+
+        return renumberedVertexIds;
+    }
+
+    /**
+     * Copies the renumbered adjacency of the vertex without tombstones to {@code targets} and its weights,
+     * if any, to {@code targetWeights} starting at {@code offset}. The target arrays may be the row itself.
+     * Returns the offset after the last copied vertex.
+     */
+    private int copyLiveAdjacentVertices(int vertexId, int[] renumberedVertexIds, int[] targets, double[] targetWeights, int offset) {
+        int[] adjacent = adjacentVertices[vertexId];
+        for (int i = 0; i < degrees[vertexId]; i++) {
+            int renumberedVertexId = renumberedVertexIds[adjacent[i]];
+            if (renumberedVertexId < 0)
+                continue;
+
+            if (targetWeights != null)
+                targetWeights[offset] = weights[vertexId][i];
+            targets[offset++] = renumberedVertexId;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Interns all vertices of the batch, then sorts and deduplicates the edges and merges them into
+     * the adjacency of every source vertex at once. The write lock is taken once for the whole batch.
+     */
+    @Override
+    public void addEdges(Iterable<? extends Map.Entry<T, T>> edges) {
+        int expectedNumberOfEdges = edges instanceof Collection ? ((Collection<?>) edges).size() : INITIAL_CAPACITY;
+        long[] packedEdges = new long[Math.max(INITIAL_CAPACITY, isDirected() ? expectedNumberOfEdges : 2 * expectedNumberOfEdges)];
+        int numberOfPackedEdges = 0;
+
+        rwl.writeLock().lock();
+        try {
+            for (Map.Entry<T, T> edge : edges) {
+                int vertexId1 = getOrCreateVertexId(edge.getKey());
+                int vertexId2 = getOrCreateVertexId(edge.getValue());
+
+                if (numberOfPackedEdges + 2 > packedEdges.length)
+                    packedEdges = Arrays.copyOf(packedEdges, packedEdges.length + (packedEdges.length >> 1));
+
+                packedEdges[numberOfPackedEdges++] = pack(vertexId1, vertexId2);
+                if (!isDirected() && vertexId1 != vertexId2)
+                    packedEdges[numberOfPackedEdges++] = pack(vertexId2, vertexId1);
+            }
+
+            Arrays.parallelSort(packedEdges, 0, numberOfPackedEdges);
+
+            for (int runStart = 0, runEnd; runStart < numberOfPackedEdges; runStart = runEnd) {
+                int vertexId = (int) (packedEdges[runStart] >>> 32);
+
+                runEnd = runStart + 1;
+                while (runEnd < numberOfPackedEdges && (int) (packedEdges[runEnd] >>> 32) == vertexId)
+                    runEnd++;
+
+                mergeAdjacentVertices(vertexId, packedEdges, runStart, runEnd);
+            }
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    private static long pack(int vertexId, int adjacentVertexId) {
+        return ((long) vertexId << 32) | adjacentVertexId;
+    }
+
+    /**
+     * Merges sorted, possibly repeated adjacent vertex ids from the low halves of
+     * {@code packedEdges[from .. to)} into the sorted adjacency of the vertex.
+     */
+    private void mergeAdjacentVertices(int vertexId, long[] packedEdges, int from, int to) {
+        int degree = degrees[vertexId];
+        int[] adjacent = adjacentVertices[vertexId];
+        double[] adjacentWeights = weights == null ? null : weights[vertexId];
+        int[] merged = new int[degree + to - from];
+        double[] mergedWeights = adjacentWeights == null ? null : new double[merged.length];
+        int mergedDegree = 0;
+
+        int i = 0;
+        int j = from;
+        while (i < degree || j < to) {
+            int next;
+            double weight = DEFAULT_WEIGHT;
+            if (j == to || (i < degree && adjacent[i] <= (int) packedEdges[j])) {
+                if (adjacentWeights != null)
+                    weight = adjacentWeights[i];
+                next = adjacent[i++];
+            } else {
+                next = (int) packedEdges[j++];
+            }
+
+            if (mergedDegree == 0 || merged[mergedDegree - 1] != next) {
+                if (mergedWeights != null)
+                    mergedWeights[mergedDegree] = weight;
+                merged[mergedDegree++] = next;
+            }
+        }
+
+        if (mergedDegree == degree)
+            return;
+
+        adjacentVertices[vertexId] = merged;
+        if (mergedWeights != null)
+            weights[vertexId] = mergedWeights;
+        degrees[vertexId] = mergedDegree;
+        numberOfAdjacencies += mergedDegree - degree;
+        modCount++;
+    }
+
+    /**
+     * Uses Breadth-first search algorithm to find the shortest path between two vertexes
+     */
+    @Override
+    public List<T> getPath(T vertex1, T vertex2) {
+        rwl.readLock().lock();
+        try {
+            var vertexId1 = getVertexId(vertex1);
+            var vertexId2 = getVertexId(vertex2);
+
+            if (vertexId1 < 0 || vertexId2 < 0)
+                throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+            return toVertices(IntBreadthFirstSearch.findPath(adjacency, vertexId1, vertexId2));
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> getShortestPath(T vertex1, T vertex2) {
+        return getShortestPath(vertex1, vertex2, null);
+    }
+
+    @Override
+    public List<T> getShortestPath(T vertex1, T vertex2, ToDoubleBiFunction<T, T> heuristic) {
+        rwl.readLock().lock();
+        try {
+            var vertexId1 = getVertexId(vertex1);
+            var vertexId2 = getVertexId(vertex2);
+
+            if (vertexId1 < 0 || vertexId2 < 0)
+                throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+            var path = ShortestPathSearch.findPath(adjacency, vertexId1, vertexId2,
+                    heuristic == null ? null : vertexId -> values[vertexId] == REMOVED ? 0 : heuristic.applyAsDouble(getVertex(vertexId), vertex2));
+
+            return toVertices(path);
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double getEdgeWeight(T vertex1, T vertex2) {
+        rwl.readLock().lock();
+        try {
+            var vertexId1 = getVertexId(vertex1);
+            var vertexId2 = getVertexId(vertex2);
+            int position = vertexId1 < 0 || vertexId2 < 0 ? -1 : Arrays.binarySearch(adjacentVertices[vertexId1], 0, degrees[vertexId1], vertexId2);
+
+            if (position < 0)
+                throw new IllegalArgumentException("No edge " + vertex1 + " -> " + vertex2);
+
+            return weights == null ? DEFAULT_WEIGHT : weights[vertexId1][position];
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    private List<T> toVertices(int[] path) {
+        if (path == null)
+            return null;
+
+        List<T> vertices = new ArrayList<>(path.length);
+        for (int vertexId : path)
+            vertices.add(getVertex(vertexId));
+
+        return vertices;
+    }
+
+    @Override
+    public boolean containsVertex(T vertex) {
+        rwl.readLock().lock();
+        try {
+            return getVertexId(vertex) >= 0;
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsEdge(T vertex1, T vertex2) {
+        rwl.readLock().lock();
+        try {
+            var vertexId1 = getVertexId(vertex1);
+            var vertexId2 = getVertexId(vertex2);
+            if (vertexId1 < 0 || vertexId2 < 0)
+                return false;
+
+            return Arrays.binarySearch(adjacentVertices[vertexId1], 0, degrees[vertexId1], vertexId2) >= 0;
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int numberOfVertices() {
+        rwl.readLock().lock();
+        try {
+            return numberOfVertexIds - numberOfRemovedVertices;
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int numberOfOutgoingEdgesFromVertex(T vertex) {
+        rwl.readLock().lock();
+        try {
+            var vertexId = getVertexId(vertex);
+            if (vertexId < 0)
+                throw new IllegalArgumentException("No vertex " + vertex);
+
+            if (numberOfRemovedVertices == 0 || !isDirected())
+                return degrees[vertexId];
+
+            // removed vertices may still be in the adjacency of a directed graph
+            int numberOfEdges = 0;
+            for (int i = 0; i < degrees[vertexId]; i++) {
+                if (values[adjacentVertices[vertexId][i]] != REMOVED)
+                    numberOfEdges++;
+            }
+            return numberOfEdges;
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the function to every vertex and re-indexes the graph by the changed values.
+     * The graph stays unchanged if the function throws or maps two vertices to the same value.
+     */
+    @Override
+    public void traverse(Function<T, T> func) {
+        rwl.writeLock().lock();
+        try {
+            compact();
+
+            Map<T, Integer> reindexedVertexIds = new HashMap<>(numberOfVertexIds * 4 / 3 + 1);
+
+            for (int vertexId = 0; vertexId < numberOfVertexIds; vertexId++) {
+                var changedValue = func.apply(getVertex(vertexId));
+                var previous = reindexedVertexIds.put(changedValue, vertexId);
+                if (previous != null)
+                    throw new IllegalStateException("Multiple elements: " + getVertex(previous) + ", " + getVertex(vertexId));
+            }
+
+            reindexedVertexIds.forEach((changedValue, vertexId) -> values[vertexId] = changedValue);
+            vertexIds.clear();
+            vertexIds.putAll(reindexedVertexIds);
+            modCount++;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the function to chunks of the vertices on the pool while the write lock is held, then re-indexes
+     * the graph like {@link #traverse(Function)}. The graph stays unchanged if the function throws or maps
+     * two vertices to the same value.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void traverseParallel(Function<T, T> func, ForkJoinPool pool) {
+        rwl.writeLock().lock();
+        try {
+            compact();
+
+            var changedValues = ForkJoinRanges.map(pool, numberOfVertexIds, this::getVertex, func);
+
+            Map<T, Integer> reindexedVertexIds = new HashMap<>(numberOfVertexIds * 4 / 3 + 1);
+            for (int vertexId = 0; vertexId < numberOfVertexIds; vertexId++) {
+                var previous = reindexedVertexIds.put((T) changedValues[vertexId], vertexId);
+                if (previous != null)
+                    throw new IllegalStateException("Multiple elements: " + getVertex(previous) + ", " + getVertex(vertexId));
+            }
+
+            System.arraycopy(changedValues, 0, values, 0, numberOfVertexIds);
+            vertexIds.clear();
+            vertexIds.putAll(reindexedVertexIds);
+            modCount++;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns an immutable copy of the graph with compressed sparse row adjacency. Tombstones of removed
+     * vertices are left out, so vertex ids of the copy are dense.
+     */
+    public FrozenGraph<T> freeze() {
+        rwl.readLock().lock();
+        try {
+            if (numberOfAdjacencies > Integer.MAX_VALUE)
+                throw new IllegalStateException("Too many edges to freeze: " + numberOfAdjacencies);
+
+            int[] renumberedVertexIds = numberOfRemovedVertices == 0 ? null : renumberVertexIds();
+            int numberOfLiveVertices = numberOfVertexIds - numberOfRemovedVertices;
+            int[] offsets = new int[numberOfLiveVertices + 1];
+            int[] targets = new int[(int) numberOfAdjacencies];
+            double[] frozenWeights = weights == null ? null : new double[targets.length];
+            Object[] frozenValues = new Object[numberOfLiveVertices];
+
+            for (int vertexId = 0, frozenVertexId = 0; vertexId < numberOfVertexIds; vertexId++) {
+                if (values[vertexId] == REMOVED)
+                    continue;
+
+                int offset = offsets[frozenVertexId];
+                if (renumberedVertexIds == null) {
+                    System.arraycopy(adjacentVertices[vertexId], 0, targets, offset, degrees[vertexId]);
+                    if (frozenWeights != null)
+                        System.arraycopy(weights[vertexId], 0, frozenWeights, offset, degrees[vertexId]);
+                    offset += degrees[vertexId];
+                } else {
+                    offset = copyLiveAdjacentVertices(vertexId, renumberedVertexIds, targets, frozenWeights, offset);
+                }
+
+                frozenValues[frozenVertexId] = values[vertexId];
+                offsets[++frozenVertexId] = offset;
+            }
+
+            // tombstones were counted but skipped
+            if (offsets[numberOfLiveVertices] < targets.length) {
+                targets = Arrays.copyOf(targets, offsets[numberOfLiveVertices]);
+                if (frozenWeights != null)
+                    frozenWeights = Arrays.copyOf(frozenWeights, targets.length);
+            }
+
+            Map<T, Integer> frozenVertexIds = new HashMap<>(vertexIds);
+            if (renumberedVertexIds != null)
+                frozenVertexIds.replaceAll((vertex, vertexId) -> renumberedVertexIds[vertexId]);
+
+            return new FrozenGraph<>(frozenVertexIds, frozenValues, offsets, targets, frozenWeights, isDirected());
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns {@link #freeze() frozen} copy of the graph. The copy is reused until the graph is modified.
+     */
+    @Override
+    public FrozenGraph<T> snapshot() {
+        rwl.readLock().lock();
+        try {
+            var snapshot = lastSnapshot;
+            if (snapshot != null && snapshot.modCount == modCount)
+                return snapshot.graph;
+
+            var frozenGraph = freeze();
+            lastSnapshot = new Snapshot<>(modCount, frozenGraph);
+            return frozenGraph;
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs the reader on the adjacency rows in place under the read lock, or on the snapshot if it is still current.
+     */
+    void readAdjacency(AdjacencyView.Reader<T> reader) throws IOException {
+        rwl.readLock().lock();
+        try {
+            var snapshot = lastSnapshot;
+            if (snapshot != null && snapshot.modCount == modCount)
+                reader.read(AdjacencyView.of(snapshot.graph));
+            else
+                reader.read(new RowAdjacencyView());
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits the rows themselves unless tombstones have to be filtered out of them.
+     */
+    private final class RowAdjacencyView implements AdjacencyView<T> {
+
+        private int[] liveAdjacentVertices = NO_ADJACENT_VERTICES;
+        private double[] liveWeights = NO_WEIGHTS;
+
+        @Override
+        public int numberOfVertices() {
+            return numberOfVertexIds - numberOfRemovedVertices;
+        }
+
+        @Override
+        public int vertexIdBound() {
+            return numberOfVertexIds;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T vertex(int vertexId) {
+            return (T) values[vertexId];
+        }
+
+        @Override
+        public void visitAdjacency(Visitor<T> visitor) throws IOException {
+            for (int vertexId = 0; vertexId < numberOfVertexIds; vertexId++) {
+                if (values[vertexId] == REMOVED)
+                    continue;
+
+                double[] rowWeights = weights == null ? null : weights[vertexId];
+                if (numberOfRemovedVertices == 0 || !isDirected()) {
+                    visitor.visit(vertexId, vertex(vertexId), adjacentVertices[vertexId], rowWeights, 0, degrees[vertexId]);
+                    continue;
+                }
+
+                if (liveAdjacentVertices.length < degrees[vertexId]) {
+                    liveAdjacentVertices = new int[degrees[vertexId]];
+                    liveWeights = new double[degrees[vertexId]];
+                }
+
+                int degree = 0;
+                for (int i = 0; i < degrees[vertexId]; i++) {
+                    int adjacentVertexId = adjacentVertices[vertexId][i];
+                    if (values[adjacentVertexId] == REMOVED)
+                        continue;
+
+                    liveAdjacentVertices[degree] = adjacentVertexId;
+                    if (rowWeights != null)
+                        liveWeights[degree] = rowWeights[i];
+                    degree++;
+                }
+
+                visitor.visit(vertexId, vertex(vertexId), liveAdjacentVertices, rowWeights == null ? null : liveWeights, 0, degree);
+            }
+        }
+    }
+
+    /**
+     * Returns id of the vertex or -1 if there is no such vertex.
+     */
+    protected int getVertexId(T vertex) {
+        var vertexId = vertexIds.get(vertex);
+        return vertexId == null ? -1 : vertexId;
+    }
+
+    protected int getOrCreateVertexId(T vertex) {
+        var existingVertexId = vertexIds.get(vertex);
+        if (existingVertexId != null)
+            return existingVertexId;
+
+        if (numberOfVertexIds == values.length) {
+            int capacity = values.length + (values.length >> 1);
+            values = Arrays.copyOf(values, capacity);
+            adjacentVertices = Arrays.copyOf(adjacentVertices, capacity);
+            degrees = Arrays.copyOf(degrees, capacity);
+            if (weights != null)
+                weights = Arrays.copyOf(weights, capacity);
+        }
+
+        int vertexId = numberOfVertexIds++;
+        values[vertexId] = vertex;
+        adjacentVertices[vertexId] = NO_ADJACENT_VERTICES;
+        if (weights != null)
+            weights[vertexId] = NO_WEIGHTS;
+        vertexIds.put(vertex, vertexId);
+        modCount++;
+
+        return vertexId;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected T getVertex(int vertexId) {
+        return (T) values[vertexId];
+    }
+
+    /**
+     * Inserts {@code adjacentVertexId} into the sorted adjacency of {@code vertexId} unless it is already there.
+     * A new edge weighs {@link #DEFAULT_WEIGHT}.
+     */
+    protected void addAdjacentVertex(int vertexId, int adjacentVertexId) {
+        int position = Arrays.binarySearch(adjacentVertices[vertexId], 0, degrees[vertexId], adjacentVertexId);
+        if (position < 0)
+            insertAdjacentVertex(vertexId, -position - 1, adjacentVertexId);
+    }
+
+    /**
+     * Inserts {@code adjacentVertexId} into the sorted adjacency of {@code vertexId} or changes the weight
+     * of the existing edge.
+     */
+    protected void addAdjacentVertex(int vertexId, int adjacentVertexId, double weight) {
+        int position = Arrays.binarySearch(adjacentVertices[vertexId], 0, degrees[vertexId], adjacentVertexId);
+        if (position < 0) {
+            position = -position - 1;
+            insertAdjacentVertex(vertexId, position, adjacentVertexId);
+        } else if ((weights == null ? DEFAULT_WEIGHT : weights[vertexId][position]) != weight) {
+            modCount++;
+        }
+
+        if (weights == null && weight != DEFAULT_WEIGHT)
+            allocateWeights();
+        if (weights != null)
+            weights[vertexId][position] = weight;
+    }
+
+    /**
+     * Removes {@code adjacentVertexId} from the sorted adjacency of {@code vertexId}. Returns false if
+     * there is no such edge.
+     */
+    protected boolean removeAdjacentVertex(int vertexId, int adjacentVertexId) {
+        int degree = degrees[vertexId];
+        int position = Arrays.binarySearch(adjacentVertices[vertexId], 0, degree, adjacentVertexId);
+        if (position < 0)
+            return false;
+
+        System.arraycopy(adjacentVertices[vertexId], position + 1, adjacentVertices[vertexId], position, degree - position - 1);
+        if (weights != null)
+            System.arraycopy(weights[vertexId], position + 1, weights[vertexId], position, degree - position - 1);
+        degrees[vertexId] = degree - 1;
+        numberOfAdjacencies--;
+        modCount++;
+        return true;
+    }
+
+    protected static void checkWeight(double weight) {
+        ShortestPathSearch.checkWeight(weight);
+    }
+
+    private void insertAdjacentVertex(int vertexId, int position, int adjacentVertexId) {
+        int degree = degrees[vertexId];
+        int[] adjacent = adjacentVertices[vertexId];
+
+        if (degree == adjacent.length) {
+            int[] grown = new int[Math.max(4, degree + (degree >> 1))];
+            System.arraycopy(adjacent, 0, grown, 0, position);
+            System.arraycopy(adjacent, position, grown, position + 1, degree - position);
+            adjacentVertices[vertexId] = adjacent = grown;
+
+            if (weights != null) {
+                double[] grownWeights = new double[grown.length];
+                System.arraycopy(weights[vertexId], 0, grownWeights, 0, position);
+                System.arraycopy(weights[vertexId], position, grownWeights, position + 1, degree - position);
+                weights[vertexId] = grownWeights;
+            }
+        } else {
+            System.arraycopy(adjacent, position, adjacent, position + 1, degree - position);
+            if (weights != null)
+                System.arraycopy(weights[vertexId], position, weights[vertexId], position + 1, degree - position);
+        }
+
+        adjacent[position] = adjacentVertexId;
+        if (weights != null)
+            weights[vertexId][position] = DEFAULT_WEIGHT;
+        degrees[vertexId] = degree + 1;
+        numberOfAdjacencies++;
+        modCount++;
+    }
+
+    private void allocateWeights() {
+        weights = new double[values.length][];
+        for (int vertexId = 0; vertexId < numberOfVertexIds; vertexId++) {
+            weights[vertexId] = new double[adjacentVertices[vertexId].length];
+            Arrays.fill(weights[vertexId], DEFAULT_WEIGHT);
+        }
+    }
+}
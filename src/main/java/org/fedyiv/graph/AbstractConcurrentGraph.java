@@ -0,0 +1,626 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Graph whose queries never take a lock. The adjacent vertices of every vertex are kept in an immutable array
+ * which writers replace with an updated copy, so a reader always sees a consistent version of each adjacency
+ * and is never blocked by writers.
+ * <p>
+ * Writers lock only the vertices whose adjacency they change, so writes touching disjoint vertices run in parallel.
+ * They also share the read lock of {@link #structureLock}, which {@link #traverse(Function)} and
+ * {@link #snapshot()} take exclusively to see the whole graph at rest. The lock is striped by thread, so writers
+ * do not contend on a shared lock state either.
+ * <p>
+ * Removals take the write lock of {@link #structureLock} as well. A removed vertex of a directed graph stays in
+ * the adjacency of its predecessors as a tombstone, which queries skip, until enough tombstones pile up for one
+ * pass over the graph to drop them all.
+ */
+public abstract class AbstractConcurrentGraph<T> implements Graph<T> {
+
+    protected final ReadWriteLock structureLock = new StripedReadWriteLock();
+
+    protected final ConcurrentMap<T, VertexWrapper<T>> graph;
+
+    /**
+     * Incremented on every structural modification.
+     */
+    protected final LongAdder modCount = new LongAdder();
+
+    private final AtomicInteger nextVertexId = new AtomicInteger();
+
+    private Snapshot<T> lastSnapshot;
+
+    /**
+     * Number of removed vertices which may still be in the adjacency of other vertices.
+     */
+    private volatile int numberOfTombstones;
+
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+
+    /**
+     * Vertex with copy-on-write adjacency. Adjacent vertices are sorted by id so lookups are binary searches.
+     */
+    protected static final class VertexWrapper<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final VertexWrapper[] NO_ADJACENT_VERTICES = new VertexWrapper[0];
+
+        private final int id;
+        private volatile T value;
+        private volatile VertexWrapper<T>[] adjacentVertices;
+        private volatile boolean removed;
+
+        @SuppressWarnings("unchecked")
+        private VertexWrapper(int id, T value) {
+            this.id = id;
+            this.value = value;
+            this.adjacentVertices = NO_ADJACENT_VERTICES;
+        }
+
+        /**
+         * Publishes a new version of the adjacency which includes the given vertex.
+         * Must be called while holding the monitor of this vertex.
+         */
+        public boolean addAdjacentVertex(VertexWrapper<T> adjacentVertexWrapper) {
+            var current = adjacentVertices;
+            int position = indexOf(current, adjacentVertexWrapper.id);
+            if (position >= 0)
+                return false;
+            position = -position - 1;
+
+            var updated = Arrays.copyOf(current, current.length + 1);
+            System.arraycopy(current, position, updated, position + 1, current.length - position);
+            updated[position] = adjacentVertexWrapper;
+
+            adjacentVertices = updated;
+            return true;
+        }
+
+        /**
+         * Publishes a single new version of the adjacency which includes all given vertices.
+         * Must be called while holding the monitor of this vertex.
+         */
+        public boolean addAdjacentVertices(List<VertexWrapper<T>> adjacentVertexWrappers) {
+            adjacentVertexWrappers.sort(Comparator.comparingInt(VertexWrapper::getId));
+
+            var current = adjacentVertices;
+            var updated = Arrays.copyOf(current, current.length + adjacentVertexWrappers.size());
+            int updatedLength = 0;
+
+            int i = 0;
+            int j = 0;
+            while (i < current.length || j < adjacentVertexWrappers.size()) {
+                VertexWrapper<T> next;
+                if (j == adjacentVertexWrappers.size() || (i < current.length && current[i].id <= adjacentVertexWrappers.get(j).id))
+                    next = current[i++];
+                else
+                    next = adjacentVertexWrappers.get(j++);
+
+                if (updatedLength == 0 || updated[updatedLength - 1] != next)
+                    updated[updatedLength++] = next;
+            }
+
+            if (updatedLength == current.length)
+                return false;
+
+            adjacentVertices = Arrays.copyOf(updated, updatedLength);
+            return true;
+        }
+
+        /**
+         * Publishes a new version of the adjacency without the given vertex.
+         * Must be called while holding the monitor of this vertex.
+         */
+        public boolean removeAdjacentVertex(VertexWrapper<T> adjacentVertexWrapper) {
+            var current = adjacentVertices;
+            int position = indexOf(current, adjacentVertexWrapper.id);
+            if (position < 0)
+                return false;
+
+            var updated = Arrays.copyOf(current, current.length - 1);
+            System.arraycopy(current, position + 1, updated, position, current.length - position - 1);
+
+            adjacentVertices = updated;
+            return true;
+        }
+
+        /**
+         * Returns true once the vertex has been removed from the graph.
+         */
+        public boolean isRemoved() {
+            return removed;
+        }
+
+        /**
+         * Returns the current version of the adjacency. The returned array is never modified.
+         */
+        public VertexWrapper<T>[] getAdjacentVertices() {
+            return adjacentVertices;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isAdjacent(VertexWrapper<T> other) {
+            return indexOf(adjacentVertices, other.id) >= 0;
+        }
+
+        private static int indexOf(VertexWrapper<?>[] vertexWrappers, int id) {
+            int low = 0;
+            int high = vertexWrappers.length - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleId = vertexWrappers[middle].id;
+
+                if (middleId < id)
+                    low = middle + 1;
+                else if (middleId > id)
+                    high = middle - 1;
+                else
+                    return middle;
+            }
+
+            return -(low + 1);
+        }
+    }
+
+    protected AbstractConcurrentGraph() {
+        graph = new ConcurrentHashMap<>();
+    }
+
+    protected AbstractConcurrentGraph(int expectedNumberOfVertices) {
+        graph = new ConcurrentHashMap<>(expectedNumberOfVertices);
+    }
+
+    private static class Snapshot<T> {
+        private final long modCount;
+        private final FrozenGraph<T> graph;
+
+        private Snapshot(long modCount, FrozenGraph<T> graph) {
+            this.modCount = modCount;
+            this.graph = graph;
+        }
+    }
+
+    @Override
+    public void addVertex(T vertex) {
+        structureLock.readLock().lock();
+        try {
+            getOrCreateVertexWrapper(vertex);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Groups the edges by source vertex, so every adjacency is copied and published once per batch
+     * instead of once per edge. Edges of an undirected graph become visible in both directions
+     * when the whole batch is done.
+     */
+    @Override
+    public void addEdges(Iterable<? extends Map.Entry<T, T>> edges) {
+        structureLock.readLock().lock();
+        try {
+            Map<VertexWrapper<T>, List<VertexWrapper<T>>> adjacentVerticesBySource = new HashMap<>();
+
+            for (Map.Entry<T, T> edge : edges) {
+                var vertexWrapper1 = getOrCreateVertexWrapper(edge.getKey());
+                var vertexWrapper2 = getOrCreateVertexWrapper(edge.getValue());
+
+                adjacentVerticesBySource.computeIfAbsent(vertexWrapper1, source -> new ArrayList<>()).add(vertexWrapper2);
+                if (!isDirected())
+                    adjacentVerticesBySource.computeIfAbsent(vertexWrapper2, source -> new ArrayList<>()).add(vertexWrapper1);
+            }
+
+            adjacentVerticesBySource.forEach((vertexWrapper, adjacentVertexWrappers) -> {
+                synchronized (vertexWrapper) {
+                    if (vertexWrapper.addAdjacentVertices(adjacentVertexWrappers))
+                        modCount.increment();
+                }
+            });
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the vertex and its edges while writers are blocked. Queries are not blocked and see the vertex
+     * either with all its edges or without them. Takes amortized time proportional to the average degree.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeVertex(T vertex) {
+        structureLock.writeLock().lock();
+        try {
+            var vertexWrapper = graph.remove(vertex);
+            if (vertexWrapper == null)
+                return false;
+
+            if (!isDirected()) {
+                for (VertexWrapper<T> adjacentVertex : vertexWrapper.getAdjacentVertices()) {
+                    synchronized (adjacentVertex) {
+                        adjacentVertex.removeAdjacentVertex(vertexWrapper);
+                    }
+                }
+            }
+
+            vertexWrapper.removed = true;
+            vertexWrapper.adjacentVertices = VertexWrapper.NO_ADJACENT_VERTICES;
+            modCount.increment();
+
+            if (isDirected() && ++numberOfTombstones >= Math.max(MIN_TOMBSTONES_TO_COMPACT, graph.size() / 4))
+                compact();
+
+            return true;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the tombstones of removed vertices from the adjacency of the remaining ones while writers are blocked.
+     */
+    public void compact() {
+        structureLock.writeLock().lock();
+        try {
+            if (numberOfTombstones == 0)
+                return;
+
+            for (VertexWrapper<T> vertexWrapper : graph.values())
+                vertexWrapper.adjacentVertices = liveAdjacentVertices(vertexWrapper);
+
+            numberOfTombstones = 0;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the adjacency of the vertex without tombstones of removed vertices.
+     */
+    private VertexWrapper<T>[] liveAdjacentVertices(VertexWrapper<T> vertexWrapper) {
+        var adjacentVertices = vertexWrapper.getAdjacentVertices();
+        if (numberOfTombstones == 0)
+            return adjacentVertices;
+
+        int numberOfLiveVertices = 0;
+        for (VertexWrapper<T> adjacentVertex : adjacentVertices) {
+            if (!adjacentVertex.isRemoved())
+                numberOfLiveVertices++;
+        }
+        if (numberOfLiveVertices == adjacentVertices.length)
+            return adjacentVertices;
+
+        var liveAdjacentVertices = Arrays.copyOf(adjacentVertices, numberOfLiveVertices);
+        int i = 0;
+        for (VertexWrapper<T> adjacentVertex : adjacentVertices) {
+            if (!adjacentVertex.isRemoved())
+                liveAdjacentVertices[i++] = adjacentVertex;
+        }
+        return liveAdjacentVertices;
+    }
+
+    /**
+     * Uses Breadth-first search algorithm to find the shortest path between two vertexes.
+     * Edges added while the search runs may or may not be taken into account.
+     */
+    @Override
+    public List<T> getPath(T vertex1, T vertex2) {
+        var source = graph.get(vertex1);
+        var target = graph.get(vertex2);
+
+        if (source == null || target == null)
+            throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+        Map<VertexWrapper<T>, VertexWrapper<T>> predecessors = new HashMap<>();
+        Deque<VertexWrapper<T>> verticesToVisit = new ArrayDeque<>();
+
+        predecessors.put(source, source);
+        verticesToVisit.add(source);
+
+        if (source == target)
+            return buildPath(predecessors, target);
+
+        while (!verticesToVisit.isEmpty()) {
+            var currentVertex = verticesToVisit.poll();
+
+            for (VertexWrapper<T> adjacentVertex : currentVertex.getAdjacentVertices()) {
+                if (predecessors.putIfAbsent(adjacentVertex, currentVertex) != null)
+                    continue;
+
+                if (adjacentVertex == target)
+                    return buildPath(predecessors, target);
+
+                verticesToVisit.add(adjacentVertex);
+            }
+        }
+
+        return null;
+    }
+
+    private List<T> buildPath(Map<VertexWrapper<T>, VertexWrapper<T>> predecessors, VertexWrapper<T> target) {
+        List<T> path = new ArrayList<>();
+
+        var currentVertex = target;
+        while (true) {
+            path.add(currentVertex.getValue());
+            var predecessor = predecessors.get(currentVertex);
+            if (predecessor == currentVertex)
+                break;
+            currentVertex = predecessor;
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Traverses the graph lazily and without locks. The traversal is weakly consistent: it sees the version
+     * of the adjacency of every vertex which was published when the traversal reached the vertex.
+     */
+    @Override
+    public Stream<T> bfs(T start, int maxDepth) {
+        Traversals.checkMaxDepth(maxDepth);
+        return Traversals.stream(Traversals.breadthFirst(getExistingVertexWrapper(start), maxDepth, this::liveAdjacentVertices))
+                .map(VertexWrapper::getValue);
+    }
+
+    /**
+     * Traverses the graph lazily and without locks. The traversal is weakly consistent: it sees the version
+     * of the adjacency of every vertex which was published when the traversal reached the vertex.
+     */
+    @Override
+    public Stream<T> dfs(T start, int maxDepth) {
+        Traversals.checkMaxDepth(maxDepth);
+        return Traversals.stream(Traversals.depthFirst(getExistingVertexWrapper(start), maxDepth, this::liveAdjacentVertices))
+                .map(VertexWrapper::getValue);
+    }
+
+    private VertexWrapper<T> getExistingVertexWrapper(T vertex) {
+        var vertexWrapper = graph.get(vertex);
+        if (vertexWrapper == null)
+            throw new IllegalArgumentException("No vertex " + vertex);
+
+        return vertexWrapper;
+    }
+
+    @Override
+    public boolean containsVertex(T vertex) {
+        return graph.containsKey(vertex);
+    }
+
+    @Override
+    public boolean containsEdge(T vertex1, T vertex2) {
+        var vertexWrapper1 = graph.get(vertex1);
+        var vertexWrapper2 = graph.get(vertex2);
+        if (vertexWrapper1 == null || vertexWrapper2 == null)
+            return false;
+
+        return vertexWrapper1.isAdjacent(vertexWrapper2);
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return graph.size();
+    }
+
+    @Override
+    public int numberOfOutgoingEdgesFromVertex(T vertex) {
+        var vertexWrapper = graph.get(vertex);
+        if (vertexWrapper == null)
+            throw new IllegalArgumentException("No vertex " + vertex);
+
+        return liveAdjacentVertices(vertexWrapper).length;
+    }
+
+    /**
+     * Applies the function to every vertex and re-indexes the graph by the changed values.
+     * The graph stays unchanged if the function throws or maps two vertices to the same value.
+     * Queries running at the same time may see a mix of old and changed values.
+     */
+    @Override
+    public void traverse(Function<T, T> func) {
+        structureLock.writeLock().lock();
+        try {
+            Map<T, VertexWrapper<T>> reindexedGraph = new HashMap<>(graph.size() * 4 / 3 + 1);
+
+            for (VertexWrapper<T> vertexWrapper : graph.values()) {
+                var changedValue = func.apply(vertexWrapper.getValue());
+                var previous = reindexedGraph.put(changedValue, vertexWrapper);
+                if (previous != null)
+                    throw new IllegalStateException("Multiple elements: " + previous.getValue() + ", " + vertexWrapper.getValue());
+            }
+
+            graph.keySet().retainAll(reindexedGraph.keySet());
+            reindexedGraph.forEach((changedValue, vertexWrapper) -> {
+                vertexWrapper.value = changedValue;
+                graph.put(changedValue, vertexWrapper);
+            });
+            modCount.increment();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the function to chunks of the vertices on the pool while writers are blocked, then re-indexes
+     * the graph like {@link #traverse(Function)}. Queries are not blocked and see either old or new values.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void traverseParallel(Function<T, T> func, ForkJoinPool pool) {
+        structureLock.writeLock().lock();
+        try {
+            List<VertexWrapper<T>> vertexWrappers = new ArrayList<>(graph.values());
+            var changedValues = ForkJoinRanges.map(pool, vertexWrappers.size(), i -> vertexWrappers.get(i).getValue(), func);
+
+            Map<T, VertexWrapper<T>> reindexedGraph = new HashMap<>(vertexWrappers.size() * 4 / 3 + 1);
+            for (int i = 0; i < vertexWrappers.size(); i++) {
+                var previous = reindexedGraph.put((T) changedValues[i], vertexWrappers.get(i));
+                if (previous != null)
+                    throw new IllegalStateException("Multiple elements: " + previous.getValue() + ", " + vertexWrappers.get(i).getValue());
+            }
+
+            graph.keySet().retainAll(reindexedGraph.keySet());
+            reindexedGraph.forEach((changedValue, vertexWrapper) -> {
+                vertexWrapper.value = changedValue;
+                graph.put(changedValue, vertexWrapper);
+            });
+            modCount.increment();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the graph into compressed sparse row layout while writers are blocked, so the copy is
+     * consistent. Queries are not blocked. The copy is reused until the graph is modified.
+     */
+    @Override
+    public FrozenGraph<T> snapshot() {
+        structureLock.writeLock().lock();
+        try {
+            var snapshot = lastSnapshot;
+            var currentModCount = modCount.sum();
+            if (snapshot != null && snapshot.modCount == currentModCount)
+                return snapshot.graph;
+
+            var frozenGraph = freeze();
+            lastSnapshot = new Snapshot<>(currentModCount, frozenGraph);
+            return frozenGraph;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs the reader on the adjacency arrays in place while writers are blocked, or on the snapshot if it is
+     * still current. Queries are not blocked.
+     */
+    void readAdjacency(AdjacencyView.Reader<T> reader) throws IOException {
+        structureLock.writeLock().lock();
+        try {
+            var snapshot = lastSnapshot;
+            if (snapshot != null && snapshot.modCount == modCount.sum())
+                reader.read(AdjacencyView.of(snapshot.graph));
+            else
+                reader.read(new ArrayAdjacencyView());
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds vertices by id in an index built once per view, as the graph itself keeps none.
+     */
+    private final class ArrayAdjacencyView implements AdjacencyView<T> {
+
+        private final VertexWrapper<T>[] vertexWrappers;
+        private int[] adjacentVertexIds = new int[16];
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private ArrayAdjacencyView() {
+            vertexWrappers = new VertexWrapper[nextVertexId.get()];
+            for (VertexWrapper<T> vertexWrapper : graph.values())
+                vertexWrappers[vertexWrapper.getId()] = vertexWrapper;
+        }
+
+        @Override
+        public int numberOfVertices() {
+            return graph.size();
+        }
+
+        @Override
+        public int vertexIdBound() {
+            return vertexWrappers.length;
+        }
+
+        @Override
+        public T vertex(int vertexId) {
+            return vertexWrappers[vertexId].getValue();
+        }
+
+        @Override
+        public void visitAdjacency(Visitor<T> visitor) throws IOException {
+            for (VertexWrapper<T> vertexWrapper : vertexWrappers) {
+                if (vertexWrapper == null)
+                    continue;
+
+                var adjacentVertices = liveAdjacentVertices(vertexWrapper);
+                if (adjacentVertexIds.length < adjacentVertices.length)
+                    adjacentVertexIds = new int[Math.max(adjacentVertices.length, 2 * adjacentVertexIds.length)];
+
+                for (int i = 0; i < adjacentVertices.length; i++)
+                    adjacentVertexIds[i] = adjacentVertices[i].getId();
+
+                visitor.visit(vertexWrapper.getId(), vertexWrapper.getValue(), adjacentVertexIds, null, 0, adjacentVertices.length);
+            }
+        }
+    }
+
+    private FrozenGraph<T> freeze() {
+        int numberOfVertices = graph.size();
+        Object[] values = new Object[numberOfVertices];
+        Map<T, Integer> vertexIds = new HashMap<>(numberOfVertices * 4 / 3 + 1);
+        int[] snapshotIds = new int[nextVertexId.get()];
+
+        List<VertexWrapper<T>> vertexWrappers = new ArrayList<>(graph.values());
+        vertexWrappers.sort(Comparator.comparingInt(VertexWrapper::getId));
+
+        long numberOfAdjacencies = 0;
+        for (int vertexId = 0; vertexId < numberOfVertices; vertexId++) {
+            var vertexWrapper = vertexWrappers.get(vertexId);
+            values[vertexId] = vertexWrapper.getValue();
+            vertexIds.put(vertexWrapper.getValue(), vertexId);
+            snapshotIds[vertexWrapper.getId()] = vertexId;
+            numberOfAdjacencies += liveAdjacentVertices(vertexWrapper).length;
+        }
+
+        if (numberOfAdjacencies > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many edges to freeze: " + numberOfAdjacencies);
+
+        int[] offsets = new int[numberOfVertices + 1];
+        int[] targets = new int[(int) numberOfAdjacencies];
+
+        for (int vertexId = 0; vertexId < numberOfVertices; vertexId++) {
+            int offset = offsets[vertexId];
+            for (VertexWrapper<T> adjacentVertex : liveAdjacentVertices(vertexWrappers.get(vertexId)))
+                targets[offset++] = snapshotIds[adjacentVertex.getId()];
+
+            offsets[vertexId + 1] = offset;
+        }
+
+        return new FrozenGraph<>(vertexIds, values, offsets, targets, isDirected());
+    }
+
+    /**
+     * Must be called while holding the read lock of {@link #structureLock}.
+     */
+    protected VertexWrapper<T> getOrCreateVertexWrapper(T vertex) {
+        var existingVertexWrapper = graph.get(vertex);
+        if (existingVertexWrapper != null)
+            return existingVertexWrapper;
+
+        return graph.computeIfAbsent(vertex, newVertex -> {
+            modCount.increment();
+            return new VertexWrapper<>(nextVertexId.getAndIncrement(), newVertex);
+        });
+    }
+
+}
@@ -1,19 +1,63 @@
 package org.fedyiv.graph;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
-
-public abstract class AbstractGraph<T> implements Graph<T> {
+import java.util.function.ToDoubleBiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Graph with hash set adjacency under a read-write lock. Edge weights other than {@link #DEFAULT_WEIGHT}
+ * are kept in a {@link WeightTable} per vertex, which is allocated only once such a weight is added.
+ * Weighted shortest paths are searched on the {@link #snapshot()}, which has to be rebuilt after every
+ * modification, so graphs with frequent weighted queries between modifications are better served by the
+ * compact graphs.
+ */
+public abstract class AbstractGraph<T> implements WeightedGraph<T> {
 
     protected final ReadWriteLock rwl = new ReentrantReadWriteLock();
 
-    protected final Set<VertexWrapper<T>> graph = new HashSet<>();
+    protected final Map<T, VertexWrapper<T>> graph;
+
+    /**
+     * Incremented under the write lock on every structural modification.
+     */
+    protected int modCount;
+
+    private volatile SearchMode searchMode;
+
+    private volatile int numberOfLandmarks;
+
+    private volatile LandmarkIndex<T> landmarkIndex;
+
+    private volatile PathCache<T> pathCache;
+
+    private volatile Snapshot<T> lastSnapshot;
+
+    /**
+     * Number of removed vertices which may still be in the adjacency of other vertices, see {@link #removeVertex(Object)}.
+     */
+    private int numberOfTombstones;
+
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Vertices by their dense ids, which index the scratch buffers of path searches, see {@link TraversalContext}.
+     * Ids of removed vertices are not reused until {@link #compact()} renumbers the vertices.
+     */
+    private VertexWrapper<T>[] vertexWrappers;
+    private int nextVertexId;
 
     protected static class VertexWrapper<T> {
         private T value;
         private final Set<VertexWrapper<T>> adjacentVertices;
+        private WeightTable<VertexWrapper<T>> weights;
+        private boolean removed;
+        private int id;
 
 
         public VertexWrapper(T value) {
@@ -21,8 +65,38 @@ public abstract class AbstractGraph<T> implements Graph<T> {
             adjacentVertices = new HashSet<>();
         }
 
-        public void addAdjacentVertex(VertexWrapper<T> adjacentVertexWrapper) {
-            adjacentVertices.add(adjacentVertexWrapper);
+        public boolean addAdjacentVertex(VertexWrapper<T> adjacentVertexWrapper) {
+            return adjacentVertices.add(adjacentVertexWrapper);
+        }
+
+        public boolean removeAdjacentVertex(VertexWrapper<T> adjacentVertexWrapper) {
+            if (weights != null)
+                weights.remove(adjacentVertexWrapper);
+            return adjacentVertices.remove(adjacentVertexWrapper);
+        }
+
+        /**
+         * Sets the weight of the edge to an adjacent vertex. Returns false if it already had that weight.
+         */
+        public boolean setWeight(VertexWrapper<T> adjacentVertexWrapper, double weight) {
+            if (weights == null) {
+                if (weight == DEFAULT_WEIGHT)
+                    return false;
+                weights = new WeightTable<>();
+            }
+
+            return weights.put(adjacentVertexWrapper, weight);
+        }
+
+        public double getWeight(VertexWrapper<T> adjacentVertexWrapper) {
+            return weights == null ? DEFAULT_WEIGHT : weights.get(adjacentVertexWrapper);
+        }
+
+        /**
+         * Returns true once the vertex has been removed from the graph.
+         */
+        public boolean isRemoved() {
+            return removed;
         }
 
         public Set<VertexWrapper<T>> getAdjacentVertices() {
@@ -42,26 +116,209 @@ public abstract class AbstractGraph<T> implements Graph<T> {
         }
     }
 
+    protected AbstractGraph() {
+        this(INITIAL_CAPACITY);
+    }
+
+    protected AbstractGraph(int expectedNumberOfVertices) {
+        graph = new HashMap<>(expectedNumberOfVertices * 4 / 3 + 1);
+        vertexWrappers = newVertexWrapperArray(Math.max(expectedNumberOfVertices, INITIAL_CAPACITY));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> VertexWrapper<T>[] newVertexWrapperArray(int length) {
+        return new VertexWrapper[length];
+    }
+
+    private static class Snapshot<T> {
+        private final int modCount;
+        private final FrozenGraph<T> graph;
+
+        private Snapshot(int modCount, FrozenGraph<T> graph) {
+            this.modCount = modCount;
+            this.graph = graph;
+        }
+    }
+
     @Override
     public void addVertex(T vertex) {
         rwl.writeLock().lock();
         try {
-            var existingVertexWrapper = getVertexWrapper(vertex);
+            getOrCreateVertexWrapper(vertex);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+
+    }
+
+    /**
+     * Takes the write lock once for the whole batch.
+     */
+    @Override
+    public void addEdges(Iterable<? extends Map.Entry<T, T>> edges) {
+        rwl.writeLock().lock();
+        try {
+            for (Map.Entry<T, T> edge : edges)
+                addEdge(edge.getKey(), edge.getValue());
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the vertex and its outgoing edges. Edges to the vertex are removed as well if
+     * {@link #removeIncomingEdges(VertexWrapper)} can find them. Otherwise the removed vertex stays behind as
+     * a tombstone in the adjacency of its predecessors, where queries skip it, until there are enough tombstones
+     * for one pass over the graph to drop them all, so a removal costs amortized time proportional to the
+     * average degree. The same pass renumbers the vertices once a quarter of the ids belong to removed ones.
+     */
+    @Override
+    public boolean removeVertex(T vertex) {
+        rwl.writeLock().lock();
+        try {
+            var vertexWrapper = graph.remove(vertex);
+            if (vertexWrapper == null)
+                return false;
+
+            boolean incomingEdgesRemoved = removeIncomingEdges(vertexWrapper);
+            vertexWrapper.adjacentVertices.clear();
+            vertexWrapper.weights = null;
+            vertexWrapper.removed = true;
+            modCount++;
+
+            // without tombstones nothing refers to the id any more
+            if (incomingEdgesRemoved)
+                vertexWrappers[vertexWrapper.id] = null;
+            else
+                numberOfTombstones++;
+
+            // every tombstone also holds an id, so this covers both
+            if (nextVertexId - graph.size() >= Math.max(MIN_TOMBSTONES_TO_COMPACT, graph.size() / 4))
+                compact();
 
-            if (existingVertexWrapper == null) {
-                graph.add(new VertexWrapper<>(vertex));
+            return true;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops all tombstones of removed vertices from the adjacency of the remaining ones and renumbers
+     * the remaining vertices to dense ids.
+     */
+    public void compact() {
+        rwl.writeLock().lock();
+        try {
+            if (nextVertexId == graph.size())
+                return;
+
+            if (numberOfTombstones > 0) {
+                for (VertexWrapper<T> vertexWrapper : graph.values()) {
+                    vertexWrapper.adjacentVertices.removeIf(VertexWrapper::isRemoved);
+                    if (vertexWrapper.weights != null)
+                        vertexWrapper.weights.removeIf(VertexWrapper::isRemoved);
+                }
+
+                numberOfTombstones = 0;
+            }
+
+            Arrays.fill(vertexWrappers, 0, nextVertexId, null);
+            nextVertexId = 0;
+            for (VertexWrapper<T> vertexWrapper : graph.values()) {
+                vertexWrapper.id = nextVertexId++;
+                vertexWrappers[vertexWrapper.id] = vertexWrapper;
             }
         } finally {
             rwl.writeLock().unlock();
         }
+    }
 
+    /**
+     * Called under the write lock while the vertex is removed, before its outgoing edges are dropped.
+     * Returns true if edges from other vertices to it have been removed, false if tombstones must be left
+     * behind because the graph does not know them.
+     */
+    protected boolean removeIncomingEdges(VertexWrapper<T> vertexWrapper) {
+        return false;
     }
 
     /**
-     * Uses Breadth-first search algorithm to find the shortest path between two vertexes
+     * Adds the edge like {@link #addEdge(Object, Object)} and sets its weight, in both directions if the graph
+     * is undirected.
+     */
+    @Override
+    public void addEdge(T vertex1, T vertex2, double weight) {
+        ShortestPathSearch.checkWeight(weight);
+
+        rwl.writeLock().lock();
+        try {
+            addEdge(vertex1, vertex2);
+
+            var vertexWrapper1 = getVertexWrapper(vertex1);
+            var vertexWrapper2 = getVertexWrapper(vertex2);
+
+            boolean changed = vertexWrapper1.setWeight(vertexWrapper2, weight);
+            if (!isDirected())
+                vertexWrapper2.setWeight(vertexWrapper1, weight);
+            if (changed)
+                modCount++;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public double getEdgeWeight(T vertex1, T vertex2) {
+        rwl.readLock().lock();
+        try {
+            var vertexWrapper1 = getVertexWrapper(vertex1);
+            var vertexWrapper2 = getVertexWrapper(vertex2);
+
+            if (vertexWrapper1 == null || vertexWrapper2 == null || !vertexWrapper1.isAdjacent(vertexWrapper2))
+                throw new IllegalArgumentException("No edge " + vertex1 + " -> " + vertex2);
+
+            return vertexWrapper1.getWeight(vertexWrapper2);
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm on the snapshot.
+     */
+    @Override
+    public List<T> getShortestPath(T vertex1, T vertex2) {
+        return snapshot().getShortestPath(vertex1, vertex2);
+    }
+
+    /**
+     * Runs A* search on the snapshot.
+     */
+    @Override
+    public List<T> getShortestPath(T vertex1, T vertex2, ToDoubleBiFunction<T, T> heuristic) {
+        return snapshot().getShortestPath(vertex1, vertex2, heuristic);
+    }
+
+    /**
+     * Uses Breadth-first search algorithm to find the shortest path between two vertexes.
+     * Depending on the {@link #getSearchMode() search mode} the search runs from the first vertex only
+     * or from both vertices at once. If {@link #setNumberOfLandmarks(int) landmarks} are enabled
+     * the path is found with A* search over a {@link LandmarkIndex} of the {@link #snapshot()} instead. The index
+     * ignores edge weights, so it returns a path with as few edges as breadth-first search does; weighted paths
+     * are found by {@link #getShortestPath(Object, Object)}.
+     * If the {@link #setPathCacheSize(int) path cache} is enabled, paths are looked up there first
+     * and the returned paths are unmodifiable.
      */
     @Override
     public List<T> getPath(T vertex1, T vertex2) {
+        return getPath(vertex1, vertex2, TraversalContext.forCurrentThread());
+    }
+
+    /**
+     * Like {@link #getPath(Object, Object)}, with the scratch buffers of the given context. Once they have grown
+     * to the size of the graph, a breadth-first search allocates nothing but the returned path.
+     */
+    public List<T> getPath(T vertex1, T vertex2, TraversalContext context) {
 
         rwl.readLock().lock();
 
@@ -72,60 +329,365 @@ public abstract class AbstractGraph<T> implements Graph<T> {
             if (vertexWrapper1 == null || vertexWrapper2 == null)
                 throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
 
-            Queue<AbstractMap.Entry<VertexWrapper<T>, List<T>>> vertecesToVisitWithFullPathQueue = new LinkedList<>();
-            Set<VertexWrapper<T>> visitedVertices = new HashSet<>();
+            var cache = pathCache;
+            if (cache != null)
+                return cache.getPath(vertex1, vertex2, modCount, (source, target) -> searchPath(source, target, vertexWrapper1, vertexWrapper2, context));
 
-            List<T> initialPath = new ArrayList<>();
-            initialPath.add(vertexWrapper1.getValue());
-            vertecesToVisitWithFullPathQueue.add(new AbstractMap.SimpleEntry<>(vertexWrapper1, initialPath));
+            return searchPath(vertex1, vertex2, vertexWrapper1, vertexWrapper2, context);
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
 
+    private List<T> searchPath(T vertex1, T vertex2, VertexWrapper<T> vertexWrapper1, VertexWrapper<T> vertexWrapper2, TraversalContext context) {
+        var landmarks = numberOfLandmarks;
+        if (landmarks > 0)
+            return getLandmarkIndex(landmarks).getPath(vertex1, vertex2);
 
-            while (vertecesToVisitWithFullPathQueue.peek() != null) {
+        if (getSearchMode() == SearchMode.BIDIRECTIONAL && supportsBackwardSearch())
+            return findPathBidirectionally(vertexWrapper1, vertexWrapper2, context);
 
-                var currentVertexWithPath = vertecesToVisitWithFullPathQueue.remove();
+        return findPath(vertexWrapper1, vertexWrapper2, context);
+    }
 
-                var currentVertex = currentVertexWithPath.getKey();
-                var currentPath = currentVertexWithPath.getValue();
+    /**
+     * Traverses the graph lazily, taking the read lock for every step only. The traversal is weakly consistent:
+     * it sees the adjacency of every vertex as it was when the traversal reached the vertex.
+     */
+    @Override
+    public Stream<T> bfs(T start, int maxDepth) {
+        return breadthFirst(start, maxDepth, VertexWrapper::getAdjacentVertices);
+    }
 
-                visitedVertices.add(currentVertex);
+    /**
+     * Traverses the graph lazily, taking the read lock for every step only. The traversal is weakly consistent:
+     * it sees the adjacency of every vertex as it was when the traversal reached the vertex.
+     */
+    @Override
+    public Stream<T> dfs(T start, int maxDepth) {
+        return depthFirst(start, maxDepth, VertexWrapper::getAdjacentVertices);
+    }
 
-                if (currentVertex.equals(vertexWrapper2))
-                    return currentPath;
+    /**
+     * Lazy breadth-first traversal along the given adjacency, which is copied under the read lock when
+     * the traversal reaches a vertex.
+     */
+    protected Stream<T> breadthFirst(T start, int maxDepth, Function<VertexWrapper<T>, Collection<VertexWrapper<T>>> adjacentVertices) {
+        Traversals.checkMaxDepth(maxDepth);
+        return Traversals.stream(Traversals.breadthFirst(getExistingVertexWrapper(start), maxDepth,
+                        vertexWrapper -> getAdjacentVerticesCopy(vertexWrapper, adjacentVertices)))
+                .map(this::getValue);
+    }
 
-                if (currentVertex.equals(vertexWrapper1) && currentPath.size() != 1)
-                    continue;
+    /**
+     * Lazy depth-first traversal along the given adjacency, see {@link #breadthFirst(Object, int, Function)}.
+     */
+    protected Stream<T> depthFirst(T start, int maxDepth, Function<VertexWrapper<T>, Collection<VertexWrapper<T>>> adjacentVertices) {
+        Traversals.checkMaxDepth(maxDepth);
+        return Traversals.stream(Traversals.depthFirst(getExistingVertexWrapper(start), maxDepth,
+                        vertexWrapper -> getAdjacentVerticesCopy(vertexWrapper, adjacentVertices)))
+                .map(this::getValue);
+    }
 
-                for (VertexWrapper<T> adjacentVertex : currentVertex.getAdjacentVertices()) {
-                    if (!visitedVertices.contains(adjacentVertex)) {
-                        List<T> newPath = new ArrayList<>(currentPath);
-                        newPath.add(adjacentVertex.getValue());
-                        vertecesToVisitWithFullPathQueue.add(new AbstractMap.SimpleEntry<>(adjacentVertex, newPath));
-                    }
-                }
-            }
+    private VertexWrapper<T> getExistingVertexWrapper(T vertex) {
+        rwl.readLock().lock();
+        try {
+            var vertexWrapper = getVertexWrapper(vertex);
+            if (vertexWrapper == null)
+                throw new IllegalArgumentException("No vertex " + vertex);
+
+            return vertexWrapper;
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    private Object[] getAdjacentVerticesCopy(VertexWrapper<T> vertexWrapper, Function<VertexWrapper<T>, Collection<VertexWrapper<T>>> adjacentVertices) {
+        rwl.readLock().lock();
+        try {
+            var adjacent = adjacentVertices.apply(vertexWrapper);
+            if (numberOfTombstones == 0)
+                return adjacent.toArray();
 
-            return null;
+            return adjacent.stream().filter(adjacentVertex -> !adjacentVertex.isRemoved()).toArray();
         } finally {
             rwl.readLock().unlock();
         }
     }
 
+    private T getValue(VertexWrapper<T> vertexWrapper) {
+        rwl.readLock().lock();
+        try {
+            return vertexWrapper.getValue();
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the search mode used by {@link #getPath(Object, Object)}. Unless set explicitly it is
+     * {@link SearchMode#BIDIRECTIONAL} for graphs that support backward search and
+     * {@link SearchMode#UNIDIRECTIONAL} otherwise.
+     */
+    public SearchMode getSearchMode() {
+        var mode = searchMode;
+        if (mode != null)
+            return mode;
+
+        return supportsBackwardSearch() ? SearchMode.BIDIRECTIONAL : SearchMode.UNIDIRECTIONAL;
+    }
+
+    public void setSearchMode(SearchMode searchMode) {
+        if (searchMode == SearchMode.BIDIRECTIONAL && !supportsBackwardSearch())
+            throw new UnsupportedOperationException("Bidirectional search requires incoming edges which are not tracked by " + getClass().getSimpleName());
+
+        this.searchMode = searchMode;
+    }
+
+    public int getNumberOfLandmarks() {
+        return numberOfLandmarks;
+    }
+
+    /**
+     * Enables a {@link LandmarkIndex} with the given number of landmarks for {@link #getPath(Object, Object)},
+     * or disables it if the number is 0. The index is built by the first query and rebuilt by the first query
+     * after every modification of the graph, so it pays off for graphs which are queried much more often
+     * than modified.
+     */
+    public void setNumberOfLandmarks(int numberOfLandmarks) {
+        if (numberOfLandmarks < 0)
+            throw new IllegalArgumentException("Number of landmarks must not be negative: " + numberOfLandmarks);
+
+        this.numberOfLandmarks = numberOfLandmarks;
+        this.landmarkIndex = null;
+    }
+
+    /**
+     * Enables a least recently used cache of up to {@code maximumSize} paths found by {@link #getPath(Object, Object)},
+     * or disables it if the size is 0. Every modification of the graph drops all cached paths.
+     * Changing the size drops the cache together with its statistics.
+     */
+    public void setPathCacheSize(int maximumSize) {
+        if (maximumSize < 0)
+            throw new IllegalArgumentException("Path cache size must not be negative: " + maximumSize);
+
+        pathCache = maximumSize == 0 ? null : new PathCache<>(maximumSize, modCount);
+    }
+
+    public int getPathCacheSize() {
+        var cache = pathCache;
+        return cache == null ? 0 : cache.getMaximumSize();
+    }
+
+    /**
+     * Returns hit, miss and eviction counters of the path cache, all zero if the cache is disabled.
+     */
+    public PathCacheStatistics getPathCacheStatistics() {
+        var cache = pathCache;
+        return cache == null ? new PathCacheStatistics(0, 0, 0, 0, 0) : cache.getStatistics();
+    }
+
+    /**
+     * Returns the landmark index of the current snapshot without weights, building it if the graph was modified
+     * since the index was built.
+     */
+    private LandmarkIndex<T> getLandmarkIndex(int numberOfLandmarks) {
+        var snapshot = snapshot().withoutWeights();
+        var index = landmarkIndex;
+        if (index != null && index.getGraph() == snapshot)
+            return index;
+
+        index = LandmarkIndex.build(snapshot, numberOfLandmarks);
+        landmarkIndex = index;
+        return index;
+    }
+
+    /**
+     * Whether {@link #getIncomingVertices(VertexWrapper)} is available for this graph.
+     */
+    protected boolean supportsBackwardSearch() {
+        return false;
+    }
+
+    /**
+     * Returns vertices which have an edge to the given vertex.
+     * Only called when {@link #supportsBackwardSearch()} returns true.
+     */
+    protected Collection<VertexWrapper<T>> getIncomingVertices(VertexWrapper<T> vertexWrapper) {
+        throw new UnsupportedOperationException("Incoming edges are not tracked by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Breadth-first search that remembers a single predecessor per discovered vertex
+     * and rebuilds the path only once the target has been discovered.
+     */
+    private List<T> findPath(VertexWrapper<T> source, VertexWrapper<T> target, TraversalContext context) {
+        if (source == target)
+            return buildPath(source);
+
+        context.reset(nextVertexId);
+        int[] predecessors = context.predecessors();
+        int[] verticesToVisit = context.queue();
+        int head = 0;
+        int tail = 0;
+
+        context.visit(source.id);
+        predecessors[source.id] = source.id;
+        verticesToVisit[tail++] = source.id;
+
+        while (head < tail) {
+            var currentVertex = vertexWrappers[verticesToVisit[head++]];
+
+            for (VertexWrapper<T> adjacentVertex : currentVertex.getAdjacentVertices()) {
+                if (!context.visit(adjacentVertex.id))
+                    continue;
+
+                predecessors[adjacentVertex.id] = currentVertex.id;
+
+                if (adjacentVertex == target)
+                    return buildPath(predecessors, source, target, null, target);
+
+                verticesToVisit[tail++] = adjacentVertex.id;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Breadth-first search that grows one frontier from the source along outgoing edges and another from
+     * the target along incoming edges, level by level, always expanding the smaller one.
+     * The first vertex discovered by both searches lies on a shortest path.
+     * <p>
+     * Each search keeps its queue in the context, where the frontier is the last level appended to the queue.
+     */
+    private List<T> findPathBidirectionally(VertexWrapper<T> source, VertexWrapper<T> target, TraversalContext context) {
+        if (source == target)
+            return buildPath(source);
+
+        context.resetBidirectional(nextVertexId);
+        int[] predecessors = context.predecessors();
+        int[] successors = context.successors();
+        int[] forwardQueue = context.queue();
+        int[] backwardQueue = context.backwardQueue();
+
+        context.visit(source.id);
+        predecessors[source.id] = source.id;
+        forwardQueue[0] = source.id;
+        context.visitBackward(target.id);
+        successors[target.id] = target.id;
+        backwardQueue[0] = target.id;
+
+        int forwardHead = 0;
+        int forwardTail = 1;
+        int backwardHead = 0;
+        int backwardTail = 1;
+
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            int tail;
+
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                tail = expandFrontier(context, forwardQueue, forwardHead, forwardTail, predecessors, false);
+                forwardHead = forwardTail;
+                forwardTail = tail;
+            } else {
+                tail = expandFrontier(context, backwardQueue, backwardHead, backwardTail, successors, true);
+                backwardHead = backwardTail;
+                backwardTail = tail;
+            }
+
+            if (tail < 0)
+                return buildPath(predecessors, source, vertexWrappers[-tail - 1], successors, target);
+        }
+
+        return null;
+    }
+
+    /**
+     * Discovers all vertices adjacent to the frontier {@code queue[head .. tail)} and appends them to the queue.
+     * Returns the new tail, or {@code -(vertex + 1)} for the first discovered vertex already discovered by the
+     * opposite search.
+     */
+    private int expandFrontier(TraversalContext context, int[] queue, int head, int tail, int[] discoveredFrom, boolean backward) {
+        for (int frontierEnd = tail; head < frontierEnd; head++) {
+            var currentVertex = vertexWrappers[queue[head]];
+            var adjacentVertices = backward ? getIncomingVertices(currentVertex) : currentVertex.getAdjacentVertices();
+
+            for (VertexWrapper<T> adjacentVertex : adjacentVertices) {
+                int adjacentVertexId = adjacentVertex.id;
+                if (backward ? !context.visitBackward(adjacentVertexId) : !context.visit(adjacentVertexId))
+                    continue;
+
+                discoveredFrom[adjacentVertexId] = currentVertex.id;
+
+                if (backward ? context.isVisited(adjacentVertexId) : context.isVisitedBackward(adjacentVertexId))
+                    return -(adjacentVertexId + 1);
+
+                queue[tail++] = adjacentVertexId;
+            }
+        }
+
+        return tail;
+    }
+
+    private List<T> buildPath(VertexWrapper<T> vertexWrapper) {
+        List<T> path = new ArrayList<>(1);
+        path.add(vertexWrapper.getValue());
+        return path;
+    }
+
+    /**
+     * Builds the path from the source to the meeting vertex along predecessors, then on to the target
+     * along successors, if any.
+     */
+    private List<T> buildPath(int[] predecessors, VertexWrapper<T> source, VertexWrapper<T> meetingVertex,
+                              int[] successors, VertexWrapper<T> target) {
+        int length = 1;
+        for (int vertex = meetingVertex.id; vertex != source.id; vertex = predecessors[vertex])
+            length++;
+        for (int vertex = meetingVertex.id; vertex != target.id; vertex = successors[vertex])
+            length++;
+
+        List<T> path = new ArrayList<>(length);
+        for (int vertex = meetingVertex.id; vertex != source.id; vertex = predecessors[vertex])
+            path.add(vertexWrappers[vertex].getValue());
+        path.add(source.getValue());
+        Collections.reverse(path);
+
+        for (int vertex = meetingVertex.id; vertex != target.id; ) {
+            vertex = successors[vertex];
+            path.add(vertexWrappers[vertex].getValue());
+        }
+
+        return path;
+    }
+
     protected VertexWrapper<T> getVertexWrapper(T vertex) {
-        return graph.stream().filter(it -> it.getValue().equals(vertex)).reduce((a, b) -> {
-            throw new IllegalStateException("Multiple elements: " + a + ", " + b);
-        }).orElse(null);
+        return graph.get(vertex);
     }
 
     protected VertexWrapper<T> getOrCreateVertexWrapper(T vertex) {
-        var existingVertexWrapper = getVertexWrapper(vertex);
-
-        if (existingVertexWrapper != null) {
+        var existingVertexWrapper = graph.get(vertex);
+        if (existingVertexWrapper != null)
             return existingVertexWrapper;
-        } else {
-            var newVertexWrapper = new VertexWrapper<>(vertex);
-            graph.add(newVertexWrapper);
-            return newVertexWrapper;
-        }
+
+        if (nextVertexId == vertexWrappers.length)
+            vertexWrappers = Arrays.copyOf(vertexWrappers, nextVertexId + (nextVertexId >> 1));
+
+        var newVertexWrapper = createVertexWrapper(vertex);
+        newVertexWrapper.id = nextVertexId++;
+        vertexWrappers[newVertexWrapper.id] = newVertexWrapper;
+        graph.put(vertex, newVertexWrapper);
+        modCount++;
+        return newVertexWrapper;
+    }
+
+    /**
+     * Creates the wrapper of a new vertex. Subclasses may return a subclass of {@link VertexWrapper}
+     * to keep additional per-vertex state.
+     */
+    protected VertexWrapper<T> createVertexWrapper(T vertex) {
+        return new VertexWrapper<>(vertex);
     }
 
     @Override
@@ -172,26 +734,218 @@ public abstract class AbstractGraph<T> implements Graph<T> {
             if (vertexWrapper == null)
                 throw new IllegalArgumentException("No edge " + vertex);
 
-            return vertexWrapper.getAdjacentVertices().size();
+            if (numberOfTombstones == 0)
+                return vertexWrapper.getAdjacentVertices().size();
+
+            int numberOfEdges = 0;
+            for (VertexWrapper<T> adjacentVertex : vertexWrapper.getAdjacentVertices()) {
+                if (!adjacentVertex.isRemoved())
+                    numberOfEdges++;
+            }
+            return numberOfEdges;
         } finally {
             rwl.readLock().unlock();
         }
 
     }
 
+    /**
+     * Applies the function to every vertex and re-indexes the graph by the changed values.
+     * The graph stays unchanged if the function throws or maps two vertices to the same value.
+     */
     public void traverse(Function<T, T> func) {
-        rwl.readLock().lock();
+        rwl.writeLock().lock();
         try {
-            for (VertexWrapper<T> vertexWrapper : graph) {
-                T initialValue = vertexWrapper.getValue();
-                var changedValue = func.apply(initialValue);
-                vertexWrapper.setValue(changedValue);
+            Map<T, VertexWrapper<T>> reindexedGraph = new HashMap<>(graph.size() * 4 / 3 + 1);
+
+            for (VertexWrapper<T> vertexWrapper : graph.values()) {
+                var changedValue = func.apply(vertexWrapper.getValue());
+                var previous = reindexedGraph.put(changedValue, vertexWrapper);
+                if (previous != null)
+                    throw new IllegalStateException("Multiple elements: " + previous.getValue() + ", " + vertexWrapper.getValue());
             }
+
+            reindexedGraph.forEach((changedValue, vertexWrapper) -> vertexWrapper.setValue(changedValue));
+            graph.clear();
+            graph.putAll(reindexedGraph);
+            modCount++;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+
+    }
+
+    /**
+     * Applies the function to chunks of the vertices on the pool while the write lock is held, then re-indexes
+     * the graph like {@link #traverse(Function)}. The graph stays unchanged if the function throws or maps
+     * two vertices to the same value.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void traverseParallel(Function<T, T> func, ForkJoinPool pool) {
+        rwl.writeLock().lock();
+        try {
+            List<VertexWrapper<T>> traversedVertexWrappers = new ArrayList<>(graph.values());
+            var changedValues = ForkJoinRanges.map(pool, traversedVertexWrappers.size(), i -> traversedVertexWrappers.get(i).getValue(), func);
+
+            Map<T, VertexWrapper<T>> reindexedGraph = new HashMap<>(traversedVertexWrappers.size() * 4 / 3 + 1);
+            for (int i = 0; i < traversedVertexWrappers.size(); i++) {
+                var previous = reindexedGraph.put((T) changedValues[i], traversedVertexWrappers.get(i));
+                if (previous != null)
+                    throw new IllegalStateException("Multiple elements: " + previous.getValue() + ", " + traversedVertexWrappers.get(i).getValue());
+            }
+
+            reindexedGraph.forEach((changedValue, vertexWrapper) -> vertexWrapper.setValue(changedValue));
+            graph.clear();
+            graph.putAll(reindexedGraph);
+            modCount++;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the graph into compressed sparse row layout. The copy is reused until the graph is modified.
+     */
+    @Override
+    public FrozenGraph<T> snapshot() {
+        rwl.readLock().lock();
+        try {
+            var snapshot = lastSnapshot;
+            if (snapshot != null && snapshot.modCount == modCount)
+                return snapshot.graph;
+
+            var frozenGraph = freeze();
+            lastSnapshot = new Snapshot<>(modCount, frozenGraph);
+            return frozenGraph;
         } finally {
             rwl.readLock().unlock();
         }
+    }
 
+    /**
+     * Runs the reader on the adjacency sets in place under the read lock, or on the snapshot if it is still current.
+     */
+    void readAdjacency(AdjacencyView.Reader<T> reader) throws IOException {
+        rwl.readLock().lock();
+        try {
+            var snapshot = lastSnapshot;
+            if (snapshot != null && snapshot.modCount == modCount)
+                reader.read(AdjacencyView.of(snapshot.graph));
+            else
+                reader.read(new SetAdjacencyView());
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the ids of every adjacency set into one reusable buffer and sorts them.
+     */
+    private final class SetAdjacencyView implements AdjacencyView<T> {
+
+        private int[] adjacentVertexIds = new int[INITIAL_CAPACITY];
+        private double[] adjacentWeights = new double[INITIAL_CAPACITY];
+
+        @Override
+        public int numberOfVertices() {
+            return graph.size();
+        }
+
+        @Override
+        public int vertexIdBound() {
+            return nextVertexId;
+        }
+
+        @Override
+        public T vertex(int vertexId) {
+            return vertexWrappers[vertexId].getValue();
+        }
+
+        @Override
+        public void visitAdjacency(Visitor<T> visitor) throws IOException {
+            for (int vertexId = 0; vertexId < nextVertexId; vertexId++) {
+                var vertexWrapper = vertexWrappers[vertexId];
+                if (vertexWrapper == null || vertexWrapper.isRemoved())
+                    continue;
+
+                var adjacentVertices = vertexWrapper.getAdjacentVertices();
+                if (adjacentVertexIds.length < adjacentVertices.size()) {
+                    adjacentVertexIds = new int[Math.max(adjacentVertices.size(), 2 * adjacentVertexIds.length)];
+                    adjacentWeights = new double[adjacentVertexIds.length];
+                }
+
+                int degree = 0;
+                for (VertexWrapper<T> adjacentVertex : adjacentVertices) {
+                    if (!adjacentVertex.isRemoved())
+                        adjacentVertexIds[degree++] = adjacentVertex.id;
+                }
+                Arrays.sort(adjacentVertexIds, 0, degree);
+
+                boolean weighted = vertexWrapper.weights != null && !vertexWrapper.weights.isEmpty();
+                if (weighted) {
+                    for (int i = 0; i < degree; i++)
+                        adjacentWeights[i] = vertexWrapper.getWeight(vertexWrappers[adjacentVertexIds[i]]);
+                }
+
+                visitor.visit(vertexId, vertexWrapper.getValue(), adjacentVertexIds, weighted ? adjacentWeights : null, 0, degree);
+            }
+        }
     }
 
+    private FrozenGraph<T> freeze() {
+        List<VertexWrapper<T>> snapshotVertexWrappers = new ArrayList<>(graph.values());
+        int numberOfVertices = snapshotVertexWrappers.size();
+        Object[] values = new Object[numberOfVertices];
+        Map<T, Integer> vertexIds = new HashMap<>(numberOfVertices * 4 / 3 + 1);
+        Map<VertexWrapper<T>, Integer> vertexWrapperIds = new IdentityHashMap<>(numberOfVertices);
+
+        long numberOfAdjacencies = 0;
+        for (int vertexId = 0; vertexId < numberOfVertices; vertexId++) {
+            var vertexWrapper = snapshotVertexWrappers.get(vertexId);
+            values[vertexId] = vertexWrapper.getValue();
+            vertexIds.put(vertexWrapper.getValue(), vertexId);
+            vertexWrapperIds.put(vertexWrapper, vertexId);
+            numberOfAdjacencies += vertexWrapper.getAdjacentVertices().size();
+        }
+
+        if (numberOfAdjacencies > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many edges to freeze: " + numberOfAdjacencies);
+
+        int[] offsets = new int[numberOfVertices + 1];
+        int[] targets = new int[(int) numberOfAdjacencies];
+        double[] weights = null;
+
+        for (int vertexId = 0; vertexId < numberOfVertices; vertexId++) {
+            var vertexWrapper = snapshotVertexWrappers.get(vertexId);
+            int offset = offsets[vertexId];
+            for (VertexWrapper<T> adjacentVertex : vertexWrapper.getAdjacentVertices()) {
+                if (!adjacentVertex.isRemoved())
+                    targets[offset++] = vertexWrapperIds.get(adjacentVertex);
+            }
+
+            Arrays.sort(targets, offsets[vertexId], offset);
+            offsets[vertexId + 1] = offset;
+
+            if (vertexWrapper.weights != null && !vertexWrapper.weights.isEmpty()) {
+                if (weights == null) {
+                    weights = new double[targets.length];
+                    Arrays.fill(weights, DEFAULT_WEIGHT);
+                }
+
+                for (int position = offsets[vertexId]; position < offset; position++)
+                    weights[position] = vertexWrapper.getWeight(snapshotVertexWrappers.get(targets[position]));
+            }
+        }
+
+        // tombstones were counted but skipped
+        if (offsets[numberOfVertices] < targets.length) {
+            targets = Arrays.copyOf(targets, offsets[numberOfVertices]);
+            if (weights != null)
+                weights = Arrays.copyOf(weights, targets.length);
+        }
+
+        return new FrozenGraph<>(vertexIds, values, offsets, targets, weights, isDirected());
+    }
 
 }
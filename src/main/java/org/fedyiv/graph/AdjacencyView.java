@@ -0,0 +1,74 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+
+/**
+ * Adjacency of a graph read in place, so that a pass over a mutable graph does not have to copy it into a
+ * {@link FrozenGraph} first. Vertices are identified by the ids the graph keeps internally, which are below
+ * {@link #vertexIdBound()} but may have gaps where vertices were removed.
+ * <p>
+ * A view is only valid inside the {@link Reader} it is given to, which runs while the graph can not be modified,
+ * so every pass of the reader sees the same graph.
+ */
+interface AdjacencyView<T> {
+
+    @FunctionalInterface
+    interface Reader<T> {
+
+        void read(AdjacencyView<T> adjacency) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface Visitor<T> {
+
+        /**
+         * Visits a vertex whose adjacent vertices are {@code adjacentVertexIds[start .. end)} in ascending order of id,
+         * with the weights of those edges at the same indexes of {@code weights}, which is null if all of them weigh
+         * {@link WeightedGraph#DEFAULT_WEIGHT}. The arrays may be reused for the next vertex.
+         */
+        void visit(int vertexId, T vertex, int[] adjacentVertexIds, double[] weights, int start, int end) throws IOException;
+    }
+
+    int numberOfVertices();
+
+    int vertexIdBound();
+
+    T vertex(int vertexId);
+
+    /**
+     * Calls the visitor for every vertex in ascending order of id. Undirected edges are visited from both ends.
+     */
+    void visitAdjacency(Visitor<T> visitor) throws IOException;
+
+    /**
+     * Returns a view of the frozen graph, whose ids are dense.
+     */
+    static <T> AdjacencyView<T> of(FrozenGraph<T> frozenGraph) {
+        var adjacency = frozenGraph.adjacency();
+
+        return new AdjacencyView<>() {
+            @Override
+            public int numberOfVertices() {
+                return frozenGraph.numberOfVertices();
+            }
+
+            @Override
+            public int vertexIdBound() {
+                return frozenGraph.numberOfVertices();
+            }
+
+            @Override
+            public T vertex(int vertexId) {
+                return frozenGraph.vertex(vertexId);
+            }
+
+            @Override
+            public void visitAdjacency(Visitor<T> visitor) throws IOException {
+                for (int vertexId = 0; vertexId < frozenGraph.numberOfVertices(); vertexId++) {
+                    visitor.visit(vertexId, frozenGraph.vertex(vertexId), adjacency.targets, adjacency.weights,
+                            adjacency.offsets[vertexId], adjacency.offsets[vertexId + 1]);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads text files through a single reusable byte buffer, parsing numbers straight from the bytes
+ * without creating a {@code String} per line.
+ */
+final class ByteReader {
+
+    static final int EOF = -1;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+
+    ByteReader(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Returns the next byte without consuming it, or {@link #EOF}.
+     */
+    int peek() throws IOException {
+        if (position == limit && !fill())
+            return EOF;
+
+        return bytes[position] & 0xFF;
+    }
+
+    /**
+     * Consumes the byte returned by the last {@link #peek()}.
+     */
+    void skip() {
+        if (bytes[position++] == '\n')
+            lineNumber++;
+    }
+
+    /**
+     * Skips spaces, tabs and carriage returns, but not line feeds.
+     */
+    void skipBlanks() throws IOException {
+        for (int b = peek(); b == ' ' || b == '\t' || b == '\r'; b = peek())
+            skip();
+    }
+
+    /**
+     * Skips the rest of the line including the line feed.
+     */
+    void skipLine() throws IOException {
+        while (position < limit || fill()) {
+            for (int i = position; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    position = i + 1;
+                    lineNumber++;
+                    return;
+                }
+            }
+            position = limit;
+        }
+    }
+
+    boolean isAtNumber() throws IOException {
+        int b = peek();
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Parses a non-negative decimal integer. Any fraction is consumed and dropped.
+     */
+    long readLong() throws IOException {
+        if (!isAtNumber())
+            throw malformed("Number expected");
+
+        long value = 0;
+        while (position < limit || fill()) {
+            int i = position;
+            for (; i < limit; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9)
+                    break;
+                if (value > (Long.MAX_VALUE - digit) / 10)
+                    throw malformed("Number too large");
+                value = value * 10 + digit;
+            }
+            position = i;
+            if (i < limit)
+                break;
+        }
+
+        if (peek() == '.') {
+            skip();
+            while (isAtNumber())
+                skip();
+        }
+
+        return value;
+    }
+
+    int readInt() throws IOException {
+        long value = readLong();
+        if (value > Integer.MAX_VALUE)
+            throw malformed("Number too large");
+        return (int) value;
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    IOException malformed(String message) {
+        return new IOException(message + " at line " + lineNumber);
+    }
+}
@@ -0,0 +1,79 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes text files through a single reusable direct buffer, formatting numbers straight into the bytes.
+ */
+final class ByteWriter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+
+    ByteWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    void put(char c) throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) c);
+    }
+
+    void put(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; ) {
+            ensureRemaining(1);
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    void put(long value) throws IOException {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                put(Long.toString(value));
+                return;
+            }
+            put('-');
+            value = -value;
+        }
+
+        int length = 0;
+        do {
+            digits[digits.length - ++length] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+
+        ensureRemaining(length);
+        buffer.put(digits, digits.length - length, length);
+    }
+
+    /**
+     * Writes integral vertices as numbers and any other vertex as its {@code toString()}.
+     */
+    void putVertex(Object vertex) throws IOException {
+        if (vertex instanceof Integer || vertex instanceof Long)
+            put(((Number) vertex).longValue());
+        else
+            put(String.valueOf(vertex));
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    private void ensureRemaining(int size) throws IOException {
+        if (buffer.remaining() < size)
+            flush();
+    }
+}
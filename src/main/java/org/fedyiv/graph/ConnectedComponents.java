@@ -0,0 +1,148 @@
+package org.fedyiv.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Connected components of a {@link FrozenGraph}, weakly connected components for directed graphs.
+ * Components have dense ids from 0, numbered in the order of the smallest vertex id of every component,
+ * and are kept in a single {@code int[]} indexed by the vertex ids of the graph.
+ * <p>
+ * Components are found by a union-find whose roots are linked with compare-and-set, so the edges are
+ * processed by fork-join tasks without locks. A root is always linked below a smaller root, which makes
+ * the root of every tree the smallest vertex of its component.
+ */
+public final class ConnectedComponents<T> {
+
+    private final FrozenGraph<T> graph;
+    private final int[] componentIds;
+    private final int[] componentSizes;
+
+    private ConnectedComponents(FrozenGraph<T> graph, int[] componentIds, int[] componentSizes) {
+        this.graph = graph;
+        this.componentIds = componentIds;
+        this.componentSizes = componentSizes;
+    }
+
+    static <T> ConnectedComponents<T> find(FrozenGraph<T> graph, ForkJoinPool pool) {
+        var componentIds = find(graph.adjacency(), pool);
+
+        int numberOfComponents = 0;
+        for (int componentId : componentIds)
+            numberOfComponents = Math.max(numberOfComponents, componentId + 1);
+
+        int[] componentSizes = new int[numberOfComponents];
+        for (int componentId : componentIds)
+            componentSizes[componentId]++;
+
+        return new ConnectedComponents<>(graph, componentIds, componentSizes);
+    }
+
+    /**
+     * Returns the dense component id of every vertex.
+     */
+    static int[] find(IntAdjacency adjacency, ForkJoinPool pool) {
+        int numberOfVertices = adjacency.numberOfVertices();
+        int grain = ForkJoinRanges.grain(pool, numberOfVertices);
+
+        var parents = new AtomicIntegerArray(numberOfVertices);
+        ForkJoinRanges.forEach(pool, 0, numberOfVertices, grain, (from, to) -> {
+            for (int vertex = from; vertex < to; vertex++)
+                parents.set(vertex, vertex);
+        });
+
+        ForkJoinRanges.forEach(pool, 0, numberOfVertices, grain, (from, to) -> {
+            for (int vertex = from; vertex < to; vertex++) {
+                int[] adjacentVertices = adjacency.adjacentVertices(vertex);
+                for (int i = adjacency.adjacencyStart(vertex), end = adjacency.adjacencyEnd(vertex); i < end; i++)
+                    union(parents, vertex, adjacentVertices[i]);
+            }
+        });
+
+        // roots are the smallest vertices of their components, so they are labeled before any other member
+        int[] componentIds = new int[numberOfVertices];
+        int numberOfComponents = 0;
+        for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+            int root = findRoot(parents, vertex);
+            componentIds[vertex] = root == vertex ? numberOfComponents++ : componentIds[root];
+        }
+
+        return componentIds;
+    }
+
+    private static void union(AtomicIntegerArray parents, int vertex1, int vertex2) {
+        while (true) {
+            int root1 = findRoot(parents, vertex1);
+            int root2 = findRoot(parents, vertex2);
+            if (root1 == root2)
+                return;
+
+            int smallerRoot = Math.min(root1, root2);
+            int largerRoot = Math.max(root1, root2);
+            if (parents.compareAndSet(largerRoot, largerRoot, smallerRoot))
+                return;
+        }
+    }
+
+    /**
+     * Finds the root with path halving. A failed halving only means that another thread changed the parent
+     * first, which can only have moved it closer to the root.
+     */
+    private static int findRoot(AtomicIntegerArray parents, int vertex) {
+        int parent = parents.get(vertex);
+        while (parent != vertex) {
+            int grandparent = parents.get(parent);
+            if (grandparent != parent)
+                parents.compareAndSet(vertex, parent, grandparent);
+
+            vertex = grandparent;
+            parent = parents.get(vertex);
+        }
+
+        return vertex;
+    }
+
+    public int numberOfComponents() {
+        return componentSizes.length;
+    }
+
+    public int componentId(T vertex) {
+        int vertexId = graph.vertexId(vertex);
+        if (vertexId < 0)
+            throw new IllegalArgumentException("No vertex " + vertex);
+
+        return componentIds[vertexId];
+    }
+
+    public int componentSize(int componentId) {
+        return componentSizes[componentId];
+    }
+
+    public boolean isConnected(T vertex1, T vertex2) {
+        return componentId(vertex1) == componentId(vertex2);
+    }
+
+    /**
+     * Returns a copy of the component ids indexed by vertex id, that is in the order of
+     * {@link FrozenGraph#parallelVertices()}.
+     */
+    public int[] componentIds() {
+        return componentIds.clone();
+    }
+
+    /**
+     * Returns the vertices of the component in the order of their ids. Takes time linear in the number
+     * of vertices of the graph.
+     */
+    public List<T> component(int componentId) {
+        List<T> vertices = new ArrayList<>(componentSizes[componentId]);
+        for (int vertexId = 0; vertexId < componentIds.length; vertexId++) {
+            if (componentIds[vertexId] == componentId)
+                vertices.add(graph.vertex(vertexId));
+        }
+
+        return vertices;
+    }
+}
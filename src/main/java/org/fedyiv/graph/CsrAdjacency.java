@@ -0,0 +1,83 @@
+package org.fedyiv.graph;
+
+import java.util.Arrays;
+
+/**
+ * Adjacency in compressed sparse row layout: vertices adjacent to the vertex {@code v} are
+ * {@code targets[offsets[v] .. offsets[v + 1])}, sorted ascending. Weights of the edges are at the
+ * same indexes of {@code weights}, which is null if all edges weigh {@link WeightedGraph#DEFAULT_WEIGHT}.
+ */
+final class CsrAdjacency implements IntAdjacency {
+
+    final int[] offsets;
+    final int[] targets;
+    final double[] weights;
+
+    CsrAdjacency(int[] offsets, int[] targets, double[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return offsets.length - 1;
+    }
+
+    @Override
+    public int[] adjacentVertices(int vertex) {
+        return targets;
+    }
+
+    @Override
+    public int adjacencyStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    @Override
+    public int adjacencyEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    @Override
+    public double[] adjacentWeights(int vertex) {
+        return weights;
+    }
+
+    int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    int numberOfAdjacencies() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the adjacency with every edge reversed. Rows of the result are sorted as well,
+     * because sources are visited in ascending order.
+     */
+    CsrAdjacency transpose() {
+        int numberOfVertices = numberOfVertices();
+        int[] transposedOffsets = new int[numberOfVertices + 1];
+
+        for (int target : targets)
+            transposedOffsets[target + 1]++;
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            transposedOffsets[vertex + 1] += transposedOffsets[vertex];
+
+        int[] cursors = Arrays.copyOf(transposedOffsets, numberOfVertices);
+        int[] sources = new int[targets.length];
+        double[] transposedWeights = weights == null ? null : new double[weights.length];
+
+        for (int source = 0; source < numberOfVertices; source++) {
+            for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+                int position = cursors[targets[i]]++;
+                sources[position] = source;
+                if (weights != null)
+                    transposedWeights[position] = weights[i];
+            }
+        }
+
+        return new CsrAdjacency(transposedOffsets, sources, transposedWeights);
+    }
+}
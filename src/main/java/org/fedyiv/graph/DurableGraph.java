@@ -0,0 +1,939 @@
+package org.fedyiv.graph;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleBiFunction;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Makes a mutable graph survive crashes: every modification is appended to a write-ahead log before it is applied,
+ * and the log is periodically replaced by a {@link GraphFile} snapshot of the whole graph.
+ * <p>
+ * The directory holds {@code snapshot-N.graph}, the graph as of the start of log {@code N}, and the logs
+ * {@code wal-N.log} from that generation on. {@link #open} loads the latest snapshot into the given empty graph and
+ * replays the logs after it; a record torn by a crash at the end of the last log is dropped. Every log starts with
+ * an int magic and version, followed by records:
+ * <pre>
+ *  int  length of the payload
+ *  int  CRC32C of the payload
+ *  byte type (1 - add vertex, 2 - add edge, 3 - remove vertex, 4 - remove edge, 5 - add weighted edge), then
+ *       int length and serialized bytes of every vertex, then the double weight of a weighted edge
+ * </pre>
+ * When the log should be forced to disk is set by the {@link FsyncPolicy}. Records are collected in one buffer,
+ * so modifications arriving together are written and forced together. Once {@link #setCheckpointThreshold(long)}
+ * records were logged since the last snapshot, the modifying thread writes a new snapshot from the
+ * {@link Graph#snapshot()} of the graph while other threads carry on in the next log.
+ * <p>
+ * A modification is logged before it is applied; if the graph rejects it by throwing, its record is dropped again.
+ * Weights are logged and restored from snapshots if the wrapped graph is a {@link WeightedGraph}; otherwise adding
+ * a weighted edge throws {@link UnsupportedOperationException}. {@link #traverse(Function)} can not be logged
+ * and takes a snapshot right away, blocking modifications meanwhile. The wrapped graph must not be modified directly.
+ */
+public final class DurableGraph<T> implements WeightedGraph<T>, Closeable {
+
+    public static final Duration DEFAULT_FSYNC_INTERVAL = Duration.ofMillis(100);
+    public static final long DEFAULT_CHECKPOINT_THRESHOLD = 1_000_000;
+
+    static final int LOG_MAGIC = 0x53474C57;
+    static final int LOG_VERSION = 1;
+    static final int LOG_HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte ADD_VERTEX = 1;
+    private static final byte ADD_EDGE = 2;
+    private static final byte REMOVE_VERTEX = 3;
+    private static final byte REMOVE_EDGE = 4;
+    private static final byte ADD_WEIGHTED_EDGE = 5;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".graph";
+    private static final String LOG_PREFIX = "wal-";
+    private static final String LOG_SUFFIX = ".log";
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final Graph<T> graph;
+    private final VertexSerializer<T> serializer;
+    private final FsyncPolicy fsyncPolicy;
+    private ScheduledExecutorService syncScheduler;
+
+    /**
+     * Taken before {@link #syncLock}, which is taken before {@link #appendLock}.
+     */
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    // guarded by appendLock, positions count the bytes of records over all logs
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CRC32C checksum = new CRC32C();
+    private FileChannel log;
+    private long generation;
+    private long appendedPosition;
+    private long writtenPosition;
+    private long recordsSinceCheckpoint;
+    private long rollbackPosition;
+    private long rollbackRecordsSinceCheckpoint;
+    private boolean closed;
+
+    private final AtomicLong durablePosition = new AtomicLong();
+    private volatile long checkpointThreshold = DEFAULT_CHECKPOINT_THRESHOLD;
+    private volatile IOException syncFailure;
+
+    private DurableGraph(Path directory, Graph<T> graph, VertexSerializer<T> serializer, FsyncPolicy fsyncPolicy) {
+        this.directory = directory;
+        this.graph = graph;
+        this.serializer = serializer;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    public static <T> DurableGraph<T> open(Path directory, Graph<T> graph, VertexSerializer<T> serializer) throws IOException {
+        return open(directory, graph, serializer, FsyncPolicy.PER_OPERATION);
+    }
+
+    public static <T> DurableGraph<T> open(Path directory, Graph<T> graph, VertexSerializer<T> serializer, FsyncPolicy fsyncPolicy) throws IOException {
+        return open(directory, graph, serializer, fsyncPolicy, DEFAULT_FSYNC_INTERVAL);
+    }
+
+    /**
+     * Recovers the graph stored in the directory into the given empty graph, creating the directory if needed,
+     * and logs its modifications from then on.
+     *
+     * @param fsyncInterval how often the log is forced with {@link FsyncPolicy#INTERVAL}, ignored otherwise
+     */
+    public static <T> DurableGraph<T> open(Path directory, Graph<T> graph, VertexSerializer<T> serializer,
+                                           FsyncPolicy fsyncPolicy, Duration fsyncInterval) throws IOException {
+        if (graph.numberOfVertices() != 0)
+            throw new IllegalArgumentException("Graph to recover into must be empty");
+        if (fsyncInterval.isNegative() || fsyncInterval.isZero())
+            throw new IllegalArgumentException("Fsync interval must be positive: " + fsyncInterval);
+
+        Files.createDirectories(directory);
+        var durableGraph = new DurableGraph<>(directory, graph, serializer, fsyncPolicy);
+        durableGraph.recover();
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            durableGraph.syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "durable-graph-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = fsyncInterval.toNanos();
+            durableGraph.syncScheduler.scheduleWithFixedDelay(durableGraph::syncInBackground, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        return durableGraph;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * Sets after how many logged modifications a new snapshot is taken and the logs before it are deleted,
+     * 0 disables automatic snapshots.
+     */
+    public void setCheckpointThreshold(long numberOfRecords) {
+        if (numberOfRecords < 0)
+            throw new IllegalArgumentException("Checkpoint threshold must not be negative: " + numberOfRecords);
+
+        this.checkpointThreshold = numberOfRecords;
+    }
+
+    public long getCheckpointThreshold() {
+        return checkpointThreshold;
+    }
+
+    @Override
+    public void addVertex(T vertex) {
+        byte[] bytes = serializer.serialize(vertex);
+
+        long position;
+        boolean checkpointDue;
+        appendLock.lock();
+        try {
+            checkOpen();
+            markRollback();
+            appendRecord(ADD_VERTEX, bytes, null);
+            try {
+                graph.addVertex(vertex);
+            } catch (RuntimeException | Error e) {
+                rollBack(e);
+                throw e;
+            }
+            position = appendedPosition;
+            checkpointDue = isCheckpointDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        afterAppend(position, checkpointDue, false);
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2) {
+        byte[] bytes1 = serializer.serialize(vertex1);
+        byte[] bytes2 = serializer.serialize(vertex2);
+
+        long position;
+        boolean checkpointDue;
+        appendLock.lock();
+        try {
+            checkOpen();
+            markRollback();
+            appendRecord(ADD_EDGE, bytes1, bytes2);
+            try {
+                graph.addEdge(vertex1, vertex2);
+            } catch (RuntimeException | Error e) {
+                rollBack(e);
+                throw e;
+            }
+            position = appendedPosition;
+            checkpointDue = isCheckpointDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        afterAppend(position, checkpointDue, false);
+    }
+
+    /**
+     * Throws {@link UnsupportedOperationException} if the wrapped graph is not a {@link WeightedGraph}.
+     */
+    @Override
+    public void addEdge(T vertex1, T vertex2, double weight) {
+        var weightedGraph = weightedGraph();
+        byte[] bytes1 = serializer.serialize(vertex1);
+        byte[] bytes2 = serializer.serialize(vertex2);
+
+        long position;
+        boolean checkpointDue;
+        appendLock.lock();
+        try {
+            checkOpen();
+            markRollback();
+            appendRecord(ADD_WEIGHTED_EDGE, bytes1, bytes2, weight);
+            try {
+                weightedGraph.addEdge(vertex1, vertex2, weight);
+            } catch (RuntimeException | Error e) {
+                rollBack(e);
+                throw e;
+            }
+            position = appendedPosition;
+            checkpointDue = isCheckpointDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        afterAppend(position, checkpointDue, false);
+    }
+
+    /**
+     * Logs all edges and adds them to the graph as one batch, which {@link FsyncPolicy#PER_OPERATION} and
+     * {@link FsyncPolicy#PER_BATCH} force once before returning.
+     */
+    @Override
+    public void addEdges(Iterable<? extends Map.Entry<T, T>> edges) {
+        List<Map.Entry<T, T>> batch = new ArrayList<>();
+
+        long position;
+        boolean checkpointDue;
+        appendLock.lock();
+        try {
+            checkOpen();
+            markRollback();
+            for (Map.Entry<T, T> edge : edges) {
+                appendRecord(ADD_EDGE, serializer.serialize(edge.getKey()), serializer.serialize(edge.getValue()));
+                batch.add(edge);
+            }
+            try {
+                graph.addEdges(batch);
+            } catch (RuntimeException | Error e) {
+                rollBack(e);
+                relogAddedEdges(batch, e);
+                throw e;
+            }
+            position = appendedPosition;
+            checkpointDue = isCheckpointDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        afterAppend(position, checkpointDue, true);
+    }
+
+    @Override
+    public boolean removeVertex(T vertex) {
+        byte[] bytes = serializer.serialize(vertex);
+
+        boolean removed;
+        long position;
+        boolean checkpointDue;
+        appendLock.lock();
+        try {
+            checkOpen();
+            markRollback();
+            appendRecord(REMOVE_VERTEX, bytes, null);
+            try {
+                removed = graph.removeVertex(vertex);
+            } catch (RuntimeException | Error e) {
+                rollBack(e);
+                throw e;
+            }
+            position = appendedPosition;
+            checkpointDue = isCheckpointDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        afterAppend(position, checkpointDue, false);
+        return removed;
+    }
+
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+        byte[] bytes1 = serializer.serialize(vertex1);
+        byte[] bytes2 = serializer.serialize(vertex2);
+
+        boolean removed;
+        long position;
+        boolean checkpointDue;
+        appendLock.lock();
+        try {
+            checkOpen();
+            markRollback();
+            appendRecord(REMOVE_EDGE, bytes1, bytes2);
+            try {
+                removed = graph.removeEdge(vertex1, vertex2);
+            } catch (RuntimeException | Error e) {
+                rollBack(e);
+                throw e;
+            }
+            position = appendedPosition;
+            checkpointDue = isCheckpointDue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+
+        afterAppend(position, checkpointDue, false);
+        return removed;
+    }
+
+    /**
+     * Applies the function and writes a snapshot of the result before any other modification is accepted.
+     */
+    @Override
+    public void traverse(Function<T, T> func) {
+        try {
+            checkpoint(() -> graph.traverse(func));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Applies the function like {@link #traverse(Function)}, in parallel on the given pool.
+     */
+    @Override
+    public void traverseParallel(Function<T, T> func, ForkJoinPool pool) {
+        try {
+            checkpoint(() -> graph.traverseParallel(func, pool));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<T> getPath(T vertex1, T vertex2) {
+        return graph.getPath(vertex1, vertex2);
+    }
+
+    @Override
+    public List<T> getPathInParallel(T vertex1, T vertex2, ForkJoinPool pool) {
+        return graph.getPathInParallel(vertex1, vertex2, pool);
+    }
+
+    /**
+     * Throws {@link UnsupportedOperationException} if the wrapped graph is not a {@link WeightedGraph}.
+     */
+    @Override
+    public double getEdgeWeight(T vertex1, T vertex2) {
+        return weightedGraph().getEdgeWeight(vertex1, vertex2);
+    }
+
+    /**
+     * Throws {@link UnsupportedOperationException} if the wrapped graph is not a {@link WeightedGraph}.
+     */
+    @Override
+    public List<T> getShortestPath(T vertex1, T vertex2) {
+        return weightedGraph().getShortestPath(vertex1, vertex2);
+    }
+
+    /**
+     * Throws {@link UnsupportedOperationException} if the wrapped graph is not a {@link WeightedGraph}.
+     */
+    @Override
+    public List<T> getShortestPath(T vertex1, T vertex2, ToDoubleBiFunction<T, T> heuristic) {
+        return weightedGraph().getShortestPath(vertex1, vertex2, heuristic);
+    }
+
+    @Override
+    public boolean containsVertex(T vertex) {
+        return graph.containsVertex(vertex);
+    }
+
+    @Override
+    public boolean containsEdge(T vertex1, T vertex2) {
+        return graph.containsEdge(vertex1, vertex2);
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return graph.numberOfVertices();
+    }
+
+    @Override
+    public int numberOfOutgoingEdgesFromVertex(T vertex) {
+        return graph.numberOfOutgoingEdgesFromVertex(vertex);
+    }
+
+    @Override
+    public boolean isDirected() {
+        return graph.isDirected();
+    }
+
+    @Override
+    public FrozenGraph<T> snapshot() {
+        return graph.snapshot();
+    }
+
+    @Override
+    public Stream<T> bfs(T start, int maxDepth) {
+        return graph.bfs(start, maxDepth);
+    }
+
+    @Override
+    public Stream<T> dfs(T start, int maxDepth) {
+        return graph.dfs(start, maxDepth);
+    }
+
+    @Override
+    public Stream<T> parallelVertices() {
+        return graph.parallelVertices();
+    }
+
+    /**
+     * Forces everything logged so far to disk.
+     */
+    public void sync() throws IOException {
+        sync(Long.MAX_VALUE);
+    }
+
+    /**
+     * Writes a snapshot of the graph and deletes the logs and snapshots it replaces. Modifications are
+     * blocked only while the log is switched, not while the snapshot is written.
+     */
+    public void checkpoint() throws IOException {
+        checkpoint(null);
+    }
+
+    /**
+     * Forces the log and closes it. Modifications after closing throw {@link IllegalStateException}.
+     */
+    @Override
+    public void close() throws IOException {
+        if (syncScheduler != null) {
+            syncScheduler.shutdown();
+            try {
+                syncScheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        syncLock.lock();
+        try {
+            appendLock.lock();
+            try {
+                if (closed)
+                    return;
+
+                closed = true;
+                writeBuffer();
+                log.force(false);
+                log.close();
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void afterAppend(long position, boolean checkpointDue, boolean batch) {
+        try {
+            if (fsyncPolicy == FsyncPolicy.PER_OPERATION || (batch && fsyncPolicy == FsyncPolicy.PER_BATCH))
+                sync(position);
+
+            if (checkpointDue && checkpointLock.tryLock()) {
+                try {
+                    checkpoint(null);
+                } finally {
+                    checkpointLock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Group commit: the first thread to arrive writes out and forces the records of all threads waiting behind it,
+     * which then find their records durable and return without forcing again.
+     */
+    private void sync(long position) throws IOException {
+        if (durablePosition.get() >= position)
+            return;
+
+        syncLock.lock();
+        try {
+            if (durablePosition.get() >= position)
+                return;
+
+            FileChannel channel;
+            long syncedPosition;
+            appendLock.lock();
+            try {
+                checkOpen();
+                writeBuffer();
+                channel = log;
+                syncedPosition = writtenPosition;
+            } finally {
+                appendLock.unlock();
+            }
+
+            channel.force(false);
+            durablePosition.accumulateAndGet(syncedPosition, Math::max);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void syncInBackground() {
+        try {
+            sync();
+        } catch (IOException e) {
+            syncFailure = e;
+        } catch (IllegalStateException e) {
+            // closed meanwhile
+        }
+    }
+
+    /**
+     * Switches to a new log and writes the snapshot its generation starts with. With a modification the snapshot
+     * is written before the new log is accepting records, since the modification itself is not logged.
+     */
+    private void checkpoint(Runnable modification) throws IOException {
+        checkpointLock.lock();
+        try {
+            FrozenGraph<T> frozenGraph;
+            long newGeneration;
+
+            syncLock.lock();
+            try {
+                appendLock.lock();
+                try {
+                    checkOpen();
+                    writeBuffer();
+                    log.force(false);
+                    durablePosition.accumulateAndGet(writtenPosition, Math::max);
+
+                    newGeneration = generation + 1;
+                    if (modification != null) {
+                        modification.run();
+                        writeSnapshot(graph.snapshot(), newGeneration);
+                    }
+                    frozenGraph = graph.snapshot();
+
+                    var newLog = createLog(newGeneration);
+                    log.close();
+                    log = newLog;
+                    generation = newGeneration;
+                    recordsSinceCheckpoint = 0;
+                } finally {
+                    appendLock.unlock();
+                }
+            } finally {
+                syncLock.unlock();
+            }
+
+            if (modification == null)
+                writeSnapshot(frozenGraph, newGeneration);
+            deleteObsoleteFiles(newGeneration);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void writeSnapshot(FrozenGraph<T> frozenGraph, long snapshotGeneration) throws IOException {
+        GraphFile.write(frozenGraph, directory.resolve(SNAPSHOT_PREFIX + snapshotGeneration + SNAPSHOT_SUFFIX), serializer);
+        syncDirectory();
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed)
+            throw new IllegalStateException("Durable graph is closed");
+
+        var failure = syncFailure;
+        if (failure != null)
+            throw new IOException("Background fsync failed", failure);
+    }
+
+    private WeightedGraph<T> weightedGraph() {
+        if (!(graph instanceof WeightedGraph))
+            throw new UnsupportedOperationException("Wrapped graph has no weights");
+
+        return (WeightedGraph<T>) graph;
+    }
+
+    private boolean isCheckpointDue() {
+        long threshold = checkpointThreshold;
+        return threshold > 0 && recordsSinceCheckpoint >= threshold;
+    }
+
+    private void appendRecord(byte type, byte[] vertex1, byte[] vertex2) throws IOException {
+        appendRecord(type, vertex1, vertex2, DEFAULT_WEIGHT);
+    }
+
+    /**
+     * Appends a record, with the weight only if it is of type {@link #ADD_WEIGHTED_EDGE}.
+     */
+    private void appendRecord(byte type, byte[] vertex1, byte[] vertex2, double weight) throws IOException {
+        int length = 1 + Integer.BYTES + vertex1.length + (vertex2 == null ? 0 : Integer.BYTES + vertex2.length)
+                + (type == ADD_WEIGHTED_EDGE ? Double.BYTES : 0);
+        var record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+
+        record.position(RECORD_HEADER_SIZE);
+        record.put(type).putInt(vertex1.length).put(vertex1);
+        if (vertex2 != null)
+            record.putInt(vertex2.length).put(vertex2);
+        if (type == ADD_WEIGHTED_EDGE)
+            record.putDouble(weight);
+
+        checksum.reset();
+        checksum.update(record.array(), RECORD_HEADER_SIZE, length);
+        record.putInt(0, length).putInt(Integer.BYTES, (int) checksum.getValue());
+        record.flip();
+
+        while (record.hasRemaining()) {
+            if (!buffer.hasRemaining())
+                writeFullBuffer();
+
+            int chunk = Math.min(buffer.remaining(), record.remaining());
+            buffer.put(record.slice(record.position(), chunk));
+            record.position(record.position() + chunk);
+            appendedPosition += chunk;
+        }
+
+        recordsSinceCheckpoint++;
+    }
+
+    private void markRollback() {
+        rollbackPosition = appendedPosition;
+        rollbackRecordsSinceCheckpoint = recordsSinceCheckpoint;
+    }
+
+    /**
+     * Drops the records appended since {@link #markRollback()}, which the graph rejected, so they are not replayed
+     * on recovery. The records may already have been written by a full buffer, then the log is truncated.
+     * If even that fails, the failure is added to the one that caused the rollback.
+     */
+    private void rollBack(Throwable failure) {
+        try {
+            if (rollbackPosition >= writtenPosition) {
+                buffer.position(buffer.position() - (int) (appendedPosition - rollbackPosition));
+            } else {
+                long end = log.position() - (writtenPosition - rollbackPosition);
+                buffer.clear();
+                log.truncate(end);
+                log.position(end);
+                log.force(true);
+                writtenPosition = rollbackPosition;
+                durablePosition.accumulateAndGet(rollbackPosition, Math::min);
+            }
+
+            appendedPosition = rollbackPosition;
+            recordsSinceCheckpoint = rollbackRecordsSinceCheckpoint;
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Logs again the edges of a rolled back batch which the graph added before it failed, so that the log
+     * matches the graph.
+     */
+    private void relogAddedEdges(List<Map.Entry<T, T>> batch, Throwable failure) {
+        try {
+            for (Map.Entry<T, T> edge : batch) {
+                if (graph.containsEdge(edge.getKey(), edge.getValue()))
+                    appendRecord(ADD_EDGE, serializer.serialize(edge.getKey()), serializer.serialize(edge.getValue()));
+            }
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void writeFullBuffer() throws IOException {
+        writeBuffer();
+        if (fsyncPolicy == FsyncPolicy.PER_BATCH) {
+            log.force(false);
+            durablePosition.accumulateAndGet(writtenPosition, Math::max);
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            log.write(buffer);
+        buffer.clear();
+        writtenPosition = appendedPosition;
+    }
+
+    private void recover() throws IOException {
+        long snapshotGeneration = -1;
+        List<Long> logGenerations = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX + ".tmp"))
+                    Files.delete(path);
+
+                long snapshot = parseGeneration(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+                snapshotGeneration = Math.max(snapshotGeneration, snapshot);
+
+                long logGeneration = parseGeneration(name, LOG_PREFIX, LOG_SUFFIX);
+                if (logGeneration >= 0)
+                    logGenerations.add(logGeneration);
+            }
+        }
+
+        generation = Math.max(snapshotGeneration, 0);
+        if (snapshotGeneration >= 0)
+            loadSnapshot(directory.resolve(SNAPSHOT_PREFIX + snapshotGeneration + SNAPSHOT_SUFFIX));
+
+        logGenerations.removeIf(logGeneration -> logGeneration < generation);
+        logGenerations.sort(null);
+
+        for (int i = 0; i < logGenerations.size(); i++) {
+            var path = directory.resolve(LOG_PREFIX + logGenerations.get(i) + LOG_SUFFIX);
+            long end = replayLog(path);
+            boolean last = i == logGenerations.size() - 1;
+
+            if (!last && end < Files.size(path))
+                throw new IOException("Corrupt log " + path);
+
+            if (last) {
+                generation = logGenerations.get(i);
+                if (end < LOG_HEADER_SIZE) {
+                    log = createLog(generation);
+                } else {
+                    log = FileChannel.open(path, StandardOpenOption.WRITE);
+                    log.truncate(end);
+                    log.position(end);
+                    log.force(false);
+                }
+            }
+        }
+
+        if (log == null)
+            log = createLog(generation);
+
+        deleteObsoleteFiles(generation);
+    }
+
+    private void loadSnapshot(Path path) throws IOException {
+        var frozenGraph = MappedGraph.open(path, serializer).snapshot();
+        if (frozenGraph.isDirected() != graph.isDirected())
+            throw new IOException("Snapshot " + path + " is " + (frozenGraph.isDirected() ? "directed" : "undirected"));
+
+        var adjacency = frozenGraph.adjacency();
+        if (adjacency.weights != null && !(graph instanceof WeightedGraph))
+            throw new IOException("Snapshot " + path + " is weighted");
+
+        List<Map.Entry<T, T>> batch = new ArrayList<>(GraphImporter.BATCH_SIZE);
+
+        for (int vertexId = 0; vertexId < frozenGraph.numberOfVertices(); vertexId++) {
+            T vertex = frozenGraph.vertex(vertexId);
+            graph.addVertex(vertex);
+
+            for (int position = adjacency.offsets[vertexId]; position < adjacency.offsets[vertexId + 1]; position++) {
+                T adjacentVertex = frozenGraph.vertex(adjacency.targets[position]);
+                if (adjacency.weights != null && adjacency.weights[position] != DEFAULT_WEIGHT) {
+                    ((WeightedGraph<T>) graph).addEdge(vertex, adjacentVertex, adjacency.weights[position]);
+                    continue;
+                }
+
+                batch.add(Map.entry(vertex, adjacentVertex));
+                if (batch.size() == GraphImporter.BATCH_SIZE) {
+                    graph.addEdges(batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        graph.addEdges(batch);
+    }
+
+    /**
+     * Applies all intact records and returns the position after the last one, or 0 if even the header is incomplete.
+     */
+    private long replayLog(Path path) throws IOException {
+        long size = Files.size(path);
+        if (size < LOG_HEADER_SIZE)
+            return 0;
+
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            if (input.readInt() != LOG_MAGIC || input.readInt() != LOG_VERSION)
+                throw new IOException("Not a graph log: " + path);
+
+            var recordChecksum = new CRC32C();
+            long position = LOG_HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= size) {
+                int length = input.readInt();
+                int expectedChecksum = input.readInt();
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > size)
+                    break;
+
+                byte[] payload = new byte[length];
+                input.readFully(payload);
+                recordChecksum.reset();
+                recordChecksum.update(payload);
+                if ((int) recordChecksum.getValue() != expectedChecksum)
+                    break;
+
+                applyRecord(ByteBuffer.wrap(payload), path);
+                position += RECORD_HEADER_SIZE + length;
+            }
+
+            return position;
+        }
+    }
+
+    private void applyRecord(ByteBuffer payload, Path path) throws IOException {
+        byte type = payload.get();
+        switch (type) {
+            case ADD_VERTEX:
+                graph.addVertex(readVertex(payload));
+                break;
+            case ADD_EDGE:
+                T vertex1 = readVertex(payload);
+                graph.addEdge(vertex1, readVertex(payload));
+                break;
+            case REMOVE_VERTEX:
+                graph.removeVertex(readVertex(payload));
+                break;
+            case REMOVE_EDGE:
+                T source = readVertex(payload);
+                graph.removeEdge(source, readVertex(payload));
+                break;
+            case ADD_WEIGHTED_EDGE:
+                if (!(graph instanceof WeightedGraph))
+                    throw new IOException("Weighted edge in " + path + " of a graph without weights");
+
+                T weightedSource = readVertex(payload);
+                T weightedTarget = readVertex(payload);
+                ((WeightedGraph<T>) graph).addEdge(weightedSource, weightedTarget, payload.getDouble());
+                break;
+            default:
+                throw new IOException("Unknown record type " + type + " in " + path);
+        }
+    }
+
+    private T readVertex(ByteBuffer payload) {
+        int length = payload.getInt();
+        var bytes = payload.slice(payload.position(), length);
+        payload.position(payload.position() + length);
+        return serializer.deserialize(bytes);
+    }
+
+    private FileChannel createLog(long logGeneration) throws IOException {
+        var channel = FileChannel.open(directory.resolve(LOG_PREFIX + logGeneration + LOG_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        var header = ByteBuffer.allocate(LOG_HEADER_SIZE).putInt(LOG_MAGIC).putInt(LOG_VERSION).flip();
+        while (header.hasRemaining())
+            channel.write(header);
+        channel.force(false);
+        syncDirectory();
+
+        return channel;
+    }
+
+    private void deleteObsoleteFiles(long currentGeneration) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                String name = path.getFileName().toString();
+                long snapshot = parseGeneration(name, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+                long logGeneration = parseGeneration(name, LOG_PREFIX, LOG_SUFFIX);
+
+                if ((snapshot >= 0 && snapshot < currentGeneration) || (logGeneration >= 0 && logGeneration < currentGeneration))
+                    Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Makes created, renamed and deleted files durable. Not every platform can open a directory, so failures are ignored.
+     */
+    private void syncDirectory() {
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // best effort
+        }
+    }
+
+    private static long parseGeneration(String name, String prefix, String suffix) {
+        if (!name.startsWith(prefix) || !name.endsWith(suffix) || name.length() == prefix.length() + suffix.length())
+            return -1;
+
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.fedyiv.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Splits an int range into chunks which are processed by fork-join tasks.
+ */
+final class ForkJoinRanges {
+
+    @FunctionalInterface
+    interface RangeAction {
+        void apply(int from, int to);
+    }
+
+    private ForkJoinRanges() {
+    }
+
+    /**
+     * Applies the action to chunks of {@code [from, to)} of at most {@code grain} elements and
+     * waits until all chunks are done.
+     */
+    static void forEach(ForkJoinPool pool, int from, int to, int grain, RangeAction action) {
+        if (to - from <= grain) {
+            action.apply(from, to);
+            return;
+        }
+
+        pool.invoke(new RangeTask(from, to, Math.max(1, grain), action));
+    }
+
+    /**
+     * Returns {@code func(element(i))} for every {@code i} in {@code [0, size)}, computed on the pool.
+     * Chunks are as small as needed to balance the load, since the function is expected to be expensive.
+     */
+    static <T, R> Object[] map(ForkJoinPool pool, int size, IntFunction<T> element, Function<T, R> func) {
+        Object[] results = new Object[size];
+        forEach(pool, 0, size, Math.max(1, size / (pool.getParallelism() * 8)), (from, to) -> {
+            for (int i = from; i < to; i++)
+                results[i] = func.apply(element.apply(i));
+        });
+
+        return results;
+    }
+
+    /**
+     * Returns a chunk size which gives every worker of the pool several chunks to balance the load.
+     */
+    static int grain(ForkJoinPool pool, int size) {
+        return Math.max(1024, size / (pool.getParallelism() * 8));
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final RangeAction action;
+
+        private RangeTask(int from, int to, int grain, RangeAction action) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                action.apply(from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, middle, grain, action), new RangeTask(middle, to, grain, action));
+        }
+    }
+}
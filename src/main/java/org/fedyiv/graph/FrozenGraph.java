@@ -0,0 +1,435 @@
+package org.fedyiv.graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.ToDoubleBiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Immutable graph with adjacency in compressed sparse row (CSR) layout: vertices adjacent to the vertex
+ * with id {@code v} are {@code targets[offsets[v] .. offsets[v + 1])}, sorted ascending, and weights
+ * of those edges, if any edge is weighted, are at the same indexes of a parallel {@code double[]}.
+ * All queries are lock free and the graph can be safely shared between threads.
+ */
+public final class FrozenGraph<T> implements WeightedGraph<T> {
+
+    private final Map<T, Integer> vertexIds;
+    private final Object[] values;
+    private final CsrAdjacency adjacency;
+    private final boolean directed;
+
+    private volatile CsrAdjacency incomingAdjacency;
+
+    private volatile int[] componentIds;
+
+    private volatile ConnectedComponents<T> connectedComponents;
+
+    private volatile FrozenGraph<T> unweightedGraph;
+
+    /**
+     * Takes ownership of the given structures, callers must not modify them afterwards.
+     */
+    FrozenGraph(Map<T, Integer> vertexIds, Object[] values, int[] offsets, int[] targets, boolean directed) {
+        this(vertexIds, values, offsets, targets, null, directed);
+    }
+
+    /**
+     * Takes ownership of the given structures, callers must not modify them afterwards.
+     * Null weights mean that every edge weighs {@link #DEFAULT_WEIGHT}.
+     */
+    FrozenGraph(Map<T, Integer> vertexIds, Object[] values, int[] offsets, int[] targets, double[] weights, boolean directed) {
+        this.vertexIds = vertexIds;
+        this.values = values;
+        this.adjacency = new CsrAdjacency(offsets, targets, weights);
+        this.directed = directed;
+    }
+
+    @Override
+    public void addVertex(T vertex) {
+        throw new UnsupportedOperationException("Frozen graph can not be modified");
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2) {
+        throw new UnsupportedOperationException("Frozen graph can not be modified");
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2, double weight) {
+        throw new UnsupportedOperationException("Frozen graph can not be modified");
+    }
+
+    @Override
+    public void traverse(Function<T, T> func) {
+        throw new UnsupportedOperationException("Frozen graph can not be modified");
+    }
+
+    @Override
+    public boolean removeVertex(T vertex) {
+        throw new UnsupportedOperationException("Frozen graph can not be modified");
+    }
+
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+        throw new UnsupportedOperationException("Frozen graph can not be modified");
+    }
+
+    /**
+     * Uses Breadth-first search algorithm to find the shortest path between two vertexes
+     */
+    @Override
+    public List<T> getPath(T vertex1, T vertex2) {
+        return getPath(vertex1, vertex2, TraversalContext.forCurrentThread());
+    }
+
+    /**
+     * Like {@link #getPath(Object, Object)}, with the scratch buffers of the given context.
+     */
+    public List<T> getPath(T vertex1, T vertex2, TraversalContext context) {
+        var vertexId1 = vertexIds.get(vertex1);
+        var vertexId2 = vertexIds.get(vertex2);
+
+        if (vertexId1 == null || vertexId2 == null)
+            throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+        return toVertices(IntBreadthFirstSearch.findPath(adjacency, vertexId1, vertexId2, context));
+    }
+
+    @Override
+    public List<T> getShortestPath(T vertex1, T vertex2) {
+        return getShortestPath(vertex1, vertex2, null);
+    }
+
+    @Override
+    public List<T> getShortestPath(T vertex1, T vertex2, ToDoubleBiFunction<T, T> heuristic) {
+        var vertexId1 = vertexIds.get(vertex1);
+        var vertexId2 = vertexIds.get(vertex2);
+
+        if (vertexId1 == null || vertexId2 == null)
+            throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+        return toVertices(ShortestPathSearch.findPath(adjacency, vertexId1, vertexId2,
+                heuristic == null ? null : vertexId -> heuristic.applyAsDouble(vertex(vertexId), vertex2)));
+    }
+
+    @Override
+    public List<T> getPathInParallel(T vertex1, T vertex2, ForkJoinPool pool) {
+        return getPathInParallel(vertex1, vertex2, pool, ParallelBreadthFirstSearch.DEFAULT_SERIAL_SEARCH_THRESHOLD);
+    }
+
+    /**
+     * Finds the shortest path with a level-synchronous, direction-optimizing breadth-first search whose levels
+     * are expanded by fork-join tasks of the given pool. Graphs with fewer than {@code serialSearchThreshold}
+     * vertices are searched by the calling thread, as in {@link #getPath(Object, Object)}.
+     */
+    public List<T> getPathInParallel(T vertex1, T vertex2, ForkJoinPool pool, int serialSearchThreshold) {
+        var vertexId1 = vertexIds.get(vertex1);
+        var vertexId2 = vertexIds.get(vertex2);
+
+        if (vertexId1 == null || vertexId2 == null)
+            throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+        return toVertices(ParallelBreadthFirstSearch.findPath(this, vertexId1, vertexId2, pool, serialSearchThreshold));
+    }
+
+    /**
+     * Returns a stream over the array of vertices, which splits into halves of equal size.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<T> parallelVertices() {
+        return Arrays.stream((T[]) values).parallel();
+    }
+
+    @Override
+    public Stream<T> bfs(T start, int maxDepth) {
+        Traversals.checkMaxDepth(maxDepth);
+        return Traversals.stream(Traversals.breadthFirst(adjacency, existingVertexId(start), maxDepth)).mapToObj(this::vertex);
+    }
+
+    @Override
+    public Stream<T> dfs(T start, int maxDepth) {
+        Traversals.checkMaxDepth(maxDepth);
+        return Traversals.stream(Traversals.depthFirst(adjacency, existingVertexId(start), maxDepth)).mapToObj(this::vertex);
+    }
+
+    /**
+     * Traverses incoming edges in breadth-first order, that is the vertices from which the start vertex can be
+     * reached. The incoming adjacency of a directed graph is computed on first use.
+     */
+    public Stream<T> reverseBfs(T start, int maxDepth) {
+        Traversals.checkMaxDepth(maxDepth);
+        return Traversals.stream(Traversals.breadthFirst(incomingAdjacency(), existingVertexId(start), maxDepth)).mapToObj(this::vertex);
+    }
+
+    /**
+     * Traverses incoming edges in depth-first preorder, see {@link #reverseBfs(Object, int)}.
+     */
+    public Stream<T> reverseDfs(T start, int maxDepth) {
+        Traversals.checkMaxDepth(maxDepth);
+        return Traversals.stream(Traversals.depthFirst(incomingAdjacency(), existingVertexId(start), maxDepth)).mapToObj(this::vertex);
+    }
+
+    /**
+     * Returns the vertices at most {@code k} edges away from the start, the start included, in breadth-first
+     * order. Unlike {@link #bfs(Object, int)} the search runs eagerly on scratch buffers of the calling thread,
+     * which are reused by its next searches, so it allocates only the returned list.
+     */
+    public List<T> kHopNeighborhood(T start, int k) {
+        Traversals.checkMaxDepth(k);
+        int startId = existingVertexId(start);
+
+        var context = TraversalContext.forCurrentThread();
+        int size = IntBreadthFirstSearch.neighborhood(adjacency, startId, k, context);
+
+        int[] neighborhood = context.queue();
+        List<T> vertices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            vertices.add(vertex(neighborhood[i]));
+
+        return vertices;
+    }
+
+    /**
+     * Returns the connected components, weakly connected components for directed graphs, found by fork-join tasks
+     * of the common pool. Components are computed on first use.
+     */
+    public ConnectedComponents<T> connectedComponents() {
+        return connectedComponents(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Like {@link #connectedComponents()}, with fork-join tasks of the given pool.
+     */
+    public ConnectedComponents<T> connectedComponents(ForkJoinPool pool) {
+        var components = connectedComponents;
+        if (components == null)
+            connectedComponents = components = ConnectedComponents.find(this, pool);
+
+        return components;
+    }
+
+    /**
+     * Returns the vertices with an edge to the given vertex. The incoming adjacency of a directed graph
+     * is computed on first use.
+     */
+    public List<T> predecessors(T vertex) {
+        int vertexId = existingVertexId(vertex);
+        var incoming = incomingAdjacency();
+        return toVertices(Arrays.copyOfRange(incoming.targets, incoming.offsets[vertexId], incoming.offsets[vertexId + 1]));
+    }
+
+    public int numberOfIncomingEdgesToVertex(T vertex) {
+        return incomingAdjacency().degree(existingVertexId(vertex));
+    }
+
+    private int existingVertexId(T vertex) {
+        var vertexId = vertexIds.get(vertex);
+        if (vertexId == null)
+            throw new IllegalArgumentException("No vertex " + vertex);
+
+        return vertexId;
+    }
+
+    /**
+     * Returns true if each of the vertices can be reached from the other one, which for undirected graphs means
+     * that they are connected. Strongly connected components are computed on first use.
+     */
+    public boolean isStronglyConnected(T vertex1, T vertex2) {
+        var vertexId1 = vertexIds.get(vertex1);
+        var vertexId2 = vertexIds.get(vertex2);
+
+        if (vertexId1 == null || vertexId2 == null)
+            throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+        var components = componentIds();
+        return components[vertexId1] == components[vertexId2];
+    }
+
+    /**
+     * Returns the strongly connected components, which for undirected graphs are the connected components,
+     * in topological order: edges between components only lead to later ones. Components are computed on
+     * first use.
+     */
+    public List<List<T>> stronglyConnectedComponents() {
+        var components = componentIds();
+
+        // Tarjan's algorithm numbers components in reverse topological order
+        int numberOfComponents = 0;
+        for (int componentId : components)
+            numberOfComponents = Math.max(numberOfComponents, componentId + 1);
+
+        int[] componentSizes = new int[numberOfComponents];
+        for (int componentId : components)
+            componentSizes[componentId]++;
+
+        List<List<T>> stronglyConnectedComponents = new ArrayList<>(numberOfComponents);
+        for (int componentId = numberOfComponents - 1; componentId >= 0; componentId--)
+            stronglyConnectedComponents.add(new ArrayList<>(componentSizes[componentId]));
+
+        for (int vertexId = 0; vertexId < components.length; vertexId++)
+            stronglyConnectedComponents.get(numberOfComponents - 1 - components[vertexId]).add(vertex(vertexId));
+
+        return stronglyConnectedComponents;
+    }
+
+    /**
+     * Returns the vertices in an order where every edge leads from an earlier vertex to a later one,
+     * or null if the graph has a cycle, see {@link #findCycle()}. An undirected graph has an order
+     * only if it has no edges.
+     */
+    public List<T> topologicalSort() {
+        return toVertices(TopologicalSort.sort(adjacency));
+    }
+
+    /**
+     * Returns the vertices of some cycle in the order of its edges, starting and ending with the same vertex,
+     * or null if the graph is acyclic. Any edge of an undirected graph is a cycle.
+     */
+    public List<T> findCycle() {
+        return toVertices(TopologicalSort.findCycle(adjacency));
+    }
+
+    private int[] componentIds() {
+        var components = componentIds;
+        if (components == null)
+            componentIds = components = StronglyConnectedComponents.find(adjacency);
+
+        return components;
+    }
+
+    @Override
+    public boolean containsVertex(T vertex) {
+        return vertexIds.containsKey(vertex);
+    }
+
+    @Override
+    public boolean containsEdge(T vertex1, T vertex2) {
+        var vertexId1 = vertexIds.get(vertex1);
+        var vertexId2 = vertexIds.get(vertex2);
+        if (vertexId1 == null || vertexId2 == null)
+            return false;
+
+        return Arrays.binarySearch(adjacency.targets, adjacency.offsets[vertexId1], adjacency.offsets[vertexId1 + 1], vertexId2) >= 0;
+    }
+
+    @Override
+    public double getEdgeWeight(T vertex1, T vertex2) {
+        var vertexId1 = vertexIds.get(vertex1);
+        var vertexId2 = vertexIds.get(vertex2);
+        int position = vertexId1 == null || vertexId2 == null ? -1
+                : Arrays.binarySearch(adjacency.targets, adjacency.offsets[vertexId1], adjacency.offsets[vertexId1 + 1], vertexId2);
+
+        if (position < 0)
+            throw new IllegalArgumentException("No edge " + vertex1 + " -> " + vertex2);
+
+        return adjacency.weights == null ? DEFAULT_WEIGHT : adjacency.weights[position];
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return values.length;
+    }
+
+    @Override
+    public int numberOfOutgoingEdgesFromVertex(T vertex) {
+        var vertexId = vertexIds.get(vertex);
+        if (vertexId == null)
+            throw new IllegalArgumentException("No vertex " + vertex);
+
+        return adjacency.degree(vertexId);
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    @Override
+    public FrozenGraph<T> snapshot() {
+        return this;
+    }
+
+    int vertexId(T vertex) {
+        var vertexId = vertexIds.get(vertex);
+        return vertexId == null ? -1 : vertexId;
+    }
+
+    @SuppressWarnings("unchecked")
+    T vertex(int vertexId) {
+        return (T) values[vertexId];
+    }
+
+    CsrAdjacency adjacency() {
+        return adjacency;
+    }
+
+    /**
+     * Returns the graph with every edge weighing {@link #DEFAULT_WEIGHT}, sharing the structures of this one.
+     * The same graph is returned on every call.
+     */
+    FrozenGraph<T> withoutWeights() {
+        if (adjacency.weights == null)
+            return this;
+
+        var unweighted = unweightedGraph;
+        if (unweighted == null)
+            unweightedGraph = unweighted = new FrozenGraph<>(vertexIds, values, adjacency.offsets, adjacency.targets, directed);
+
+        return unweighted;
+    }
+
+    /**
+     * Returns adjacency along incoming edges. For directed graphs it is computed on first use.
+     */
+    CsrAdjacency incomingAdjacency() {
+        if (!directed)
+            return adjacency;
+
+        var incoming = incomingAdjacency;
+        if (incoming == null)
+            incomingAdjacency = incoming = adjacency.transpose();
+
+        return incoming;
+    }
+
+    /**
+     * Returns all edges in the order of source vertex ids. Edges of an undirected graph are returned in both directions.
+     */
+    Iterable<Map.Entry<T, T>> edges() {
+        return () -> new Iterator<>() {
+            private final int[] offsets = adjacency.offsets;
+            private final int[] targets = adjacency.targets;
+            private int vertexId;
+            private int offset;
+
+            @Override
+            public boolean hasNext() {
+                return offset < targets.length;
+            }
+
+            @Override
+            public Map.Entry<T, T> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                while (offsets[vertexId + 1] <= offset)
+                    vertexId++;
+
+                return new AbstractMap.SimpleImmutableEntry<>(vertex(vertexId), vertex(targets[offset++]));
+            }
+        };
+    }
+
+    List<T> toVertices(int[] vertexIds) {
+        if (vertexIds == null)
+            return null;
+
+        List<T> vertices = new ArrayList<>(vertexIds.length);
+        for (int vertexId : vertexIds)
+            vertices.add(vertex(vertexId));
+
+        return vertices;
+    }
+}
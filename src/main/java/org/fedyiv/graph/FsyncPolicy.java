@@ -0,0 +1,27 @@
+package org.fedyiv.graph;
+
+/**
+ * When a {@link DurableGraph} forces its write-ahead log to disk, trading the latency of modifications
+ * for the number of modifications a crash can lose.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Every modification, or every {@code addEdges} batch, returns only once it is on disk. Threads modifying
+     * the graph at the same time share one fsync (group commit).
+     */
+    PER_OPERATION,
+
+    /**
+     * Every {@code addEdges} batch returns only once it is on disk, together with the single modifications logged
+     * before it. Single modifications are otherwise forced only when the log buffer fills up, and on
+     * {@link DurableGraph#sync()}, so a crash may lose those logged since the last batch.
+     */
+    PER_BATCH,
+
+    /**
+     * A background thread forces the log at a fixed interval. A crash loses at most the modifications
+     * of the last interval.
+     */
+    INTERVAL
+}
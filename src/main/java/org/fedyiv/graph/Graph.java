@@ -1,7 +1,10 @@
 package org.fedyiv.graph;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface Graph<T> {
 
@@ -10,9 +13,119 @@ public interface Graph<T> {
     List<T> getPath(T vertex1, T vertex2);
     void traverse(Function<T,T> func);
 
+    /**
+     * Removes the vertex together with all edges from and to it.
+     *
+     * @return false if there is no such vertex
+     */
+    boolean removeVertex(T vertex);
+
+    /**
+     * Removes the edge, in both directions for undirected graphs. The vertices stay in the graph.
+     *
+     * @return false if there is no such edge
+     */
+    boolean removeEdge(T vertex1, T vertex2);
+
     boolean containsVertex(T vertex);
     boolean containsEdge(T vertex1, T vertex2);
     int numberOfVertices();
     int numberOfOutgoingEdgesFromVertex(T vertex);
+    boolean isDirected();
+
+    /**
+     * Applies the function to every vertex like {@link #traverse(Function)}, but in parallel on the common pool.
+     */
+    default void traverseParallel(Function<T, T> func) {
+        traverseParallel(func, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies the function to every vertex like {@link #traverse(Function)}, but in parallel on the given pool.
+     * The function must be thread safe and must not access the graph, which stays locked for writing until
+     * the function has been applied to all vertices. Unless overridden the function is applied sequentially.
+     */
+    default void traverseParallel(Function<T, T> func, ForkJoinPool pool) {
+        traverse(func);
+    }
+
+    /**
+     * Returns a parallel stream of all vertices which splits evenly between workers.
+     * Unless overridden the stream runs over the {@link #snapshot()} of the graph.
+     */
+    default Stream<T> parallelVertices() {
+        return snapshot().parallelVertices();
+    }
+
+    /**
+     * Returns an immutable copy of the graph whose queries take no locks and which can be shared between threads.
+     */
+    FrozenGraph<T> snapshot();
+
+    /**
+     * Finds the shortest path like {@link #getPath(Object, Object)}, but expands every level of the search
+     * with fork-join tasks of the common pool. See {@link FrozenGraph#getPathInParallel(Object, Object, ForkJoinPool, int)}.
+     */
+    default List<T> getPathInParallel(T vertex1, T vertex2) {
+        return getPathInParallel(vertex1, vertex2, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the shortest path with a parallel search on the given pool. Unless overridden the search runs on
+     * the {@link #snapshot()} of the graph.
+     */
+    default List<T> getPathInParallel(T vertex1, T vertex2, ForkJoinPool pool) {
+        return snapshot().getPathInParallel(vertex1, vertex2, pool);
+    }
+
+    /**
+     * Returns a lazy stream of the vertices reachable from the start vertex in breadth-first order,
+     * starting with the start vertex itself.
+     */
+    default Stream<T> bfs(T start) {
+        return bfs(start, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a lazy stream of the vertices at most {@code maxDepth} edges away from the start vertex
+     * in breadth-first order. The stream does no more work than needed for the elements consumed from it.
+     * Unless overridden the traversal runs on the {@link #snapshot()} of the graph.
+     */
+    default Stream<T> bfs(T start, int maxDepth) {
+        return snapshot().bfs(start, maxDepth);
+    }
+
+    /**
+     * Returns a lazy stream of the vertices reachable from the start vertex in depth-first preorder,
+     * starting with the start vertex itself.
+     */
+    default Stream<T> dfs(T start) {
+        return dfs(start, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a lazy stream of the vertices in depth-first preorder which the search reaches through at most
+     * {@code maxDepth} edges. Unless overridden the traversal runs on the {@link #snapshot()} of the graph.
+     */
+    default Stream<T> dfs(T start, int maxDepth) {
+        return snapshot().dfs(start, maxDepth);
+    }
+
+    /**
+     * Adds all edges as one batch. Implementations may take their locks once for the whole batch
+     * and use the size of a {@link java.util.Collection} as a hint to pre-size their structures.
+     */
+    default void addEdges(Iterable<? extends Map.Entry<T, T>> edges) {
+        for (Map.Entry<T, T> edge : edges)
+            addEdge(edge.getKey(), edge.getValue());
+    }
+
+    /**
+     * Adds all edges of the stream as one batch, see {@link #addEdges(Iterable)}.
+     */
+    default void addEdges(Stream<? extends Map.Entry<T, T>> edges) {
+        Stream<Map.Entry<T, T>> entries = edges.map(edge -> edge);
+        addEdges(entries::iterator);
+    }
 
 }
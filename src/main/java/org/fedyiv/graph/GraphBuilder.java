@@ -0,0 +1,200 @@
+package org.fedyiv.graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Collects edges from many producer threads and assembles a graph from them in parallel.
+ * <p>
+ * Every producer thread appends edges to its own buffer, only interning of vertices to int ids is shared.
+ * {@link #build()} then runs a parallel counting sort of all buffered edges by source vertex on a
+ * {@link ForkJoinPool} and returns a {@link FrozenGraph}. {@link #buildInto(Graph)} copies the result into
+ * any mutable graph, e.g. a {@code DirectedGraph}.
+ * <p>
+ * Edges may be added from any number of threads, but all producers must have finished (e.g. joined)
+ * before the graph is built.
+ */
+public class GraphBuilder<T> {
+
+    private static final int INITIAL_BUFFER_CAPACITY = 1024;
+
+    private final boolean directed;
+    private final ForkJoinPool pool;
+
+    private final ConcurrentMap<T, Integer> vertexIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextVertexId = new AtomicInteger();
+
+    private final Queue<EdgeBuffer> edgeBuffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<EdgeBuffer> edgeBuffer = ThreadLocal.withInitial(() -> {
+        var newEdgeBuffer = new EdgeBuffer();
+        edgeBuffers.add(newEdgeBuffer);
+        return newEdgeBuffer;
+    });
+
+    private static class EdgeBuffer {
+        private int[] sources = new int[INITIAL_BUFFER_CAPACITY];
+        private int[] targets = new int[INITIAL_BUFFER_CAPACITY];
+        private int size;
+
+        private void add(int source, int target) {
+            if (size == sources.length) {
+                sources = Arrays.copyOf(sources, size + (size >> 1));
+                targets = Arrays.copyOf(targets, size + (size >> 1));
+            }
+
+            sources[size] = source;
+            targets[size] = target;
+            size++;
+        }
+    }
+
+    private GraphBuilder(boolean directed, ForkJoinPool pool) {
+        this.directed = directed;
+        this.pool = pool;
+    }
+
+    public static <T> GraphBuilder<T> directed() {
+        return directed(ForkJoinPool.commonPool());
+    }
+
+    public static <T> GraphBuilder<T> directed(ForkJoinPool pool) {
+        return new GraphBuilder<>(true, pool);
+    }
+
+    public static <T> GraphBuilder<T> undirected() {
+        return undirected(ForkJoinPool.commonPool());
+    }
+
+    public static <T> GraphBuilder<T> undirected(ForkJoinPool pool) {
+        return new GraphBuilder<>(false, pool);
+    }
+
+    public void addVertex(T vertex) {
+        getOrCreateVertexId(vertex);
+    }
+
+    public void addEdge(T vertex1, T vertex2) {
+        int vertexId1 = getOrCreateVertexId(vertex1);
+        int vertexId2 = getOrCreateVertexId(vertex2);
+
+        edgeBuffer.get().add(vertexId1, vertexId2);
+    }
+
+    public int numberOfVertices() {
+        return nextVertexId.get();
+    }
+
+    private int getOrCreateVertexId(T vertex) {
+        var existingVertexId = vertexIds.get(vertex);
+        if (existingVertexId != null)
+            return existingVertexId;
+
+        return vertexIds.computeIfAbsent(vertex, newVertex -> nextVertexId.getAndIncrement());
+    }
+
+    /**
+     * Assembles compressed sparse row adjacency from all buffered edges. Duplicate edges are dropped.
+     * The builder is left untouched, so more edges may be added and the graph built again.
+     */
+    public FrozenGraph<T> build() {
+        int numberOfVertices = nextVertexId.get();
+        var buffers = edgeBuffers.toArray(new EdgeBuffer[0]);
+
+        Object[] values = new Object[numberOfVertices];
+        vertexIds.forEach((vertex, vertexId) -> values[vertexId] = vertex);
+
+        var degrees = new AtomicIntegerArray(numberOfVertices);
+        for (EdgeBuffer buffer : buffers) {
+            ForkJoinRanges.forEach(pool, 0, buffer.size, ForkJoinRanges.grain(pool, buffer.size), (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    degrees.incrementAndGet(buffer.sources[i]);
+                    if (!directed && buffer.sources[i] != buffer.targets[i])
+                        degrees.incrementAndGet(buffer.targets[i]);
+                }
+            });
+        }
+
+        int[] offsets = prefixSums(numberOfVertices, degrees::get);
+        int[] targets = new int[offsets[numberOfVertices]];
+
+        var cursors = new AtomicIntegerArray(Arrays.copyOf(offsets, numberOfVertices));
+        for (EdgeBuffer buffer : buffers) {
+            ForkJoinRanges.forEach(pool, 0, buffer.size, ForkJoinRanges.grain(pool, buffer.size), (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    targets[cursors.getAndIncrement(buffer.sources[i])] = buffer.targets[i];
+                    if (!directed && buffer.sources[i] != buffer.targets[i])
+                        targets[cursors.getAndIncrement(buffer.targets[i])] = buffer.sources[i];
+                }
+            });
+        }
+
+        int[] uniqueDegrees = new int[numberOfVertices];
+        ForkJoinRanges.forEach(pool, 0, numberOfVertices, ForkJoinRanges.grain(pool, numberOfVertices), (from, to) -> {
+            for (int vertexId = from; vertexId < to; vertexId++)
+                uniqueDegrees[vertexId] = sortUnique(targets, offsets[vertexId], offsets[vertexId + 1]);
+        });
+
+        int[] uniqueOffsets = prefixSums(numberOfVertices, vertexId -> uniqueDegrees[vertexId]);
+        if (uniqueOffsets[numberOfVertices] == offsets[numberOfVertices])
+            return new FrozenGraph<>(new HashMap<>(vertexIds), values, offsets, targets, directed);
+
+        int[] uniqueTargets = new int[uniqueOffsets[numberOfVertices]];
+        ForkJoinRanges.forEach(pool, 0, numberOfVertices, ForkJoinRanges.grain(pool, numberOfVertices), (from, to) -> {
+            for (int vertexId = from; vertexId < to; vertexId++)
+                System.arraycopy(targets, offsets[vertexId], uniqueTargets, uniqueOffsets[vertexId], uniqueDegrees[vertexId]);
+        });
+
+        return new FrozenGraph<>(new HashMap<>(vertexIds), values, uniqueOffsets, uniqueTargets, directed);
+    }
+
+    /**
+     * Builds the graph and adds all its vertices and edges to the given graph as one batch.
+     */
+    public <G extends Graph<T>> G buildInto(G graph) {
+        var frozenGraph = build();
+
+        for (int vertexId = 0; vertexId < frozenGraph.numberOfVertices(); vertexId++)
+            graph.addVertex(frozenGraph.vertex(vertexId));
+        graph.addEdges(frozenGraph.edges());
+
+        return graph;
+    }
+
+    private static int[] prefixSums(int size, IntUnaryOperator values) {
+        int[] prefixSums = new int[size + 1];
+
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values.applyAsInt(i);
+            if (sum > Integer.MAX_VALUE)
+                throw new IllegalStateException("Too many edges to build a graph: more than " + Integer.MAX_VALUE);
+            prefixSums[i + 1] = (int) sum;
+        }
+
+        return prefixSums;
+    }
+
+    /**
+     * Sorts {@code array[from .. to)}, moves distinct values to its beginning and returns their number.
+     */
+    private static int sortUnique(int[] array, int from, int to) {
+        if (from == to)
+            return 0;
+
+        Arrays.sort(array, from, to);
+
+        int last = from;
+        for (int i = from + 1; i < to; i++) {
+            if (array[i] != array[last])
+                array[++last] = array[i];
+        }
+
+        return last - from + 1;
+    }
+}
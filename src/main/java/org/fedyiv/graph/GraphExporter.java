@@ -0,0 +1,169 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes graphs to text files which {@link GraphImporter} reads back. The graphs of this package are streamed
+ * through an {@link AdjacencyView} of their adjacency in place while they can not be modified, or of their snapshot
+ * if it is still current, so the graph is never copied. Any other graph is streamed from its
+ * {@link Graph#snapshot() snapshot}. Edges go through one reusable buffer with numbers formatted straight into bytes,
+ * so no edge objects or lines are created either.
+ * <p>
+ * Integer and long vertices are written as numbers, any other vertex as its {@code toString()}, which must not
+ * contain whitespace for the file to be read back.
+ */
+public final class GraphExporter {
+
+    private GraphExporter() {
+    }
+
+    /**
+     * Writes one edge per line as two tab separated vertices. Undirected edges are written once.
+     */
+    public static <T> void writeEdgeList(Graph<T> graph, Path path) throws IOException {
+        readAdjacency(graph, adjacency -> writeEdgeList(adjacency, graph.isDirected(), path, false));
+    }
+
+    /**
+     * Writes an edge list like {@link #writeEdgeList(Graph, Path)} preceded by the comment header of the SNAP datasets.
+     */
+    public static <T> void writeSnap(Graph<T> graph, Path path) throws IOException {
+        readAdjacency(graph, adjacency -> writeEdgeList(adjacency, graph.isDirected(), path, true));
+    }
+
+    /**
+     * Writes an undirected graph in METIS format. Vertices are renumbered from 1 in the order the graph keeps them,
+     * which is the order they were added in until vertices are removed, so only graphs whose vertices are already
+     * {@code 1..n} in that order keep their vertices. Self loops, which METIS does not allow, are dropped.
+     * Weights are written when the graph has any, and must be whole numbers then.
+     */
+    public static <T> void writeMetis(Graph<T> graph, Path path) throws IOException {
+        if (graph.isDirected())
+            throw new IllegalArgumentException("METIS format requires an undirected graph");
+
+        readAdjacency(graph, adjacency -> writeMetis(adjacency, path));
+    }
+
+    private static <T> void readAdjacency(Graph<T> graph, AdjacencyView.Reader<T> reader) throws IOException {
+        if (graph instanceof AbstractGraph)
+            ((AbstractGraph<T>) graph).readAdjacency(reader);
+        else if (graph instanceof AbstractCompactGraph)
+            ((AbstractCompactGraph<T>) graph).readAdjacency(reader);
+        else if (graph instanceof AbstractConcurrentGraph)
+            ((AbstractConcurrentGraph<T>) graph).readAdjacency(reader);
+        else
+            reader.read(AdjacencyView.of(graph.snapshot()));
+    }
+
+    private static <T> void writeMetis(AdjacencyView<T> adjacency, Path path) throws IOException {
+        var count = new AdjacencyCount<T>(new int[adjacency.vertexIdBound()]);
+        adjacency.visitAdjacency(count);
+        int[] metisIds = count.denseIds;
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var writer = new ByteWriter(channel);
+
+            writer.put(adjacency.numberOfVertices());
+            writer.put(' ');
+            writer.put((count.numberOfAdjacencies - count.numberOfSelfLoops) / 2);
+            if (count.weighted)
+                writer.put(" 001");
+            writer.put('\n');
+
+            adjacency.visitAdjacency((vertexId, vertex, adjacentVertexIds, weights, start, end) -> {
+                boolean first = true;
+                for (int i = start; i < end; i++) {
+                    int adjacentVertexId = adjacentVertexIds[i];
+                    if (adjacentVertexId == vertexId)
+                        continue;
+
+                    if (!first)
+                        writer.put(' ');
+                    first = false;
+                    writer.put(metisIds[adjacentVertexId] + 1);
+
+                    if (count.weighted) {
+                        double weight = weights == null ? WeightedGraph.DEFAULT_WEIGHT : weights[i];
+                        if (weight != Math.rint(weight))
+                            throw new IllegalArgumentException("METIS format requires whole weights: " + weight);
+                        writer.put(' ');
+                        writer.put((long) weight);
+                    }
+                }
+                writer.put('\n');
+            });
+
+            writer.flush();
+        }
+    }
+
+    private static <T> void writeEdgeList(AdjacencyView<T> adjacency, boolean directed, Path path, boolean snapHeader) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var writer = new ByteWriter(channel);
+
+            if (snapHeader) {
+                var count = new AdjacencyCount<T>(null);
+                adjacency.visitAdjacency(count);
+
+                long numberOfEdges = count.numberOfAdjacencies;
+                if (!directed)
+                    numberOfEdges = (numberOfEdges + count.numberOfSelfLoops) / 2;
+
+                writer.put(directed ? "# Directed graph\n" : "# Undirected graph (each unordered pair of nodes is saved once)\n");
+                writer.put("# Nodes: ");
+                writer.put(adjacency.numberOfVertices());
+                writer.put(" Edges: ");
+                writer.put(numberOfEdges);
+                writer.put("\n# FromNodeId\tToNodeId\n");
+            }
+
+            adjacency.visitAdjacency((vertexId, vertex, adjacentVertexIds, weights, start, end) -> {
+                for (int i = start; i < end; i++) {
+                    int adjacentVertexId = adjacentVertexIds[i];
+                    if (!directed && adjacentVertexId < vertexId)
+                        continue;
+
+                    writer.putVertex(vertex);
+                    writer.put('\t');
+                    writer.putVertex(adjacency.vertex(adjacentVertexId));
+                    writer.put('\n');
+                }
+            });
+
+            writer.flush();
+        }
+    }
+
+    /**
+     * First pass over the adjacency for the counts which headers start with. Adjacent vertices are sorted by id,
+     * so a binary search finds the self loop of a vertex. Optionally renumbers the vertex ids densely from 0.
+     */
+    private static final class AdjacencyCount<T> implements AdjacencyView.Visitor<T> {
+
+        private final int[] denseIds;
+        private int numberOfVertices;
+        private long numberOfAdjacencies;
+        private long numberOfSelfLoops;
+        private boolean weighted;
+
+        private AdjacencyCount(int[] denseIds) {
+            this.denseIds = denseIds;
+        }
+
+        @Override
+        public void visit(int vertexId, T vertex, int[] adjacentVertexIds, double[] weights, int start, int end) {
+            if (denseIds != null)
+                denseIds[vertexId] = numberOfVertices;
+            numberOfVertices++;
+
+            numberOfAdjacencies += end - start;
+            if (Arrays.binarySearch(adjacentVertexIds, start, end, vertexId) >= 0)
+                numberOfSelfLoops++;
+            weighted |= weights != null;
+        }
+    }
+}
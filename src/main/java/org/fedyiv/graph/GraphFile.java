@@ -0,0 +1,221 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary graph file which {@link MappedGraph} maps into memory without parsing it.
+ * <p>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes followed by sections aligned to 8 bytes,
+ * all numbers big-endian:
+ * <pre>
+ *  int  magic, version, flags (1 - directed, 2 - weighted), number of vertices
+ *  long number of adjacencies
+ *  int  hash table size, reserved
+ *  long positions of the offsets, targets, weights (0 if unweighted), hash table, dictionary index and
+ *       dictionary sections, and the dictionary size
+ *
+ *  offsets          int[numberOfVertices + 1]   CSR offsets into targets
+ *  targets          int[numberOfAdjacencies]    CSR adjacent vertex ids, sorted within every vertex
+ *  weights          double[numberOfAdjacencies] weights parallel to targets
+ *  hash table       int[hashTableSize]          vertex id + 1 at the slot of the hash of its bytes, 0 if empty
+ *  dictionary index long[numberOfVertices + 1]  position of the bytes of every vertex in the dictionary
+ *  dictionary       byte[dictionarySize]        serialized vertices
+ * </pre>
+ * Every section is mapped as a single buffer, so it must be smaller than 2 GB.
+ */
+public final class GraphFile {
+
+    static final int MAGIC = 0x53474C46;
+    static final int VERSION = 1;
+    static final int DIRECTED = 1;
+    static final int WEIGHTED = 2;
+    static final int HEADER_SIZE = 88;
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Writes the {@link Graph#snapshot() snapshot} of the graph. The file is written next to the target
+     * and moved into place once complete, so readers never see a partially written file.
+     */
+    public static <T> void write(Graph<T> graph, Path path, VertexSerializer<T> serializer) throws IOException {
+        var frozenGraph = graph.snapshot();
+        var adjacency = frozenGraph.adjacency();
+        int numberOfVertices = frozenGraph.numberOfVertices();
+        int numberOfAdjacencies = adjacency.targets.length;
+
+        byte[][] serializedVertices = new byte[numberOfVertices][];
+        long dictionarySize = 0;
+        for (int vertexId = 0; vertexId < numberOfVertices; vertexId++) {
+            serializedVertices[vertexId] = serializer.serialize(frozenGraph.vertex(vertexId));
+            dictionarySize += serializedVertices[vertexId].length;
+        }
+
+        int[] hashTable = buildHashTable(serializedVertices);
+
+        long offsetsPosition = HEADER_SIZE;
+        long targetsPosition = align(offsetsPosition + section(Integer.BYTES, numberOfVertices + 1L));
+        long targetsEnd = targetsPosition + section(Integer.BYTES, numberOfAdjacencies);
+        long weightsPosition = adjacency.weights == null ? 0 : align(targetsEnd);
+        long hashTablePosition = align(adjacency.weights == null ? targetsEnd : weightsPosition + section(Double.BYTES, numberOfAdjacencies));
+        long dictionaryIndexPosition = align(hashTablePosition + section(Integer.BYTES, hashTable.length));
+        long dictionaryPosition = align(dictionaryIndexPosition + section(Long.BYTES, numberOfVertices + 1L));
+        section(1, dictionarySize);
+
+        var temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            var output = new Output(channel);
+
+            output.putInt(MAGIC);
+            output.putInt(VERSION);
+            output.putInt((frozenGraph.isDirected() ? DIRECTED : 0) | (adjacency.weights == null ? 0 : WEIGHTED));
+            output.putInt(numberOfVertices);
+            output.putLong(numberOfAdjacencies);
+            output.putInt(hashTable.length);
+            output.putInt(0);
+            output.putLong(offsetsPosition);
+            output.putLong(targetsPosition);
+            output.putLong(weightsPosition);
+            output.putLong(hashTablePosition);
+            output.putLong(dictionaryIndexPosition);
+            output.putLong(dictionaryPosition);
+            output.putLong(dictionarySize);
+
+            for (int offset : adjacency.offsets)
+                output.putInt(offset);
+
+            output.padTo(targetsPosition);
+            for (int target : adjacency.targets)
+                output.putInt(target);
+
+            if (adjacency.weights != null) {
+                output.padTo(weightsPosition);
+                for (double weight : adjacency.weights)
+                    output.putDouble(weight);
+            }
+
+            output.padTo(hashTablePosition);
+            for (int slot : hashTable)
+                output.putInt(slot);
+
+            output.padTo(dictionaryIndexPosition);
+            long dictionaryOffset = 0;
+            output.putLong(dictionaryOffset);
+            for (byte[] serializedVertex : serializedVertices)
+                output.putLong(dictionaryOffset += serializedVertex.length);
+
+            output.padTo(dictionaryPosition);
+            for (byte[] serializedVertex : serializedVertices)
+                output.put(serializedVertex);
+
+            output.flush();
+            channel.force(true);
+        }
+
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Open addressing table with linear probing, sized to a power of two at most half full.
+     */
+    private static int[] buildHashTable(byte[][] serializedVertices) {
+        int size = Integer.highestOneBit(Math.max(2 * serializedVertices.length - 1, 1)) << 1;
+        int[] hashTable = new int[size];
+
+        for (int vertexId = 0; vertexId < serializedVertices.length; vertexId++) {
+            int slot = hash(serializedVertices[vertexId]) & (size - 1);
+            while (hashTable[slot] != 0)
+                slot = (slot + 1) & (size - 1);
+            hashTable[slot] = vertexId + 1;
+        }
+
+        return hashTable;
+    }
+
+    /**
+     * FNV-1a hash of the serialized vertex. It is stored in files, so it must never change.
+     */
+    static int hash(byte[] bytes) {
+        int hash = 0x811C9DC5;
+        for (byte b : bytes)
+            hash = (hash ^ (b & 0xFF)) * 0x01000193;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long section(int elementSize, long numberOfElements) {
+        long size = elementSize * numberOfElements;
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Graph is too large for a single mapped section: " + size + " bytes");
+        return size;
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        private long position;
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+            position += Integer.BYTES;
+        }
+
+        private void putLong(long value) throws IOException {
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(value);
+            position += Long.BYTES;
+        }
+
+        private void putDouble(double value) throws IOException {
+            ensureRemaining(Double.BYTES);
+            buffer.putDouble(value);
+            position += Double.BYTES;
+        }
+
+        private void put(byte[] bytes) throws IOException {
+            for (int offset = 0; offset < bytes.length; ) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+                position += length;
+            }
+        }
+
+        private void padTo(long sectionPosition) throws IOException {
+            while (position < sectionPosition) {
+                ensureRemaining(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        private void ensureRemaining(int size) throws IOException {
+            if (buffer.remaining() < size)
+                flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
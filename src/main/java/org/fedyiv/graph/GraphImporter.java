@@ -0,0 +1,172 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads graphs with integer vertices from text files. The files are read through a channel into one reusable
+ * buffer and numbers are parsed straight from the bytes, and edges reach the graph in batches through
+ * {@link Graph#addEdges(Iterable)}, so the parsing cost is small next to building the graph.
+ * <p>
+ * Both readers add to the given graph, which can be of any implementation. See {@link GraphExporter} for the
+ * formats.
+ */
+public final class GraphImporter {
+
+    static final int BATCH_SIZE = 1 << 16;
+
+    private GraphImporter() {
+    }
+
+    /**
+     * Reads an edge list: one edge per line as two non-negative vertex ids separated by tabs or spaces, like the
+     * SNAP datasets. Further columns are ignored, as are empty lines and comment lines starting with {@code #}
+     * or {@code %}.
+     *
+     * @return the number of edges read
+     */
+    public static long readEdgeList(Path path, Graph<Integer> graph) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var reader = new ByteReader(channel);
+            var batch = new EdgeBatch(graph);
+
+            for (int b = skipComments(reader); b != ByteReader.EOF; b = skipComments(reader)) {
+                int source = reader.readInt();
+                reader.skipBlanks();
+                int target = reader.readInt();
+                batch.add(source, target);
+                reader.skipLine();
+            }
+
+            batch.flush();
+            return batch.numberOfEdges;
+        }
+    }
+
+    /**
+     * Reads a graph in METIS format: a header line with the number of vertices, the number of edges and an optional
+     * format code, then one line per vertex listing its adjacent vertices. Vertices are numbered from 1 as in the file.
+     * Vertex sizes and weights are skipped. Edge weights are used with {@link WeightedGraph#addEdge(Object, Object, double)}
+     * when the graph is a {@link WeightedGraph} and ignored otherwise. Lines starting with {@code %} are comments.
+     * <p>
+     * METIS lists every edge at both of its vertices, so a directed graph gets edges in both directions.
+     *
+     * @return the number of vertices read
+     */
+    public static int readMetis(Path path, Graph<Integer> graph) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var reader = new ByteReader(channel);
+
+            if (skipComments(reader) == ByteReader.EOF)
+                throw reader.malformed("METIS header expected");
+
+            int numberOfVertices = reader.readInt();
+            reader.skipBlanks();
+            reader.readLong();
+            reader.skipBlanks();
+            int format = reader.isAtNumber() ? reader.readInt() : 0;
+            reader.skipBlanks();
+            int numberOfConstraints = reader.isAtNumber() ? reader.readInt() : 1;
+            reader.skipLine();
+
+            boolean hasVertexSizes = format / 100 % 10 == 1;
+            boolean hasVertexWeights = format / 10 % 10 == 1;
+            boolean hasEdgeWeights = format % 10 == 1;
+            var weightedGraph = hasEdgeWeights && graph instanceof WeightedGraph ? (WeightedGraph<Integer>) graph : null;
+            var batch = new EdgeBatch(graph);
+
+            for (int vertex = 1; vertex <= numberOfVertices; vertex++) {
+                if (skipComments(reader, true) == ByteReader.EOF)
+                    throw reader.malformed("Adjacency of vertex " + vertex + " expected");
+
+                if (hasVertexSizes)
+                    skipNumbers(reader, 1);
+                if (hasVertexWeights)
+                    skipNumbers(reader, numberOfConstraints);
+
+                boolean isolated = true;
+                for (reader.skipBlanks(); reader.isAtNumber(); reader.skipBlanks()) {
+                    int adjacentVertex = reader.readInt();
+                    if (adjacentVertex < 1 || adjacentVertex > numberOfVertices)
+                        throw reader.malformed("Vertex out of range " + adjacentVertex);
+                    isolated = false;
+
+                    if (hasEdgeWeights) {
+                        reader.skipBlanks();
+                        long weight = reader.readLong();
+                        if (weightedGraph != null) {
+                            weightedGraph.addEdge(vertex, adjacentVertex, weight);
+                            continue;
+                        }
+                    }
+                    batch.add(vertex, adjacentVertex);
+                }
+
+                if (isolated)
+                    graph.addVertex(vertex);
+                reader.skipLine();
+            }
+
+            batch.flush();
+            return numberOfVertices;
+        }
+    }
+
+    /**
+     * Skips blanks, empty lines and comment lines and returns the first byte of the next line with content.
+     */
+    private static int skipComments(ByteReader reader) throws IOException {
+        return skipComments(reader, false);
+    }
+
+    /**
+     * Like {@link #skipComments(ByteReader)}, but empty lines are content when {@code keepEmptyLines} is set,
+     * in which case the line feed of an empty line is returned.
+     */
+    private static int skipComments(ByteReader reader, boolean keepEmptyLines) throws IOException {
+        while (true) {
+            reader.skipBlanks();
+            int b = reader.peek();
+            if (b == '#' || b == '%' || (b == '\n' && !keepEmptyLines))
+                reader.skipLine();
+            else
+                return b;
+        }
+    }
+
+    private static void skipNumbers(ByteReader reader, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            reader.skipBlanks();
+            reader.readLong();
+        }
+    }
+
+    private static class EdgeBatch {
+        private final Graph<Integer> graph;
+        private final List<Map.Entry<Integer, Integer>> edges = new ArrayList<>(BATCH_SIZE);
+        private long numberOfEdges;
+
+        private EdgeBatch(Graph<Integer> graph) {
+            this.graph = graph;
+        }
+
+        private void add(int source, int target) {
+            edges.add(Map.entry(source, target));
+            numberOfEdges++;
+            if (edges.size() == BATCH_SIZE)
+                flush();
+        }
+
+        private void flush() {
+            if (!edges.isEmpty()) {
+                graph.addEdges(edges);
+                edges.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.fedyiv.graph;
+
+/**
+ * Read access to adjacency stored in primitive arrays. Vertices are dense ids in
+ * {@code [0, numberOfVertices())} and the vertices adjacent to {@code vertex} are
+ * {@code adjacentVertices(vertex)[adjacencyStart(vertex) .. adjacencyEnd(vertex))}.
+ * Weights of those edges are at the same indexes of {@code adjacentWeights(vertex)}.
+ */
+interface IntAdjacency {
+
+    int numberOfVertices();
+
+    int[] adjacentVertices(int vertex);
+
+    int adjacencyStart(int vertex);
+
+    int adjacencyEnd(int vertex);
+
+    /**
+     * Returns null if all edges of the vertex weigh {@link WeightedGraph#DEFAULT_WEIGHT}.
+     */
+    double[] adjacentWeights(int vertex);
+}
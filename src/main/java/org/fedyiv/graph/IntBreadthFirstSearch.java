@@ -0,0 +1,98 @@
+package org.fedyiv.graph;
+
+/**
+ * Breadth-first search over {@link IntAdjacency} which keeps a single predecessor per vertex
+ * and never boxes vertex ids.
+ */
+final class IntBreadthFirstSearch {
+
+    private IntBreadthFirstSearch() {
+    }
+
+    /**
+     * Returns ids of the vertices on the shortest path from source to target, or null if there is no path.
+     * Uses the traversal context of the calling thread.
+     */
+    static int[] findPath(IntAdjacency adjacency, int source, int target) {
+        return findPath(adjacency, source, target, TraversalContext.forCurrentThread());
+    }
+
+    /**
+     * Returns ids of the vertices on the shortest path from source to target, or null if there is no path.
+     * Allocates nothing but the path once the buffers of the context have grown to the size of the graph.
+     */
+    static int[] findPath(IntAdjacency adjacency, int source, int target, TraversalContext context) {
+        if (source == target)
+            return new int[]{source};
+
+        context.reset(adjacency.numberOfVertices());
+        int[] predecessors = context.predecessors();
+        int[] verticesToVisit = context.queue();
+        int head = 0;
+        int tail = 0;
+
+        context.visit(source);
+        predecessors[source] = source;
+        verticesToVisit[tail++] = source;
+
+        while (head < tail) {
+            int currentVertex = verticesToVisit[head++];
+            int[] adjacentVertices = adjacency.adjacentVertices(currentVertex);
+
+            for (int i = adjacency.adjacencyStart(currentVertex), end = adjacency.adjacencyEnd(currentVertex); i < end; i++) {
+                int adjacentVertex = adjacentVertices[i];
+                if (!context.visit(adjacentVertex))
+                    continue;
+
+                predecessors[adjacentVertex] = currentVertex;
+
+                if (adjacentVertex == target)
+                    return buildPath(predecessors, source, target);
+
+                verticesToVisit[tail++] = adjacentVertex;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Visits the vertices at most {@code maxDepth} edges away from the start in breadth-first order and leaves
+     * them at the beginning of the queue of the context. Returns their number.
+     */
+    static int neighborhood(IntAdjacency adjacency, int start, int maxDepth, TraversalContext context) {
+        context.reset(adjacency.numberOfVertices());
+        int[] verticesToVisit = context.queue();
+        int head = 0;
+        int tail = 0;
+
+        context.visit(start);
+        verticesToVisit[tail++] = start;
+
+        for (int depth = 0; depth < maxDepth && head < tail; depth++) {
+            for (int levelEnd = tail; head < levelEnd; head++) {
+                int currentVertex = verticesToVisit[head];
+                int[] adjacentVertices = adjacency.adjacentVertices(currentVertex);
+
+                for (int i = adjacency.adjacencyStart(currentVertex), end = adjacency.adjacencyEnd(currentVertex); i < end; i++) {
+                    if (context.visit(adjacentVertices[i]))
+                        verticesToVisit[tail++] = adjacentVertices[i];
+                }
+            }
+        }
+
+        return tail;
+    }
+
+    private static int[] buildPath(int[] predecessors, int source, int target) {
+        int length = 1;
+        for (int vertex = target; vertex != source; vertex = predecessors[vertex])
+            length++;
+
+        int[] path = new int[length];
+        for (int vertex = target, i = length - 1; i >= 0; vertex = predecessors[vertex], i--)
+            path[i] = vertex;
+
+        return path;
+    }
+}
@@ -0,0 +1,61 @@
+package org.fedyiv.graph;
+
+/**
+ * Set of non-negative ints with open addressing and linear probing. Its size depends on the number
+ * of added ints only, not on their range.
+ */
+final class IntHashSet {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Slots hold {@code value + 1}, 0 marks an empty slot.
+     */
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Returns false if the value was already in the set.
+     */
+    boolean add(int value) {
+        if (2 * (size + 1) > slots.length)
+            rehash(2 * slots.length);
+
+        if (!insert(slots, value + 1))
+            return false;
+
+        size++;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean insert(int[] slots, int key) {
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        while (slots[slot] != 0) {
+            if (slots[slot] == key)
+                return false;
+            slot = (slot + 1) & mask;
+        }
+
+        slots[slot] = key;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        int[] rehashed = new int[capacity];
+        for (int key : slots) {
+            if (key != 0)
+                insert(rehashed, key);
+        }
+        slots = rehashed;
+    }
+
+    private static int hash(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
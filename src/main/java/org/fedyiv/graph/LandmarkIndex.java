@@ -0,0 +1,175 @@
+package org.fedyiv.graph;
+
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Query acceleration index for a {@link FrozenGraph} based on landmarks (ALT): distances between a few
+ * landmark vertices and every other vertex are precomputed, and the triangle inequality turns them into
+ * lower bounds on the remaining distance which guide an A* search towards the target.
+ * <p>
+ * Landmarks are picked one by one as the vertex farthest from the landmarks picked so far, so they end up
+ * on the periphery of the graph. Edges without weights weigh {@link WeightedGraph#DEFAULT_WEIGHT}, so for
+ * unweighted graphs the index answers the same shortest paths as breadth-first search.
+ * <p>
+ * The index is immutable and can be shared between threads.
+ */
+public final class LandmarkIndex<T> {
+
+    public static final int DEFAULT_NUMBER_OF_LANDMARKS = 8;
+
+    private final FrozenGraph<T> graph;
+    private final int numberOfLandmarks;
+
+    /**
+     * Distance from landmark {@code i} to vertex {@code v} at {@code v * numberOfLandmarks + i}.
+     */
+    private final double[] distancesFromLandmarks;
+
+    /**
+     * Distance from vertex {@code v} to landmark {@code i} at {@code v * numberOfLandmarks + i}.
+     * The same array as {@link #distancesFromLandmarks} for undirected graphs.
+     */
+    private final double[] distancesToLandmarks;
+
+    private LandmarkIndex(FrozenGraph<T> graph, int numberOfLandmarks) {
+        this.graph = graph;
+        this.numberOfLandmarks = numberOfLandmarks;
+
+        long size = (long) graph.numberOfVertices() * numberOfLandmarks;
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Too many landmarks for " + graph.numberOfVertices() + " vertices: " + numberOfLandmarks);
+
+        distancesFromLandmarks = new double[(int) size];
+        distancesToLandmarks = graph.isDirected() ? new double[(int) size] : distancesFromLandmarks;
+    }
+
+    public static <T> LandmarkIndex<T> build(FrozenGraph<T> graph) {
+        return build(graph, DEFAULT_NUMBER_OF_LANDMARKS);
+    }
+
+    /**
+     * Picks up to {@code numberOfLandmarks} landmarks and runs a full single-source search from every landmark,
+     * plus one along incoming edges for directed graphs.
+     */
+    public static <T> LandmarkIndex<T> build(FrozenGraph<T> graph, int numberOfLandmarks) {
+        if (numberOfLandmarks < 1)
+            throw new IllegalArgumentException("Number of landmarks must be positive: " + numberOfLandmarks);
+
+        int numberOfVertices = graph.numberOfVertices();
+        var index = new LandmarkIndex<>(graph, Math.min(numberOfLandmarks, Math.max(numberOfVertices, 1)));
+        if (numberOfVertices == 0)
+            return index;
+
+        // distance from the closest landmark picked so far, the next landmark is the farthest vertex
+        double[] closestLandmarkDistances = ShortestPathSearch.findDistances(graph.adjacency(), 0);
+
+        for (int landmark = 0; landmark < index.numberOfLandmarks; landmark++) {
+            int landmarkVertex = farthestVertex(closestLandmarkDistances);
+
+            var distances = ShortestPathSearch.findDistances(graph.adjacency(), landmarkVertex);
+            index.store(index.distancesFromLandmarks, landmark, distances);
+            if (graph.isDirected())
+                index.store(index.distancesToLandmarks, landmark, ShortestPathSearch.findDistances(graph.incomingAdjacency(), landmarkVertex));
+
+            if (landmark == 0)
+                closestLandmarkDistances = distances;
+            else
+                for (int vertex = 0; vertex < numberOfVertices; vertex++)
+                    closestLandmarkDistances[vertex] = Math.min(closestLandmarkDistances[vertex], distances[vertex]);
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the vertex with the largest distance, preferring unreachable vertices, so that landmarks
+     * are spread over all components.
+     */
+    private static int farthestVertex(double[] distances) {
+        int farthestVertex = 0;
+        for (int vertex = 1; vertex < distances.length; vertex++) {
+            if (distances[vertex] > distances[farthestVertex])
+                farthestVertex = vertex;
+        }
+
+        return farthestVertex;
+    }
+
+    private void store(double[] landmarkDistances, int landmark, double[] distances) {
+        for (int vertex = 0; vertex < distances.length; vertex++)
+            landmarkDistances[vertex * numberOfLandmarks + landmark] = distances[vertex];
+    }
+
+    public FrozenGraph<T> getGraph() {
+        return graph;
+    }
+
+    public int getNumberOfLandmarks() {
+        return numberOfLandmarks;
+    }
+
+    /**
+     * Returns the path with the smallest total weight, or null if there is no path.
+     */
+    public List<T> getPath(T vertex1, T vertex2) {
+        int vertexId1 = graph.vertexId(vertex1);
+        int vertexId2 = graph.vertexId(vertex2);
+
+        if (vertexId1 < 0 || vertexId2 < 0)
+            throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+        var heuristic = heuristic(vertexId2);
+        if (heuristic.applyAsDouble(vertexId1) == Double.POSITIVE_INFINITY)
+            return null;
+
+        return graph.toVertices(ShortestPathSearch.findPath(graph.adjacency(), vertexId1, vertexId2, heuristic));
+    }
+
+    /**
+     * Returns the smallest total weight of a path, or {@link Double#POSITIVE_INFINITY} if there is no path.
+     */
+    public double getDistance(T vertex1, T vertex2) {
+        int vertexId1 = graph.vertexId(vertex1);
+        int vertexId2 = graph.vertexId(vertex2);
+
+        if (vertexId1 < 0 || vertexId2 < 0)
+            throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+        var heuristic = heuristic(vertexId2);
+        if (heuristic.applyAsDouble(vertexId1) == Double.POSITIVE_INFINITY)
+            return Double.POSITIVE_INFINITY;
+
+        return ShortestPathSearch.findDistance(graph.adjacency(), vertexId1, vertexId2, heuristic);
+    }
+
+    /**
+     * Lower bound of the distance from a vertex to the target: for every landmark {@code L}
+     * {@code d(v, t) >= d(L, t) - d(L, v)} and {@code d(v, t) >= d(v, L) - d(t, L)}.
+     * The bound is infinite when a landmark proves that the target can not be reached.
+     */
+    private IntToDoubleFunction heuristic(int target) {
+        int targetOffset = target * numberOfLandmarks;
+        double[] fromLandmarksToTarget = new double[numberOfLandmarks];
+        double[] fromTargetToLandmarks = new double[numberOfLandmarks];
+        System.arraycopy(distancesFromLandmarks, targetOffset, fromLandmarksToTarget, 0, numberOfLandmarks);
+        System.arraycopy(distancesToLandmarks, targetOffset, fromTargetToLandmarks, 0, numberOfLandmarks);
+
+        return vertex -> {
+            int offset = vertex * numberOfLandmarks;
+            double bound = 0;
+
+            for (int landmark = 0; landmark < numberOfLandmarks; landmark++) {
+                double fromLandmark = distancesFromLandmarks[offset + landmark];
+                if (fromLandmark != Double.POSITIVE_INFINITY)
+                    bound = Math.max(bound, fromLandmarksToTarget[landmark] - fromLandmark);
+
+                double toTarget = fromTargetToLandmarks[landmark];
+                if (toTarget != Double.POSITIVE_INFINITY)
+                    bound = Math.max(bound, distancesToLandmarks[offset + landmark] - toTarget);
+            }
+
+            return bound;
+        };
+    }
+}
@@ -0,0 +1,279 @@
+package org.fedyiv.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Read-only graph backed by a memory mapped {@link GraphFile}. Opening a file reads only its header;
+ * adjacency, vertex lookups and vertex values are served straight from the mapped sections, so the graph
+ * is queryable at once and JVMs mapping the same file share its pages in the page cache.
+ * <p>
+ * Vertices are looked up by hashing their serialized bytes. All queries are lock free and the graph can be
+ * safely shared between threads.
+ */
+public final class MappedGraph<T> implements Graph<T> {
+
+    private final VertexSerializer<T> serializer;
+    private final boolean directed;
+    private final int numberOfVertices;
+
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer weights;
+    private final IntBuffer hashTable;
+    private final LongBuffer dictionaryIndex;
+    private final ByteBuffer dictionary;
+
+    private volatile FrozenGraph<T> snapshot;
+
+    private MappedGraph(VertexSerializer<T> serializer, boolean directed, int numberOfVertices, IntBuffer offsets, IntBuffer targets,
+                        DoubleBuffer weights, IntBuffer hashTable, LongBuffer dictionaryIndex, ByteBuffer dictionary) {
+        this.serializer = serializer;
+        this.directed = directed;
+        this.numberOfVertices = numberOfVertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.hashTable = hashTable;
+        this.dictionaryIndex = dictionaryIndex;
+        this.dictionary = dictionary;
+    }
+
+    public static <T> MappedGraph<T> open(Path path, VertexSerializer<T> serializer) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(GraphFile.HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+
+            if (header.remaining() < GraphFile.HEADER_SIZE || header.getInt() != GraphFile.MAGIC)
+                throw new IOException("Not a graph file: " + path);
+
+            int version = header.getInt();
+            if (version != GraphFile.VERSION)
+                throw new IOException("Unsupported graph file version " + version + ": " + path);
+
+            int flags = header.getInt();
+            int numberOfVertices = header.getInt();
+            long numberOfAdjacencies = header.getLong();
+            int hashTableSize = header.getInt();
+            header.getInt();
+            long offsetsPosition = header.getLong();
+            long targetsPosition = header.getLong();
+            long weightsPosition = header.getLong();
+            long hashTablePosition = header.getLong();
+            long dictionaryIndexPosition = header.getLong();
+            long dictionaryPosition = header.getLong();
+            long dictionarySize = header.getLong();
+
+            return new MappedGraph<>(serializer, (flags & GraphFile.DIRECTED) != 0, numberOfVertices,
+                    map(channel, offsetsPosition, (numberOfVertices + 1L) * Integer.BYTES).asIntBuffer(),
+                    map(channel, targetsPosition, numberOfAdjacencies * Integer.BYTES).asIntBuffer(),
+                    (flags & GraphFile.WEIGHTED) == 0 ? null : map(channel, weightsPosition, numberOfAdjacencies * Double.BYTES).asDoubleBuffer(),
+                    map(channel, hashTablePosition, (long) hashTableSize * Integer.BYTES).asIntBuffer(),
+                    map(channel, dictionaryIndexPosition, (numberOfVertices + 1L) * Long.BYTES).asLongBuffer(),
+                    map(channel, dictionaryPosition, dictionarySize));
+        }
+    }
+
+    /**
+     * The mapping stays valid after the channel is closed.
+     */
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    @Override
+    public void addVertex(T vertex) {
+        throw new UnsupportedOperationException("Mapped graph can not be modified");
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2) {
+        throw new UnsupportedOperationException("Mapped graph can not be modified");
+    }
+
+    @Override
+    public void traverse(Function<T, T> func) {
+        throw new UnsupportedOperationException("Mapped graph can not be modified");
+    }
+
+    @Override
+    public boolean removeVertex(T vertex) {
+        throw new UnsupportedOperationException("Mapped graph can not be modified");
+    }
+
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+        throw new UnsupportedOperationException("Mapped graph can not be modified");
+    }
+
+    /**
+     * Uses Breadth-first search algorithm to find the shortest path between two vertexes
+     */
+    @Override
+    public List<T> getPath(T vertex1, T vertex2) {
+        return getPath(vertex1, vertex2, TraversalContext.forCurrentThread());
+    }
+
+    /**
+     * Like {@link #getPath(Object, Object)}, with the scratch buffers of the given context. Only the vertices
+     * of the returned path are deserialized.
+     */
+    public List<T> getPath(T vertex1, T vertex2, TraversalContext context) {
+        int vertexId1 = vertexId(vertex1);
+        int vertexId2 = vertexId(vertex2);
+
+        if (vertexId1 < 0 || vertexId2 < 0)
+            throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+        context.reset(numberOfVertices);
+        int[] predecessors = context.predecessors();
+        int[] queue = context.queue();
+        int queueStart = 0;
+        int queueEnd = 0;
+
+        context.visit(vertexId1);
+        predecessors[vertexId1] = vertexId1;
+        queue[queueEnd++] = vertexId1;
+
+        while (queueStart < queueEnd && !context.isVisited(vertexId2)) {
+            int vertexId = queue[queueStart++];
+
+            for (int i = offsets.get(vertexId), end = offsets.get(vertexId + 1); i < end; i++) {
+                int adjacentVertexId = targets.get(i);
+                if (!context.visit(adjacentVertexId))
+                    continue;
+
+                predecessors[adjacentVertexId] = vertexId;
+                queue[queueEnd++] = adjacentVertexId;
+            }
+        }
+
+        if (!context.isVisited(vertexId2))
+            return null;
+
+        List<T> path = new ArrayList<>();
+        for (int vertexId = vertexId2; ; vertexId = predecessors[vertexId]) {
+            path.add(vertex(vertexId));
+            if (vertexId == vertexId1)
+                break;
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+
+    @Override
+    public boolean containsVertex(T vertex) {
+        return vertexId(vertex) >= 0;
+    }
+
+    @Override
+    public boolean containsEdge(T vertex1, T vertex2) {
+        int vertexId1 = vertexId(vertex1);
+        int vertexId2 = vertexId(vertex2);
+        if (vertexId1 < 0 || vertexId2 < 0)
+            return false;
+
+        int low = offsets.get(vertexId1);
+        int high = offsets.get(vertexId1 + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleVertexId = targets.get(middle);
+
+            if (middleVertexId < vertexId2)
+                low = middle + 1;
+            else if (middleVertexId > vertexId2)
+                high = middle - 1;
+            else
+                return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return numberOfVertices;
+    }
+
+    @Override
+    public int numberOfOutgoingEdgesFromVertex(T vertex) {
+        int vertexId = vertexId(vertex);
+        if (vertexId < 0)
+            throw new IllegalArgumentException("No vertex " + vertex);
+
+        return offsets.get(vertexId + 1) - offsets.get(vertexId);
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Copies the mapped graph onto the heap, deserializing all vertices. The copy is made on first use.
+     */
+    @Override
+    public FrozenGraph<T> snapshot() {
+        var frozenGraph = snapshot;
+        if (frozenGraph != null)
+            return frozenGraph;
+
+        int[] offsetsCopy = new int[offsets.limit()];
+        int[] targetsCopy = new int[targets.limit()];
+        offsets.get(0, offsetsCopy);
+        targets.get(0, targetsCopy);
+
+        double[] weightsCopy = null;
+        if (weights != null) {
+            weightsCopy = new double[weights.limit()];
+            weights.get(0, weightsCopy);
+        }
+
+        Map<T, Integer> vertexIds = new HashMap<>(numberOfVertices * 4 / 3 + 1);
+        Object[] values = new Object[numberOfVertices];
+        for (int vertexId = 0; vertexId < numberOfVertices; vertexId++) {
+            var vertex = vertex(vertexId);
+            values[vertexId] = vertex;
+            vertexIds.put(vertex, vertexId);
+        }
+
+        snapshot = frozenGraph = new FrozenGraph<>(vertexIds, values, offsetsCopy, targetsCopy, weightsCopy, directed);
+        return frozenGraph;
+    }
+
+    private int vertexId(T vertex) {
+        byte[] bytes = serializer.serialize(vertex);
+        var serializedVertex = ByteBuffer.wrap(bytes);
+        int mask = hashTable.limit() - 1;
+
+        for (int slot = GraphFile.hash(bytes) & mask; ; slot = (slot + 1) & mask) {
+            int entry = hashTable.get(slot);
+            if (entry == 0)
+                return -1;
+            if (serializedVertex(entry - 1).equals(serializedVertex))
+                return entry - 1;
+        }
+    }
+
+    private T vertex(int vertexId) {
+        return serializer.deserialize(serializedVertex(vertexId));
+    }
+
+    private ByteBuffer serializedVertex(int vertexId) {
+        int start = (int) dictionaryIndex.get(vertexId);
+        int end = (int) dictionaryIndex.get(vertexId + 1);
+        return dictionary.slice(start, end - start);
+    }
+}
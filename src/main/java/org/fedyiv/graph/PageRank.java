@@ -0,0 +1,80 @@
+package org.fedyiv.graph;
+
+/**
+ * PageRank as a {@link VertexProgram}. Vertices without outgoing edges spread their rank evenly over all
+ * vertices, so ranks always sum up to 1. The program halts once the ranks of a superstep differ from
+ * the previous ones by less than the tolerance in total, or after the maximal number of iterations.
+ */
+public final class PageRank implements VertexProgram {
+
+    public static final double DEFAULT_DAMPING_FACTOR = 0.85;
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    private static final int DANGLING_RANK = 0;
+    private static final int RANK_CHANGE = 1;
+
+    private final double dampingFactor;
+    private final double tolerance;
+    private final int maxIterations;
+
+    public PageRank() {
+        this(DEFAULT_DAMPING_FACTOR, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    public PageRank(double dampingFactor, double tolerance, int maxIterations) {
+        if (!(dampingFactor >= 0 && dampingFactor <= 1))
+            throw new IllegalArgumentException("Damping factor must be between 0 and 1: " + dampingFactor);
+
+        this.dampingFactor = dampingFactor;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public double initialValue(int vertexId, int numberOfVertices) {
+        return 1.0 / numberOfVertices;
+    }
+
+    @Override
+    public void compute(VertexContext context) {
+        int superstep = context.getSuperstep();
+
+        if (superstep > 0) {
+            if (superstep > maxIterations || (superstep > 1 && context.getAggregatedValue(RANK_CHANGE) < tolerance)) {
+                context.voteToHalt();
+                return;
+            }
+
+            double numberOfVertices = context.getNumberOfVertices();
+            double danglingRank = context.getAggregatedValue(DANGLING_RANK);
+            double receivedRank = (context.hasMessage() ? context.getMessage() : 0)
+                    + (Double.isNaN(danglingRank) ? 0 : danglingRank / numberOfVertices);
+            double rank = (1 - dampingFactor) / numberOfVertices + dampingFactor * receivedRank;
+
+            context.aggregate(RANK_CHANGE, Math.abs(rank - context.getValue()));
+            context.setValue(rank);
+        }
+
+        int numberOfOutgoingEdges = context.getNumberOfOutgoingEdges();
+        if (numberOfOutgoingEdges == 0)
+            context.aggregate(DANGLING_RANK, context.getValue());
+        else
+            context.sendToNeighbors(context.getValue() / numberOfOutgoingEdges);
+    }
+
+    @Override
+    public double combineMessages(double message1, double message2) {
+        return message1 + message2;
+    }
+
+    @Override
+    public int numberOfAggregators() {
+        return 2;
+    }
+
+    @Override
+    public double combineAggregates(int aggregator, double value1, double value2) {
+        return value1 + value2;
+    }
+}
@@ -0,0 +1,208 @@
+package org.fedyiv.graph;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level-synchronous, direction-optimizing breadth-first search (Beamer et al.) over {@link CsrAdjacency}.
+ * <p>
+ * Every level is expanded by fork-join tasks. While the frontier is small, a level is expanded top-down:
+ * tasks scan the edges leaving the frontier. Once the frontier has more edges than a fraction of the
+ * unexplored part of the graph, levels are expanded bottom-up: tasks scan unvisited vertices and look
+ * for a parent in the frontier along incoming edges, stopping at the first one found.
+ * Visited vertices are marked in an atomic bitset.
+ */
+final class ParallelBreadthFirstSearch {
+
+    static final int DEFAULT_SERIAL_SEARCH_THRESHOLD = 100_000;
+
+    /**
+     * Switch to bottom-up once the frontier has more than 1/ALPHA of the unexplored edges.
+     */
+    private static final int ALPHA = 14;
+
+    /**
+     * Switch back to top-down once the frontier has less than 1/BETA of all vertices.
+     */
+    private static final int BETA = 24;
+
+    private final ForkJoinPool pool;
+    private final CsrAdjacency adjacency;
+    private final CsrAdjacency incomingAdjacency;
+    private final int numberOfVertices;
+
+    private final AtomicLongArray visited;
+    private final int[] parents;
+
+    private static class Level {
+        private final int[] vertices;
+        private final int size;
+        private final long numberOfAdjacencies;
+
+        private Level(int[] vertices, int size, long numberOfAdjacencies) {
+            this.vertices = vertices;
+            this.size = size;
+            this.numberOfAdjacencies = numberOfAdjacencies;
+        }
+    }
+
+    private ParallelBreadthFirstSearch(ForkJoinPool pool, CsrAdjacency adjacency, CsrAdjacency incomingAdjacency) {
+        this.pool = pool;
+        this.adjacency = adjacency;
+        this.incomingAdjacency = incomingAdjacency;
+        this.numberOfVertices = adjacency.numberOfVertices();
+        this.visited = new AtomicLongArray((numberOfVertices + 63) >>> 6);
+        this.parents = new int[numberOfVertices];
+    }
+
+    /**
+     * Returns ids of the vertices on the shortest path from source to target, or null if there is no path.
+     * Graphs with fewer than {@code serialSearchThreshold} vertices are searched by a single thread.
+     */
+    static int[] findPath(FrozenGraph<?> graph, int source, int target, ForkJoinPool pool, int serialSearchThreshold) {
+        if (source == target || graph.numberOfVertices() < serialSearchThreshold)
+            return IntBreadthFirstSearch.findPath(graph.adjacency(), source, target);
+
+        return new ParallelBreadthFirstSearch(pool, graph.adjacency(), graph.incomingAdjacency()).findPath(source, target);
+    }
+
+    private int[] findPath(int source, int target) {
+        tryVisit(source);
+        parents[source] = source;
+
+        var frontier = new Level(new int[]{source}, 1, adjacency.degree(source));
+        long unexploredAdjacencies = adjacency.numberOfAdjacencies() - frontier.numberOfAdjacencies;
+        boolean bottomUp = false;
+
+        while (frontier.size > 0 && !isVisited(target)) {
+            if (!bottomUp && frontier.numberOfAdjacencies > unexploredAdjacencies / ALPHA)
+                bottomUp = true;
+            else if (bottomUp && frontier.size < numberOfVertices / BETA)
+                bottomUp = false;
+
+            frontier = bottomUp ? expandBottomUp(frontier) : expandTopDown(frontier);
+            unexploredAdjacencies -= frontier.numberOfAdjacencies;
+        }
+
+        if (!isVisited(target))
+            return null;
+
+        int length = 1;
+        for (int vertex = target; vertex != source; vertex = parents[vertex])
+            length++;
+
+        int[] path = new int[length];
+        for (int vertex = target, i = length - 1; i >= 0; vertex = parents[vertex], i--)
+            path[i] = vertex;
+
+        return path;
+    }
+
+    private Level expandTopDown(Level frontier) {
+        Queue<Level> discoveredChunks = new ConcurrentLinkedQueue<>();
+
+        ForkJoinRanges.forEach(pool, 0, frontier.size, Math.max(64, frontier.size / (pool.getParallelism() * 8)), (from, to) -> {
+            int[] discovered = new int[Math.max(16, to - from)];
+            int size = 0;
+            long numberOfAdjacencies = 0;
+
+            for (int i = from; i < to; i++) {
+                int vertex = frontier.vertices[i];
+
+                for (int j = adjacency.offsets[vertex], end = adjacency.offsets[vertex + 1]; j < end; j++) {
+                    int adjacentVertex = adjacency.targets[j];
+                    if (!tryVisit(adjacentVertex))
+                        continue;
+
+                    parents[adjacentVertex] = vertex;
+                    if (size == discovered.length)
+                        discovered = Arrays.copyOf(discovered, size * 2);
+                    discovered[size++] = adjacentVertex;
+                    numberOfAdjacencies += adjacency.degree(adjacentVertex);
+                }
+            }
+
+            discoveredChunks.add(new Level(discovered, size, numberOfAdjacencies));
+        });
+
+        return concatenate(discoveredChunks);
+    }
+
+    private Level expandBottomUp(Level frontier) {
+        long[] inFrontier = new long[visited.length()];
+        for (int i = 0; i < frontier.size; i++)
+            inFrontier[frontier.vertices[i] >>> 6] |= 1L << frontier.vertices[i];
+
+        Queue<Level> discoveredChunks = new ConcurrentLinkedQueue<>();
+
+        ForkJoinRanges.forEach(pool, 0, numberOfVertices, ForkJoinRanges.grain(pool, numberOfVertices), (from, to) -> {
+            int[] discovered = new int[16];
+            int size = 0;
+            long numberOfAdjacencies = 0;
+
+            for (int vertex = from; vertex < to; vertex++) {
+                if (isVisited(vertex))
+                    continue;
+
+                for (int j = incomingAdjacency.offsets[vertex], end = incomingAdjacency.offsets[vertex + 1]; j < end; j++) {
+                    int parent = incomingAdjacency.targets[j];
+                    if ((inFrontier[parent >>> 6] & (1L << parent)) == 0)
+                        continue;
+
+                    tryVisit(vertex);
+                    parents[vertex] = parent;
+                    if (size == discovered.length)
+                        discovered = Arrays.copyOf(discovered, size * 2);
+                    discovered[size++] = vertex;
+                    numberOfAdjacencies += adjacency.degree(vertex);
+                    break;
+                }
+            }
+
+            discoveredChunks.add(new Level(discovered, size, numberOfAdjacencies));
+        });
+
+        return concatenate(discoveredChunks);
+    }
+
+    private static Level concatenate(Queue<Level> chunks) {
+        int size = 0;
+        long numberOfAdjacencies = 0;
+        for (Level chunk : chunks) {
+            size += chunk.size;
+            numberOfAdjacencies += chunk.numberOfAdjacencies;
+        }
+
+        int[] vertices = new int[size];
+        int offset = 0;
+        for (Level chunk : chunks) {
+            System.arraycopy(chunk.vertices, 0, vertices, offset, chunk.size);
+            offset += chunk.size;
+        }
+
+        return new Level(vertices, size, numberOfAdjacencies);
+    }
+
+    private boolean isVisited(int vertex) {
+        return (visited.get(vertex >>> 6) & (1L << vertex)) != 0;
+    }
+
+    /**
+     * Atomically marks the vertex as visited and returns true if it was not visited before.
+     */
+    private boolean tryVisit(int vertex) {
+        int index = vertex >>> 6;
+        long bit = 1L << vertex;
+
+        while (true) {
+            long word = visited.get(index);
+            if ((word & bit) != 0)
+                return false;
+            if (visited.compareAndSet(index, word, word | bit))
+                return true;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.fedyiv.graph;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Least recently used cache of found paths, keyed by (source, target). The cache remembers the modification
+ * count of the graph its paths were found in and drops all of them once it is asked with a different one.
+ * <p>
+ * Searches run outside of the cache monitor, so concurrent misses do not wait for each other.
+ */
+final class PathCache<T> {
+
+    /**
+     * Cached in place of a null result, found paths are never empty.
+     */
+    private static final List<?> NO_PATH = Collections.emptyList();
+
+    private final int maximumSize;
+    private final LinkedHashMap<Map.Entry<T, T>, List<T>> paths;
+
+    private long modCount;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    PathCache(int maximumSize, long modCount) {
+        this.maximumSize = maximumSize;
+        this.modCount = modCount;
+        this.paths = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Map.Entry<T, T>, List<T>> eldest) {
+                if (size() <= PathCache.this.maximumSize)
+                    return false;
+
+                evictionCount++;
+                return true;
+            }
+        };
+    }
+
+    int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the cached path, or finds it with the search and caches an unmodifiable copy.
+     * The caller must prevent modifications of the graph until the method returns.
+     */
+    @SuppressWarnings("unchecked")
+    List<T> getPath(T vertex1, T vertex2, long modCount, BiFunction<T, T, List<T>> search) {
+        Map.Entry<T, T> key = new AbstractMap.SimpleImmutableEntry<>(vertex1, vertex2);
+
+        synchronized (this) {
+            if (this.modCount != modCount) {
+                if (!paths.isEmpty())
+                    invalidationCount++;
+                paths.clear();
+                this.modCount = modCount;
+            }
+
+            var path = paths.get(key);
+            if (path != null) {
+                hitCount++;
+                return path == NO_PATH ? null : path;
+            }
+
+            missCount++;
+        }
+
+        var path = search.apply(vertex1, vertex2);
+        var cachedPath = path == null ? (List<T>) NO_PATH : Collections.unmodifiableList(path);
+
+        synchronized (this) {
+            if (this.modCount == modCount)
+                paths.put(key, cachedPath);
+        }
+
+        return path == null ? null : cachedPath;
+    }
+
+    synchronized PathCacheStatistics getStatistics() {
+        return new PathCacheStatistics(hitCount, missCount, evictionCount, invalidationCount, paths.size());
+    }
+}
@@ -0,0 +1,183 @@
+package org.fedyiv.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulk-synchronous engine for {@link VertexProgram}s over the {@link Graph#snapshot() snapshot} of a graph.
+ * <p>
+ * Every superstep splits the vertex ids into chunks which are computed by fork-join tasks. Vertex values and
+ * messages are kept in primitive arrays indexed by vertex id. Messages sent to the same vertex are combined
+ * into a single value as they arrive, so a superstep never buffers more than one message per vertex.
+ * The run ends when all vertices voted to halt and no messages are in flight, or after {@code maxSupersteps}.
+ */
+public final class Pregel {
+
+    /**
+     * Marks a vertex without messages. A NaN which arithmetic never produces; a message with these bits is
+     * stored as {@link Double#NaN} instead, see {@link #toBits(double)}.
+     */
+    private static final long NO_MESSAGE = 0x7ff8_dead_beef_0000L;
+
+    private Pregel() {
+    }
+
+    public static <T> VertexValues<T> run(Graph<T> graph, VertexProgram program) {
+        return run(graph, program, ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+    }
+
+    public static <T> VertexValues<T> run(Graph<T> graph, VertexProgram program, ForkJoinPool pool, int maxSupersteps) {
+        var frozenGraph = graph.snapshot();
+        var run = new Run(frozenGraph, program);
+        int numberOfSupersteps = run.execute(pool, maxSupersteps);
+
+        return new VertexValues<>(frozenGraph, run.values, numberOfSupersteps);
+    }
+
+    /**
+     * State of a single run, shared by the {@link VertexContext}s of all workers.
+     */
+    static final class Run {
+        final FrozenGraph<?> graph;
+        final VertexProgram program;
+        final CsrAdjacency outgoing;
+        final CsrAdjacency incoming;
+
+        final double[] values;
+        final boolean[] halted;
+        final double[] aggregates;
+
+        int superstep;
+
+        private AtomicLongArray messages;
+        private AtomicLongArray nextMessages;
+        private volatile boolean messagesSent;
+
+        private final double[] nextAggregates;
+        private final boolean[] nextAggregated;
+
+        private Run(FrozenGraph<?> graph, VertexProgram program) {
+            int numberOfVertices = graph.numberOfVertices();
+
+            this.graph = graph;
+            this.program = program;
+            this.outgoing = graph.adjacency();
+            this.incoming = graph.isDirected() ? null : outgoing;
+
+            values = new double[numberOfVertices];
+            halted = new boolean[numberOfVertices];
+            messages = emptyMessages(numberOfVertices);
+            nextMessages = emptyMessages(numberOfVertices);
+
+            aggregates = new double[program.numberOfAggregators()];
+            nextAggregates = new double[aggregates.length];
+            nextAggregated = new boolean[aggregates.length];
+            Arrays.fill(aggregates, Double.NaN);
+
+            for (int vertexId = 0; vertexId < numberOfVertices; vertexId++)
+                values[vertexId] = program.initialValue(vertexId, numberOfVertices);
+        }
+
+        private static AtomicLongArray emptyMessages(int numberOfVertices) {
+            long[] messages = new long[numberOfVertices];
+            Arrays.fill(messages, NO_MESSAGE);
+            return new AtomicLongArray(messages);
+        }
+
+        /**
+         * Returns the number of supersteps run.
+         */
+        private int execute(ForkJoinPool pool, int maxSupersteps) {
+            int numberOfVertices = values.length;
+            var activeVertices = new LongAdder();
+
+            for (superstep = 0; superstep < maxSupersteps; superstep++) {
+                activeVertices.reset();
+                messagesSent = false;
+
+                ForkJoinRanges.forEach(pool, 0, numberOfVertices, ForkJoinRanges.grain(pool, numberOfVertices), (from, to) -> {
+                    var context = new VertexContext(this);
+                    int active = 0;
+
+                    for (int vertexId = from; vertexId < to; vertexId++) {
+                        boolean hasMessage = messages.get(vertexId) != NO_MESSAGE;
+                        if (halted[vertexId] && !hasMessage)
+                            continue;
+
+                        halted[vertexId] = false;
+                        context.moveTo(vertexId);
+                        program.compute(context);
+
+                        if (hasMessage)
+                            messages.set(vertexId, NO_MESSAGE);
+                        if (!halted[vertexId])
+                            active++;
+                    }
+
+                    context.flushAggregates();
+                    activeVertices.add(active);
+                });
+
+                var consumedMessages = messages;
+                messages = nextMessages;
+                nextMessages = consumedMessages;
+
+                for (int aggregator = 0; aggregator < aggregates.length; aggregator++) {
+                    aggregates[aggregator] = nextAggregated[aggregator] ? nextAggregates[aggregator] : Double.NaN;
+                    nextAggregated[aggregator] = false;
+                }
+
+                if (!messagesSent && activeVertices.sum() == 0)
+                    return superstep + 1;
+            }
+
+            return superstep;
+        }
+
+        boolean hasMessage(int vertexId) {
+            return messages.get(vertexId) != NO_MESSAGE;
+        }
+
+        double message(int vertexId) {
+            return Double.longBitsToDouble(messages.get(vertexId));
+        }
+
+        CsrAdjacency incoming() {
+            return incoming != null ? incoming : graph.incomingAdjacency();
+        }
+
+        void send(int vertexId, double message) {
+            if (!messagesSent)
+                messagesSent = true;
+
+            while (true) {
+                long current = nextMessages.get(vertexId);
+                double combined = current == NO_MESSAGE ? message : program.combineMessages(Double.longBitsToDouble(current), message);
+                if (nextMessages.compareAndSet(vertexId, current, toBits(combined)))
+                    return;
+            }
+        }
+
+        /**
+         * Returns the raw bits of the message, but those of {@link Double#NaN} for a NaN whose bits mark a vertex
+         * without messages, so that no message is ever mistaken for none. Only the NaN payload is lost.
+         */
+        private static long toBits(double message) {
+            long bits = Double.doubleToRawLongBits(message);
+            return bits == NO_MESSAGE ? Double.doubleToRawLongBits(Double.NaN) : bits;
+        }
+
+        void sendAlong(CsrAdjacency adjacency, int vertexId, double message) {
+            int[] targets = adjacency.targets;
+            for (int i = adjacency.offsets[vertexId], end = adjacency.offsets[vertexId + 1]; i < end; i++)
+                send(targets[i], message);
+        }
+
+        synchronized void aggregate(int aggregator, double value) {
+            nextAggregates[aggregator] = nextAggregated[aggregator] ? program.combineAggregates(aggregator, nextAggregates[aggregator], value) : value;
+            nextAggregated[aggregator] = true;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.fedyiv.graph;
+
+/**
+ * Strategy used by {@link AbstractGraph#getPath(Object, Object)} to find the shortest path.
+ */
+public enum SearchMode {
+
+    /**
+     * Breadth-first search from the first vertex only.
+     */
+    UNIDIRECTIONAL,
+
+    /**
+     * Breadth-first search from both vertices at once, always expanding the smaller frontier.
+     * Requires the graph to know the incoming edges of every vertex.
+     */
+    BIDIRECTIONAL
+}
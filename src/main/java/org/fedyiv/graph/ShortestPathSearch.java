@@ -0,0 +1,214 @@
+package org.fedyiv.graph;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Dijkstra's algorithm and A* search over {@link IntAdjacency} with an indexed binary heap.
+ * <p>
+ * Every thread reuses its own search. Per vertex state is stamped with the generation of the search
+ * which wrote it, so it never has to be cleared between searches.
+ */
+final class ShortestPathSearch {
+
+    private static final ThreadLocal<ShortestPathSearch> SEARCHES = ThreadLocal.withInitial(ShortestPathSearch::new);
+
+    private static final int SETTLED = -1;
+
+    private int generation;
+    private int[] generations = new int[0];
+    private double[] distances = new double[0];
+    private int[] predecessors = new int[0];
+    private int[] heapPositions = new int[0];
+
+    private int[] heap = new int[16];
+    private double[] heapKeys = new double[16];
+    private int heapSize;
+
+    private ShortestPathSearch() {
+    }
+
+    /**
+     * Rejects weights the searches can not handle: negative weights break the order in which vertices are settled.
+     */
+    static void checkWeight(double weight) {
+        if (!(weight >= 0) || Double.isInfinite(weight))
+            throw new IllegalArgumentException("Edge weight must be a finite non-negative number: " + weight);
+    }
+
+    /**
+     * Returns ids of the vertices on the path with the smallest total weight from source to target,
+     * or null if there is no path. A null heuristic runs Dijkstra's algorithm.
+     */
+    static int[] findPath(IntAdjacency adjacency, int source, int target, IntToDoubleFunction heuristic) {
+        var search = SEARCHES.get();
+        return search.search(adjacency, source, target, heuristic) ? search.buildPath(source, target) : null;
+    }
+
+    /**
+     * Returns the smallest total weight of a path from source to target, or {@link Double#POSITIVE_INFINITY}
+     * if there is no path. A null heuristic runs Dijkstra's algorithm.
+     */
+    static double findDistance(IntAdjacency adjacency, int source, int target, IntToDoubleFunction heuristic) {
+        var search = SEARCHES.get();
+        return search.search(adjacency, source, target, heuristic) ? search.distances[target] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the smallest total weights of paths from source to every vertex, {@link Double#POSITIVE_INFINITY}
+     * for vertices which can not be reached.
+     */
+    static double[] findDistances(IntAdjacency adjacency, int source) {
+        var search = SEARCHES.get();
+        search.search(adjacency, source, -1, null);
+
+        double[] distances = new double[adjacency.numberOfVertices()];
+        for (int vertex = 0; vertex < distances.length; vertex++)
+            distances[vertex] = search.generations[vertex] == search.generation ? search.distances[vertex] : Double.POSITIVE_INFINITY;
+
+        return distances;
+    }
+
+    /**
+     * Settles vertices in the order of their distance from the source until the target is settled.
+     * Returns false if the target can not be reached.
+     */
+    private boolean search(IntAdjacency adjacency, int source, int target, IntToDoubleFunction heuristic) {
+        prepare(adjacency.numberOfVertices());
+
+        discover(source, source, 0, heuristic);
+
+        while (heapSize > 0) {
+            int vertex = poll();
+            if (vertex == target)
+                return true;
+
+            int[] adjacentVertices = adjacency.adjacentVertices(vertex);
+            double[] adjacentWeights = adjacency.adjacentWeights(vertex);
+
+            for (int i = adjacency.adjacencyStart(vertex), end = adjacency.adjacencyEnd(vertex); i < end; i++) {
+                int adjacentVertex = adjacentVertices[i];
+                double distance = distances[vertex] + (adjacentWeights == null ? WeightedGraph.DEFAULT_WEIGHT : adjacentWeights[i]);
+
+                if (generations[adjacentVertex] != generation) {
+                    discover(adjacentVertex, vertex, distance, heuristic);
+                } else if (heapPositions[adjacentVertex] != SETTLED && distance < distances[adjacentVertex]) {
+                    distances[adjacentVertex] = distance;
+                    predecessors[adjacentVertex] = vertex;
+                    decreaseKey(adjacentVertex, distance + estimate(adjacentVertex, heuristic));
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void prepare(int numberOfVertices) {
+        if (generations.length < numberOfVertices) {
+            generations = new int[numberOfVertices];
+            distances = new double[numberOfVertices];
+            predecessors = new int[numberOfVertices];
+            heapPositions = new int[numberOfVertices];
+            generation = 0;
+        }
+
+        if (++generation == 0) {
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+
+        heapSize = 0;
+    }
+
+    private static double estimate(int vertex, IntToDoubleFunction heuristic) {
+        return heuristic == null ? 0 : heuristic.applyAsDouble(vertex);
+    }
+
+    private void discover(int vertex, int predecessor, double distance, IntToDoubleFunction heuristic) {
+        generations[vertex] = generation;
+        distances[vertex] = distance;
+        predecessors[vertex] = predecessor;
+
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+        }
+
+        heap[heapSize] = vertex;
+        heapKeys[heapSize] = distance + estimate(vertex, heuristic);
+        heapPositions[vertex] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int poll() {
+        int vertex = heap[0];
+        heapPositions[vertex] = SETTLED;
+
+        if (--heapSize > 0) {
+            move(heap[heapSize], heapKeys[heapSize], 0);
+            siftDown(0);
+        }
+
+        return vertex;
+    }
+
+    private void decreaseKey(int vertex, double key) {
+        int position = heapPositions[vertex];
+        heapKeys[position] = key;
+        siftUp(position);
+    }
+
+    private void siftUp(int position) {
+        int vertex = heap[position];
+        double key = heapKeys[position];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heapKeys[parent] <= key)
+                break;
+
+            move(heap[parent], heapKeys[parent], position);
+            position = parent;
+        }
+
+        move(vertex, key, position);
+    }
+
+    private void siftDown(int position) {
+        int vertex = heap[position];
+        double key = heapKeys[position];
+
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child])
+                child++;
+            if (key <= heapKeys[child])
+                break;
+
+            move(heap[child], heapKeys[child], position);
+            position = child;
+        }
+
+        move(vertex, key, position);
+    }
+
+    private void move(int vertex, double key, int position) {
+        heap[position] = vertex;
+        heapKeys[position] = key;
+        heapPositions[vertex] = position;
+    }
+
+    private int[] buildPath(int source, int target) {
+        int length = 1;
+        for (int vertex = target; vertex != source; vertex = predecessors[vertex])
+            length++;
+
+        int[] path = new int[length];
+        for (int vertex = target, i = length - 1; i >= 0; vertex = predecessors[vertex], i--)
+            path[i] = vertex;
+
+        return path;
+    }
+}
@@ -0,0 +1,157 @@
+package org.fedyiv.graph;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-write lock for many readers and rare writers. Every thread takes the read lock of its own stripe, chosen by
+ * its id, so readers on different stripes do not update a shared counter. The write lock takes the write locks
+ * of all stripes in order, so it costs as many acquisitions as there are stripes.
+ * <p>
+ * Both locks are reentrant. A thread holding the read lock must not take the write lock. Conditions are not supported.
+ */
+final class StripedReadWriteLock implements ReadWriteLock {
+
+    private static final int MAX_STRIPES = 64;
+
+    private final ReentrantReadWriteLock[] stripes;
+    private final Lock readLock = new ReadLock();
+    private final Lock writeLock = new WriteLock();
+
+    StripedReadWriteLock() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    StripedReadWriteLock(int minimumNumberOfStripes) {
+        int numberOfStripes = 1;
+        while (numberOfStripes < Math.min(minimumNumberOfStripes, MAX_STRIPES))
+            numberOfStripes <<= 1;
+
+        stripes = new ReentrantReadWriteLock[numberOfStripes];
+        for (int i = 0; i < numberOfStripes; i++)
+            stripes[i] = new ReentrantReadWriteLock();
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * Returns the stripe of the calling thread, which is the same on every call.
+     */
+    private ReentrantReadWriteLock stripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return stripes[(hash >>> 16) & (stripes.length - 1)];
+    }
+
+    private final class ReadLock implements Lock {
+
+        @Override
+        public void lock() {
+            stripe().readLock().lock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            stripe().readLock().lockInterruptibly();
+        }
+
+        @Override
+        public boolean tryLock() {
+            return stripe().readLock().tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return stripe().readLock().tryLock(time, unit);
+        }
+
+        @Override
+        public void unlock() {
+            stripe().readLock().unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Striped lock has no conditions");
+        }
+    }
+
+    private final class WriteLock implements Lock {
+
+        @Override
+        public void lock() {
+            for (ReentrantReadWriteLock stripe : stripes)
+                stripe.writeLock().lock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            int locked = 0;
+            try {
+                for (; locked < stripes.length; locked++)
+                    stripes[locked].writeLock().lockInterruptibly();
+            } finally {
+                if (locked < stripes.length)
+                    unlock(locked);
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            for (int i = 0; i < stripes.length; i++) {
+                if (!stripes[i].writeLock().tryLock()) {
+                    unlock(i);
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            int locked = 0;
+            try {
+                for (; locked < stripes.length; locked++) {
+                    if (!stripes[locked].writeLock().tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+                        return false;
+                }
+
+                return true;
+            } finally {
+                if (locked < stripes.length)
+                    unlock(locked);
+            }
+        }
+
+        @Override
+        public void unlock() {
+            unlock(stripes.length);
+        }
+
+        /**
+         * Releases the write locks of the first stripes, in reverse order.
+         */
+        private void unlock(int numberOfStripes) {
+            for (int i = numberOfStripes - 1; i >= 0; i--)
+                stripes[i].writeLock().unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Striped lock has no conditions");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.fedyiv.graph;
+
+import java.util.Arrays;
+
+/**
+ * Tarjan's strongly connected components algorithm over {@link IntAdjacency}, with explicit stacks
+ * instead of recursion so that long paths do not overflow the thread stack.
+ */
+final class StronglyConnectedComponents {
+
+    private StronglyConnectedComponents() {
+    }
+
+    /**
+     * Returns the component id of every vertex. Ids are dense, starting from 0, and components are numbered
+     * in reverse topological order: an edge between components always leads to a smaller or equal id.
+     * For undirected adjacency the components are the connected components.
+     */
+    static int[] find(IntAdjacency adjacency) {
+        int numberOfVertices = adjacency.numberOfVertices();
+
+        int[] componentIds = new int[numberOfVertices];
+        Arrays.fill(componentIds, -1);
+
+        // discovery index starting from 1, 0 means the vertex was not discovered yet
+        int[] indexes = new int[numberOfVertices];
+        int[] lowLinks = new int[numberOfVertices];
+        int[] componentStack = new int[numberOfVertices];
+        int[] callStack = new int[numberOfVertices];
+        int[] cursors = new int[numberOfVertices];
+
+        int index = 0;
+        int numberOfComponents = 0;
+        int componentStackSize = 0;
+
+        for (int root = 0; root < numberOfVertices; root++) {
+            if (indexes[root] != 0)
+                continue;
+
+            int callStackSize = 0;
+            indexes[root] = lowLinks[root] = ++index;
+            componentStack[componentStackSize++] = root;
+            callStack[callStackSize] = root;
+            cursors[callStackSize++] = adjacency.adjacencyStart(root);
+
+            while (callStackSize > 0) {
+                int vertex = callStack[callStackSize - 1];
+                int cursor = cursors[callStackSize - 1];
+
+                if (cursor < adjacency.adjacencyEnd(vertex)) {
+                    cursors[callStackSize - 1] = cursor + 1;
+                    int adjacentVertex = adjacency.adjacentVertices(vertex)[cursor];
+
+                    if (indexes[adjacentVertex] == 0) {
+                        indexes[adjacentVertex] = lowLinks[adjacentVertex] = ++index;
+                        componentStack[componentStackSize++] = adjacentVertex;
+                        callStack[callStackSize] = adjacentVertex;
+                        cursors[callStackSize++] = adjacency.adjacencyStart(adjacentVertex);
+                    } else if (componentIds[adjacentVertex] < 0) {
+                        lowLinks[vertex] = Math.min(lowLinks[vertex], indexes[adjacentVertex]);
+                    }
+                    continue;
+                }
+
+                callStackSize--;
+
+                if (lowLinks[vertex] == indexes[vertex]) {
+                    int member;
+                    do {
+                        member = componentStack[--componentStackSize];
+                        componentIds[member] = numberOfComponents;
+                    } while (member != vertex);
+                    numberOfComponents++;
+                }
+
+                if (callStackSize > 0) {
+                    int caller = callStack[callStackSize - 1];
+                    lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[vertex]);
+                }
+            }
+        }
+
+        return componentIds;
+    }
+}
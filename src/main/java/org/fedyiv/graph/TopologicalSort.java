@@ -0,0 +1,111 @@
+package org.fedyiv.graph;
+
+/**
+ * Topological order and cycle detection over {@link IntAdjacency}. Both run in linear time with
+ * primitive arrays for bookkeeping and without recursion, so long dependency chains do not overflow
+ * the thread stack.
+ */
+final class TopologicalSort {
+
+    private static final byte UNVISITED = 0;
+    private static final byte ON_STACK = 1;
+    private static final byte DONE = 2;
+
+    private TopologicalSort() {
+    }
+
+    /**
+     * Returns the vertices in an order where every edge leads from an earlier vertex to a later one,
+     * or null if there is a cycle. Uses Kahn's algorithm, which takes vertices without remaining incoming
+     * edges in the order of their ids, so the result is deterministic.
+     */
+    static int[] sort(IntAdjacency adjacency) {
+        int numberOfVertices = adjacency.numberOfVertices();
+
+        int[] inDegrees = new int[numberOfVertices];
+        for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+            int[] adjacentVertices = adjacency.adjacentVertices(vertex);
+            for (int i = adjacency.adjacencyStart(vertex), end = adjacency.adjacencyEnd(vertex); i < end; i++)
+                inDegrees[adjacentVertices[i]]++;
+        }
+
+        // the order doubles as the queue: vertices before head are done, vertices from head to tail are ready
+        int[] order = new int[numberOfVertices];
+        int tail = 0;
+        for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+            if (inDegrees[vertex] == 0)
+                order[tail++] = vertex;
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int vertex = order[head];
+            int[] adjacentVertices = adjacency.adjacentVertices(vertex);
+            for (int i = adjacency.adjacencyStart(vertex), end = adjacency.adjacencyEnd(vertex); i < end; i++) {
+                if (--inDegrees[adjacentVertices[i]] == 0)
+                    order[tail++] = adjacentVertices[i];
+            }
+        }
+
+        return tail == numberOfVertices ? order : null;
+    }
+
+    /**
+     * Returns the vertices of some cycle in the order of its edges, starting and ending with the same vertex,
+     * or null if the graph is acyclic. A self loop is returned as {@code [v, v]}.
+     */
+    static int[] findCycle(IntAdjacency adjacency) {
+        int numberOfVertices = adjacency.numberOfVertices();
+
+        byte[] states = new byte[numberOfVertices];
+        int[] callStack = new int[numberOfVertices];
+        int[] cursors = new int[numberOfVertices];
+
+        for (int root = 0; root < numberOfVertices; root++) {
+            if (states[root] != UNVISITED)
+                continue;
+
+            int callStackSize = 0;
+            states[root] = ON_STACK;
+            callStack[callStackSize] = root;
+            cursors[callStackSize++] = adjacency.adjacencyStart(root);
+
+            while (callStackSize > 0) {
+                int vertex = callStack[callStackSize - 1];
+                int cursor = cursors[callStackSize - 1];
+
+                if (cursor == adjacency.adjacencyEnd(vertex)) {
+                    states[vertex] = DONE;
+                    callStackSize--;
+                    continue;
+                }
+
+                cursors[callStackSize - 1] = cursor + 1;
+                int adjacentVertex = adjacency.adjacentVertices(vertex)[cursor];
+
+                if (states[adjacentVertex] == UNVISITED) {
+                    states[adjacentVertex] = ON_STACK;
+                    callStack[callStackSize] = adjacentVertex;
+                    cursors[callStackSize++] = adjacency.adjacencyStart(adjacentVertex);
+                } else if (states[adjacentVertex] == ON_STACK) {
+                    return cycle(callStack, callStackSize, adjacentVertex);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the part of the call stack from {@code start} to its top, closed by {@code start} again.
+     */
+    private static int[] cycle(int[] callStack, int callStackSize, int start) {
+        int from = callStackSize - 1;
+        while (callStack[from] != start)
+            from--;
+
+        int[] cycle = new int[callStackSize - from + 1];
+        System.arraycopy(callStack, from, cycle, 0, callStackSize - from);
+        cycle[cycle.length - 1] = start;
+        return cycle;
+    }
+}
@@ -0,0 +1,135 @@
+package org.fedyiv.graph;
+
+import java.util.Arrays;
+
+/**
+ * Scratch buffers of breadth-first searches over dense vertex ids: frontier queues, predecessors and visited marks.
+ * Visited vertices are marked with the generation of the current search, so starting a new search does not clear
+ * the marks of the previous one, and once the buffers have grown to the size of the graph a search allocates
+ * nothing but the path it returns. The buffers grow by half at least, so a graph which keeps growing between
+ * searches replaces them only a logarithmic number of times.
+ * <p>
+ * Path queries without a context use the context of the calling thread. A context may also be passed in explicitly,
+ * for example to keep it with a worker. It must not be used by two searches at the same time.
+ */
+public final class TraversalContext {
+
+    private static final int[] EMPTY = new int[0];
+    private static final ThreadLocal<TraversalContext> CONTEXTS = ThreadLocal.withInitial(TraversalContext::new);
+
+    private int[] queue = EMPTY;
+    private int[] predecessors = EMPTY;
+    private int[] visitedGenerations = EMPTY;
+
+    // only allocated by searches which run from both ends
+    private int[] backwardQueue = EMPTY;
+    private int[] successors = EMPTY;
+    private int[] backwardVisitedGenerations = EMPTY;
+
+    private int generation;
+
+    public TraversalContext() {
+    }
+
+    /**
+     * Returns the context of the calling thread.
+     */
+    static TraversalContext forCurrentThread() {
+        return CONTEXTS.get();
+    }
+
+    /**
+     * Prepares the context for a new search of a graph with vertex ids below {@code numberOfVertices}.
+     */
+    void reset(int numberOfVertices) {
+        if (visitedGenerations.length < numberOfVertices) {
+            int length = grownLength(visitedGenerations.length, numberOfVertices);
+            queue = new int[length];
+            predecessors = new int[length];
+            visitedGenerations = new int[length];
+        }
+
+        nextGeneration();
+    }
+
+    /**
+     * Like {@link #reset(int)}, also preparing the buffers of the backward search.
+     */
+    void resetBidirectional(int numberOfVertices) {
+        if (backwardVisitedGenerations.length < numberOfVertices) {
+            int length = grownLength(backwardVisitedGenerations.length, numberOfVertices);
+            backwardQueue = new int[length];
+            successors = new int[length];
+            backwardVisitedGenerations = new int[length];
+        }
+
+        reset(numberOfVertices);
+    }
+
+    private static int grownLength(int length, int numberOfVertices) {
+        return (int) Math.max(numberOfVertices, Math.min(Integer.MAX_VALUE - 8, length + (long) (length >> 1)));
+    }
+
+    private void nextGeneration() {
+        if (++generation == 0) {
+            Arrays.fill(visitedGenerations, 0);
+            Arrays.fill(backwardVisitedGenerations, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Marks the vertex as visited by the current search. Returns false if it already was.
+     */
+    boolean visit(int vertex) {
+        if (visitedGenerations[vertex] == generation)
+            return false;
+
+        visitedGenerations[vertex] = generation;
+        return true;
+    }
+
+    /**
+     * Marks the vertex as visited by the backward search. Returns false if it already was.
+     */
+    boolean visitBackward(int vertex) {
+        if (backwardVisitedGenerations[vertex] == generation)
+            return false;
+
+        backwardVisitedGenerations[vertex] = generation;
+        return true;
+    }
+
+    boolean isVisited(int vertex) {
+        return visitedGenerations[vertex] == generation;
+    }
+
+    boolean isVisitedBackward(int vertex) {
+        return backwardVisitedGenerations[vertex] == generation;
+    }
+
+    /**
+     * Returns the queue, which has room for every vertex of the graph.
+     */
+    int[] queue() {
+        return queue;
+    }
+
+    /**
+     * Returns the predecessors, which are set only for vertices visited by the current search.
+     */
+    int[] predecessors() {
+        return predecessors;
+    }
+
+    int[] backwardQueue() {
+        return backwardQueue;
+    }
+
+    /**
+     * Returns the successors towards the target of the backward search, set only for vertices it visited.
+     */
+    int[] successors() {
+        return successors;
+    }
+}
@@ -0,0 +1,329 @@
+package org.fedyiv.graph;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy breadth-first and depth-first traversals. Every step of an iterator does only the work needed to find
+ * the next vertex, so a traversal abandoned early never touches the rest of the graph. The only state is the
+ * set of visited vertices and the frontier (queue or stack) of vertices to expand.
+ * <p>
+ * Traversals start with the start vertex at depth 0 and never expand vertices at {@code maxDepth}.
+ * Depth-first traversals follow the depth of the search tree, so a vertex first reached through a long path
+ * is not expanded again if it is reached later through a shorter one.
+ */
+final class Traversals {
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+
+    private Traversals() {
+    }
+
+    static void checkMaxDepth(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("Max depth must not be negative: " + maxDepth);
+    }
+
+    static IntStream stream(PrimitiveIterator.OfInt vertices) {
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(vertices, CHARACTERISTICS), false);
+    }
+
+    static <N> Stream<N> stream(Iterator<N> nodes) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(nodes, CHARACTERISTICS), false);
+    }
+
+    /**
+     * Breadth-first traversal of the vertex ids of an adjacency which does not change.
+     */
+    static PrimitiveIterator.OfInt breadthFirst(IntAdjacency adjacency, int start, int maxDepth) {
+        return new PrimitiveIterator.OfInt() {
+            private final IntHashSet visited = new IntHashSet();
+
+            // vertices to expand, in pairs of vertex and depth
+            private int[] frontier = new int[16];
+            private int frontierStart;
+            private int frontierEnd;
+
+            private int[] expanding;
+            private int cursor;
+            private int end;
+            private int expandingDepth;
+
+            private int next = start;
+
+            {
+                visited.add(start);
+                if (maxDepth > 0)
+                    enqueue(start, 0);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0)
+                    throw new NoSuchElementException();
+
+                int vertex = next;
+                next = advance();
+                return vertex;
+            }
+
+            private int advance() {
+                while (true) {
+                    while (cursor < end) {
+                        int adjacentVertex = expanding[cursor++];
+                        if (visited.add(adjacentVertex)) {
+                            if (expandingDepth + 1 < maxDepth)
+                                enqueue(adjacentVertex, expandingDepth + 1);
+                            return adjacentVertex;
+                        }
+                    }
+
+                    if (frontierStart == frontierEnd)
+                        return -1;
+
+                    int vertex = frontier[frontierStart++];
+                    expandingDepth = frontier[frontierStart++];
+                    expanding = adjacency.adjacentVertices(vertex);
+                    cursor = adjacency.adjacencyStart(vertex);
+                    end = adjacency.adjacencyEnd(vertex);
+                }
+            }
+
+            private void enqueue(int vertex, int depth) {
+                if (frontierEnd + 2 > frontier.length) {
+                    int size = frontierEnd - frontierStart;
+                    if (frontierStart >= frontier.length / 2)
+                        System.arraycopy(frontier, frontierStart, frontier, 0, size);
+                    else
+                        frontier = Arrays.copyOfRange(frontier, frontierStart, 2 * frontier.length);
+                    frontierStart = 0;
+                    frontierEnd = size;
+                }
+
+                frontier[frontierEnd++] = vertex;
+                frontier[frontierEnd++] = depth;
+            }
+        };
+    }
+
+    /**
+     * Depth-first traversal in preorder of the vertex ids of an adjacency which does not change.
+     */
+    static PrimitiveIterator.OfInt depthFirst(IntAdjacency adjacency, int start, int maxDepth) {
+        return new PrimitiveIterator.OfInt() {
+            private final IntHashSet visited = new IntHashSet();
+
+            // path from the start vertex, with the position of the next adjacent vertex to look at
+            private int[] stack = new int[16];
+            private int[] cursors = new int[16];
+            private int stackSize;
+
+            private int next = start;
+
+            {
+                visited.add(start);
+                if (maxDepth > 0)
+                    push(start);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0)
+                    throw new NoSuchElementException();
+
+                int vertex = next;
+                next = advance();
+                return vertex;
+            }
+
+            private int advance() {
+                while (stackSize > 0) {
+                    int vertex = stack[stackSize - 1];
+                    int cursor = cursors[stackSize - 1];
+
+                    if (cursor == adjacency.adjacencyEnd(vertex)) {
+                        stackSize--;
+                        continue;
+                    }
+
+                    cursors[stackSize - 1] = cursor + 1;
+                    int adjacentVertex = adjacency.adjacentVertices(vertex)[cursor];
+                    if (visited.add(adjacentVertex)) {
+                        if (stackSize < maxDepth)
+                            push(adjacentVertex);
+                        return adjacentVertex;
+                    }
+                }
+
+                return -1;
+            }
+
+            private void push(int vertex) {
+                if (stackSize == stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stackSize);
+                    cursors = Arrays.copyOf(cursors, 2 * stackSize);
+                }
+
+                stack[stackSize] = vertex;
+                cursors[stackSize++] = adjacency.adjacencyStart(vertex);
+            }
+        };
+    }
+
+    /**
+     * Breadth-first traversal of nodes whose adjacency is returned by {@code adjacentNodes}.
+     * The returned arrays must not change while the traversal reads them.
+     */
+    static <N> Iterator<N> breadthFirst(N start, int maxDepth, Function<N, Object[]> adjacentNodes) {
+        return new Iterator<>() {
+            private final Set<N> visited = new HashSet<>();
+            private final Deque<N> frontier = new ArrayDeque<>();
+
+            // number of frontier nodes at the depth of its head, the rest are one level deeper
+            private int frontierLevelSize;
+            private int frontierDepth;
+
+            private Object[] expanding = new Object[0];
+            private int cursor;
+            private int expandingDepth;
+
+            private N next = start;
+
+            {
+                visited.add(start);
+                if (maxDepth > 0) {
+                    frontier.add(start);
+                    frontierLevelSize = 1;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public N next() {
+                if (next == null)
+                    throw new NoSuchElementException();
+
+                N node = next;
+                next = advance();
+                return node;
+            }
+
+            @SuppressWarnings("unchecked")
+            private N advance() {
+                while (true) {
+                    while (cursor < expanding.length) {
+                        N adjacentNode = (N) expanding[cursor++];
+                        if (visited.add(adjacentNode)) {
+                            if (expandingDepth + 1 < maxDepth)
+                                frontier.add(adjacentNode);
+                            return adjacentNode;
+                        }
+                    }
+
+                    if (frontier.isEmpty())
+                        return null;
+
+                    if (frontierLevelSize == 0) {
+                        frontierDepth++;
+                        frontierLevelSize = frontier.size();
+                    }
+                    frontierLevelSize--;
+
+                    expandingDepth = frontierDepth;
+                    expanding = adjacentNodes.apply(frontier.poll());
+                    cursor = 0;
+                }
+            }
+        };
+    }
+
+    /**
+     * Depth-first traversal in preorder of nodes whose adjacency is returned by {@code adjacentNodes}.
+     * The returned arrays must not change while the traversal reads them.
+     */
+    static <N> Iterator<N> depthFirst(N start, int maxDepth, Function<N, Object[]> adjacentNodes) {
+        return new Iterator<>() {
+            private final Set<N> visited = new HashSet<>();
+
+            // adjacency of the nodes on the path from the start node, expanded when first looked at
+            private final List<N> stack = new ArrayList<>();
+            private final List<Object[]> expanded = new ArrayList<>();
+            private int[] cursors = new int[16];
+
+            private N next = start;
+
+            {
+                visited.add(start);
+                if (maxDepth > 0)
+                    push(start);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public N next() {
+                if (next == null)
+                    throw new NoSuchElementException();
+
+                N node = next;
+                next = advance();
+                return node;
+            }
+
+            @SuppressWarnings("unchecked")
+            private N advance() {
+                while (!stack.isEmpty()) {
+                    int top = stack.size() - 1;
+
+                    var adjacent = expanded.get(top);
+                    if (adjacent == null)
+                        expanded.set(top, adjacent = adjacentNodes.apply(stack.get(top)));
+
+                    if (cursors[top] == adjacent.length) {
+                        stack.remove(top);
+                        expanded.remove(top);
+                        continue;
+                    }
+
+                    N adjacentNode = (N) adjacent[cursors[top]++];
+                    if (visited.add(adjacentNode)) {
+                        if (stack.size() < maxDepth)
+                            push(adjacentNode);
+                        return adjacentNode;
+                    }
+                }
+
+                return null;
+            }
+
+            private void push(N node) {
+                if (stack.size() == cursors.length)
+                    cursors = Arrays.copyOf(cursors, 2 * cursors.length);
+
+                cursors[stack.size()] = 0;
+                stack.add(node);
+                expanded.add(null);
+            }
+        };
+    }
+}
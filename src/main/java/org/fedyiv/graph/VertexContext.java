@@ -0,0 +1,113 @@
+package org.fedyiv.graph;
+
+/**
+ * View of a single vertex given to {@link VertexProgram#compute(VertexContext)}. Contexts are reused
+ * for many vertices and must not be kept after {@code compute} returns.
+ */
+public final class VertexContext {
+
+    private final Pregel.Run run;
+    private final double[] aggregates;
+    private final boolean[] aggregated;
+
+    private int vertexId;
+
+    VertexContext(Pregel.Run run) {
+        this.run = run;
+        this.aggregates = new double[run.program.numberOfAggregators()];
+        this.aggregated = new boolean[aggregates.length];
+    }
+
+    void moveTo(int vertexId) {
+        this.vertexId = vertexId;
+    }
+
+    public int getSuperstep() {
+        return run.superstep;
+    }
+
+    public int getVertexId() {
+        return vertexId;
+    }
+
+    public int getNumberOfVertices() {
+        return run.values.length;
+    }
+
+    public int getNumberOfOutgoingEdges() {
+        return run.outgoing.degree(vertexId);
+    }
+
+    public double getValue() {
+        return run.values[vertexId];
+    }
+
+    public void setValue(double value) {
+        run.values[vertexId] = value;
+    }
+
+    public boolean hasMessage() {
+        return run.hasMessage(vertexId);
+    }
+
+    /**
+     * Returns the combination of all messages sent to the vertex in the previous superstep.
+     * Only meaningful if {@link #hasMessage()}.
+     */
+    public double getMessage() {
+        return run.message(vertexId);
+    }
+
+    /**
+     * Sends the message to the vertex for the next superstep. Any double can be sent, only the payload bits
+     * of a NaN may not arrive unchanged.
+     */
+    public void sendTo(int vertexId, double message) {
+        run.send(vertexId, message);
+    }
+
+    /**
+     * Sends the message along every outgoing edge.
+     */
+    public void sendToNeighbors(double message) {
+        run.sendAlong(run.outgoing, vertexId, message);
+    }
+
+    /**
+     * Sends the message along every outgoing edge and, for directed graphs, back along every incoming edge,
+     * as if the graph were undirected.
+     */
+    public void sendToAllNeighbors(double message) {
+        run.sendAlong(run.outgoing, vertexId, message);
+
+        var incoming = run.incoming();
+        if (incoming != run.outgoing)
+            run.sendAlong(incoming, vertexId, message);
+    }
+
+    /**
+     * Deactivates the vertex until it receives a message.
+     */
+    public void voteToHalt() {
+        run.halted[vertexId] = true;
+    }
+
+    public void aggregate(int aggregator, double value) {
+        aggregates[aggregator] = aggregated[aggregator] ? run.program.combineAggregates(aggregator, aggregates[aggregator], value) : value;
+        aggregated[aggregator] = true;
+    }
+
+    /**
+     * Returns the combination of all values aggregated in the previous superstep, or NaN if there were none.
+     */
+    public double getAggregatedValue(int aggregator) {
+        return run.aggregates[aggregator];
+    }
+
+    void flushAggregates() {
+        for (int aggregator = 0; aggregator < aggregates.length; aggregator++) {
+            if (aggregated[aggregator])
+                run.aggregate(aggregator, aggregates[aggregator]);
+        }
+    }
+}
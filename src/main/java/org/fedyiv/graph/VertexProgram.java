@@ -0,0 +1,30 @@
+package org.fedyiv.graph;
+
+/**
+ * Vertex-centric program run by {@link Pregel}. Every vertex holds a {@code double} value. In every superstep
+ * each active vertex, or a halted vertex which received messages, computes from its value and the messages sent
+ * to it in the previous superstep, and may send messages and vote to halt.
+ */
+public interface VertexProgram {
+
+    double initialValue(int vertexId, int numberOfVertices);
+
+    void compute(VertexContext context);
+
+    /**
+     * Combines two messages sent to the same vertex into one. Must be commutative and associative,
+     * since messages are combined in no particular order.
+     */
+    double combineMessages(double message1, double message2);
+
+    default int numberOfAggregators() {
+        return 0;
+    }
+
+    /**
+     * Combines two values aggregated by the given aggregator. Must be commutative and associative.
+     */
+    default double combineAggregates(int aggregator, double value1, double value2) {
+        throw new UnsupportedOperationException("No aggregators in " + getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,60 @@
+package org.fedyiv.graph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts vertices to bytes for {@link GraphFile}s. Equal vertices must be serialized to equal bytes,
+ * since mapped graphs look vertices up by their serialized form.
+ */
+public interface VertexSerializer<T> {
+
+    byte[] serialize(T vertex);
+
+    /**
+     * Reads a vertex from all remaining bytes of the buffer.
+     */
+    T deserialize(ByteBuffer bytes);
+
+    static VertexSerializer<Integer> integers() {
+        return new VertexSerializer<>() {
+            @Override
+            public byte[] serialize(Integer vertex) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(vertex).array();
+            }
+
+            @Override
+            public Integer deserialize(ByteBuffer bytes) {
+                return bytes.getInt();
+            }
+        };
+    }
+
+    static VertexSerializer<Long> longs() {
+        return new VertexSerializer<>() {
+            @Override
+            public byte[] serialize(Long vertex) {
+                return ByteBuffer.allocate(Long.BYTES).putLong(vertex).array();
+            }
+
+            @Override
+            public Long deserialize(ByteBuffer bytes) {
+                return bytes.getLong();
+            }
+        };
+    }
+
+    static VertexSerializer<String> strings() {
+        return new VertexSerializer<>() {
+            @Override
+            public byte[] serialize(String vertex) {
+                return vertex.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String deserialize(ByteBuffer bytes) {
+                return StandardCharsets.UTF_8.decode(bytes).toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package org.fedyiv.graph;
+
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Values of all vertices computed by a {@link Pregel} run.
+ */
+public final class VertexValues<T> {
+
+    private final FrozenGraph<T> graph;
+    private final double[] values;
+    private final int numberOfSupersteps;
+
+    VertexValues(FrozenGraph<T> graph, double[] values, int numberOfSupersteps) {
+        this.graph = graph;
+        this.values = values;
+        this.numberOfSupersteps = numberOfSupersteps;
+    }
+
+    public double get(T vertex) {
+        int vertexId = graph.vertexId(vertex);
+        if (vertexId < 0)
+            throw new IllegalArgumentException("No vertex " + vertex);
+
+        return values[vertexId];
+    }
+
+    public void forEach(ObjDoubleConsumer<T> action) {
+        for (int vertexId = 0; vertexId < values.length; vertexId++)
+            action.accept(graph.vertex(vertexId), values[vertexId]);
+    }
+
+    public int getNumberOfSupersteps() {
+        return numberOfSupersteps;
+    }
+}
@@ -0,0 +1,31 @@
+package org.fedyiv.graph;
+
+/**
+ * Weakly connected components as a {@link VertexProgram}: every vertex ends up with the smallest vertex id
+ * of its component, edge directions ignored. Only vertices whose label shrank stay active, so later
+ * supersteps touch a shrinking part of the graph.
+ */
+public final class WeaklyConnectedComponents implements VertexProgram {
+
+    @Override
+    public double initialValue(int vertexId, int numberOfVertices) {
+        return vertexId;
+    }
+
+    @Override
+    public void compute(VertexContext context) {
+        if (context.getSuperstep() == 0) {
+            context.sendToAllNeighbors(context.getValue());
+        } else if (context.getMessage() < context.getValue()) {
+            context.setValue(context.getMessage());
+            context.sendToAllNeighbors(context.getValue());
+        }
+
+        context.voteToHalt();
+    }
+
+    @Override
+    public double combineMessages(double message1, double message2) {
+        return Math.min(message1, message2);
+    }
+}
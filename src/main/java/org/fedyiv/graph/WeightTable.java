@@ -0,0 +1,128 @@
+package org.fedyiv.graph;
+
+import java.util.function.Predicate;
+
+/**
+ * Edge weights of a single vertex by adjacent vertex, with open addressing and linear probing on the identity
+ * of the adjacent vertex. Weights are kept in a {@code double[]} parallel to the keys, so they are never boxed.
+ * Edges without an entry weigh {@link WeightedGraph#DEFAULT_WEIGHT}, which is never stored.
+ */
+final class WeightTable<K> {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private double[] weights = new double[INITIAL_CAPACITY];
+    private int size;
+
+    double get(K key) {
+        int slot = find(key);
+        return slot < 0 ? WeightedGraph.DEFAULT_WEIGHT : weights[slot];
+    }
+
+    /**
+     * Sets the weight of the edge to the adjacent vertex. Returns false if it already had that weight.
+     */
+    boolean put(K key, double weight) {
+        if (weight == WeightedGraph.DEFAULT_WEIGHT)
+            return remove(key);
+
+        int slot = find(key);
+        if (slot >= 0) {
+            boolean changed = weights[slot] != weight;
+            weights[slot] = weight;
+            return changed;
+        }
+
+        if (2 * (size + 1) > keys.length)
+            rehash(2 * keys.length);
+
+        insert(keys, weights, key, weight);
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns false if the edge had no weight of its own.
+     */
+    boolean remove(K key) {
+        int slot = find(key);
+        if (slot < 0)
+            return false;
+
+        // shift back the entries after the slot which would no longer be found across the gap
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                weights[gap] = weights[next];
+                gap = next;
+            }
+        }
+
+        keys[gap] = null;
+        size--;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    void removeIf(Predicate<K> predicate) {
+        Object[] remainingKeys = new Object[keys.length];
+        double[] remainingWeights = new double[weights.length];
+        int remaining = 0;
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null && !predicate.test((K) keys[slot])) {
+                insert(remainingKeys, remainingWeights, keys[slot], weights[slot]);
+                remaining++;
+            }
+        }
+
+        keys = remainingKeys;
+        weights = remainingWeights;
+        size = remaining;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private int find(Object key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key)
+                return slot;
+        }
+
+        return -1;
+    }
+
+    private static void insert(Object[] keys, double[] weights, Object key, double weight) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != null)
+            slot = (slot + 1) & mask;
+
+        keys[slot] = key;
+        weights[slot] = weight;
+    }
+
+    private void rehash(int capacity) {
+        Object[] rehashedKeys = new Object[capacity];
+        double[] rehashedWeights = new double[capacity];
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null)
+                insert(rehashedKeys, rehashedWeights, keys[slot], weights[slot]);
+        }
+
+        keys = rehashedKeys;
+        weights = rehashedWeights;
+    }
+
+    private static int hash(Object key) {
+        int hash = System.identityHashCode(key) * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,31 @@
+package org.fedyiv.graph;
+
+import java.util.List;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Graph whose edges carry non-negative weights. Edges added without a weight weigh {@link #DEFAULT_WEIGHT}.
+ */
+public interface WeightedGraph<T> extends Graph<T> {
+
+    double DEFAULT_WEIGHT = 1.0;
+
+    /**
+     * Adds the edge or changes the weight of an existing one.
+     */
+    void addEdge(T vertex1, T vertex2, double weight);
+
+    double getEdgeWeight(T vertex1, T vertex2);
+
+    /**
+     * Uses Dijkstra's algorithm to find the path with the smallest total weight, or returns null if there is no path.
+     */
+    List<T> getShortestPath(T vertex1, T vertex2);
+
+    /**
+     * Uses A* search to find the path with the smallest total weight, or returns null if there is no path.
+     * The heuristic estimates the weight of the path from a vertex (first argument) to the target (second argument)
+     * and must never overestimate it, nor decrease by more than the weight of an edge along it.
+     */
+    List<T> getShortestPath(T vertex1, T vertex2, ToDoubleBiFunction<T, T> heuristic);
+}
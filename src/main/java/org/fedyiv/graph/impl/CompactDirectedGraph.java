@@ -0,0 +1,64 @@
+package org.fedyiv.graph.impl;
+
+import org.fedyiv.graph.AbstractCompactGraph;
+
+
+public class CompactDirectedGraph<T> extends AbstractCompactGraph<T> {
+
+    public CompactDirectedGraph() {
+    }
+
+    public CompactDirectedGraph(int expectedNumberOfVertices) {
+        super(expectedNumberOfVertices);
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2) {
+
+        rwl.writeLock().lock();
+        try {
+
+            var vertexId1 = getOrCreateVertexId(vertex1);
+            var vertexId2 = getOrCreateVertexId(vertex2);
+
+            addAdjacentVertex(vertexId1, vertexId2);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2, double weight) {
+        checkWeight(weight);
+
+        rwl.writeLock().lock();
+        try {
+
+            var vertexId1 = getOrCreateVertexId(vertex1);
+            var vertexId2 = getOrCreateVertexId(vertex2);
+
+            addAdjacentVertex(vertexId1, vertexId2, weight);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+        rwl.writeLock().lock();
+        try {
+            var vertexId1 = getVertexId(vertex1);
+            var vertexId2 = getVertexId(vertex2);
+
+            return vertexId1 >= 0 && vertexId2 >= 0 && removeAdjacentVertex(vertexId1, vertexId2);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isDirected() {
+        return true;
+    }
+
+}
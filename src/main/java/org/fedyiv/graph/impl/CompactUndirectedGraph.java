@@ -0,0 +1,70 @@
+package org.fedyiv.graph.impl;
+
+import org.fedyiv.graph.AbstractCompactGraph;
+
+
+public class CompactUndirectedGraph<T> extends AbstractCompactGraph<T> {
+
+    public CompactUndirectedGraph() {
+    }
+
+    public CompactUndirectedGraph(int expectedNumberOfVertices) {
+        super(expectedNumberOfVertices);
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2) {
+
+        rwl.writeLock().lock();
+        try {
+
+            var vertexId1 = getOrCreateVertexId(vertex1);
+            var vertexId2 = getOrCreateVertexId(vertex2);
+
+            addAdjacentVertex(vertexId1, vertexId2);
+            addAdjacentVertex(vertexId2, vertexId1);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2, double weight) {
+        checkWeight(weight);
+
+        rwl.writeLock().lock();
+        try {
+
+            var vertexId1 = getOrCreateVertexId(vertex1);
+            var vertexId2 = getOrCreateVertexId(vertex2);
+
+            addAdjacentVertex(vertexId1, vertexId2, weight);
+            addAdjacentVertex(vertexId2, vertexId1, weight);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+        rwl.writeLock().lock();
+        try {
+            var vertexId1 = getVertexId(vertex1);
+            var vertexId2 = getVertexId(vertex2);
+
+            if (vertexId1 < 0 || vertexId2 < 0 || !removeAdjacentVertex(vertexId1, vertexId2))
+                return false;
+
+            removeAdjacentVertex(vertexId2, vertexId1);
+            return true;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.fedyiv.graph.impl;
+
+import org.fedyiv.graph.AbstractConcurrentGraph;
+
+
+public class ConcurrentDirectedGraph<T> extends AbstractConcurrentGraph<T> {
+
+    public ConcurrentDirectedGraph() {
+    }
+
+    public ConcurrentDirectedGraph(int expectedNumberOfVertices) {
+        super(expectedNumberOfVertices);
+    }
+
+    @Override
+    public void addEdge(T vertex1, T vertex2) {
+
+        structureLock.readLock().lock();
+        try {
+
+            var vertexWrapper1 = getOrCreateVertexWrapper(vertex1);
+            var vertexWrapper2 = getOrCreateVertexWrapper(vertex2);
+
+            synchronized (vertexWrapper1) {
+                if (vertexWrapper1.addAdjacentVertex(vertexWrapper2))
+                    modCount.increment();
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+
+        structureLock.readLock().lock();
+        try {
+
+            var vertexWrapper1 = graph.get(vertex1);
+            var vertexWrapper2 = graph.get(vertex2);
+            if (vertexWrapper1 == null || vertexWrapper2 == null)
+                return false;
+
+            synchronized (vertexWrapper1) {
+                if (!vertexWrapper1.removeAdjacentVertex(vertexWrapper2))
+                    return false;
+
+                modCount.increment();
+                return true;
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isDirected() {
+        return true;
+    }
+
+}
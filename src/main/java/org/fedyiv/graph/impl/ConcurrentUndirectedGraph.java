@@ -0,0 +1,97 @@
+package org.fedyiv.graph.impl;
+
+import org.fedyiv.graph.AbstractConcurrentGraph;
+
+/**
+ * Writers change both directions of an edge under the monitors of both vertices, but publish them one after
+ * the other, as each vertex has an adjacency of its own. {@link #containsEdge(Object, Object)} checks both, so it
+ * gives the same answer for both directions at any moment: an edge is there from the first direction added until
+ * the last direction removed. Paths, traversals and {@link #numberOfOutgoingEdgesFromVertex(Object)} read one
+ * adjacency at a time and may see an edge from one end only while it is being added or removed. Snapshots block
+ * writers and always see both directions.
+ */
+public class ConcurrentUndirectedGraph<T> extends AbstractConcurrentGraph<T> {
+
+    public ConcurrentUndirectedGraph() {
+    }
+
+    public ConcurrentUndirectedGraph(int expectedNumberOfVertices) {
+        super(expectedNumberOfVertices);
+    }
+
+    /**
+     * Adds the edge in both directions while holding the monitors of both vertices, so other writers
+     * never see only one direction of it. Monitors are taken in the order of vertex ids to avoid deadlocks.
+     */
+    @Override
+    public void addEdge(T vertex1, T vertex2) {
+
+        structureLock.readLock().lock();
+        try {
+
+            var vertexWrapper1 = getOrCreateVertexWrapper(vertex1);
+            var vertexWrapper2 = getOrCreateVertexWrapper(vertex2);
+
+            var firstLocked = vertexWrapper1.getId() <= vertexWrapper2.getId() ? vertexWrapper1 : vertexWrapper2;
+            var secondLocked = firstLocked == vertexWrapper1 ? vertexWrapper2 : vertexWrapper1;
+
+            synchronized (firstLocked) {
+                synchronized (secondLocked) {
+                    if (vertexWrapper1.addAdjacentVertex(vertexWrapper2))
+                        modCount.increment();
+                    vertexWrapper2.addAdjacentVertex(vertexWrapper1);
+                }
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the edge in both directions while holding the monitors of both vertices, like {@link #addEdge(Object, Object)}.
+     */
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+
+        structureLock.readLock().lock();
+        try {
+
+            var vertexWrapper1 = graph.get(vertex1);
+            var vertexWrapper2 = graph.get(vertex2);
+            if (vertexWrapper1 == null || vertexWrapper2 == null)
+                return false;
+
+            var firstLocked = vertexWrapper1.getId() <= vertexWrapper2.getId() ? vertexWrapper1 : vertexWrapper2;
+            var secondLocked = firstLocked == vertexWrapper1 ? vertexWrapper2 : vertexWrapper1;
+
+            synchronized (firstLocked) {
+                synchronized (secondLocked) {
+                    if (!vertexWrapper1.removeAdjacentVertex(vertexWrapper2))
+                        return false;
+
+                    vertexWrapper2.removeAdjacentVertex(vertexWrapper1);
+                    modCount.increment();
+                    return true;
+                }
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsEdge(T vertex1, T vertex2) {
+        var vertexWrapper1 = graph.get(vertex1);
+        var vertexWrapper2 = graph.get(vertex2);
+        if (vertexWrapper1 == null || vertexWrapper2 == null)
+            return false;
+
+        return vertexWrapper1.isAdjacent(vertexWrapper2) || vertexWrapper2.isAdjacent(vertexWrapper1);
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+}
@@ -2,9 +2,42 @@ package org.fedyiv.graph.impl;
 
 import org.fedyiv.graph.AbstractGraph;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
+
+/**
+ * Directed graph which can optionally keep a reverse index of the incoming edges of every vertex, see
+ * {@link #setTrackIncomingEdges(boolean)}. With the index, predecessors and in-degrees are answered in
+ * time proportional to the in-degree, reverse traversals take the read lock per step like forward ones,
+ * and {@link #getPath(Object, Object)} searches from both ends.
+ */
 public class DirectedGraph<T> extends AbstractGraph<T> {
 
+    /**
+     * Vertex which also knows the vertices with an edge to it when incoming edges are tracked.
+     */
+    private static final class DirectedVertexWrapper<T> extends VertexWrapper<T> {
+        private Set<VertexWrapper<T>> incomingVertices;
+
+        private DirectedVertexWrapper(T value) {
+            super(value);
+        }
+    }
+
+    private volatile boolean trackIncomingEdges;
+
+    public DirectedGraph() {
+    }
+
+    public DirectedGraph(int expectedNumberOfVertices) {
+        super(expectedNumberOfVertices);
+    }
+
     @Override
     public void addEdge(T vertex1, T vertex2) {
 
@@ -14,10 +47,223 @@ public class DirectedGraph<T> extends AbstractGraph<T> {
             var vertexWrapper1 = getOrCreateVertexWrapper(vertex1);
             var vertexWrapper2 = getOrCreateVertexWrapper(vertex2);
 
-            vertexWrapper1.addAdjacentVertex(vertexWrapper2);
+            if (vertexWrapper1.addAdjacentVertex(vertexWrapper2)) {
+                modCount++;
+                if (trackIncomingEdges)
+                    ((DirectedVertexWrapper<T>) vertexWrapper2).incomingVertices.add(vertexWrapper1);
+            }
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+        rwl.writeLock().lock();
+        try {
+            var vertexWrapper1 = getVertexWrapper(vertex1);
+            var vertexWrapper2 = getVertexWrapper(vertex2);
+            if (vertexWrapper1 == null || vertexWrapper2 == null || !vertexWrapper1.removeAdjacentVertex(vertexWrapper2))
+                return false;
+
+            if (trackIncomingEdges)
+                ((DirectedVertexWrapper<T>) vertexWrapper2).incomingVertices.remove(vertexWrapper1);
+            modCount++;
+            return true;
         } finally {
             rwl.writeLock().unlock();
         }
     }
 
+    /**
+     * Builds or drops the reverse index of incoming edges. Building it takes the write lock for one pass over
+     * all edges, after which every added edge updates it. Unless a search mode is set explicitly,
+     * {@link #getPath(Object, Object)} searches bidirectionally while the index is kept, and
+     * {@link #removeVertex(Object)} removes the incoming edges right away instead of leaving tombstones.
+     */
+    public void setTrackIncomingEdges(boolean trackIncomingEdges) {
+        rwl.writeLock().lock();
+        try {
+            if (this.trackIncomingEdges == trackIncomingEdges)
+                return;
+
+            if (trackIncomingEdges)
+                compact();
+
+            for (VertexWrapper<T> vertexWrapper : graph.values())
+                ((DirectedVertexWrapper<T>) vertexWrapper).incomingVertices = trackIncomingEdges ? new HashSet<>() : null;
+
+            if (trackIncomingEdges) {
+                for (VertexWrapper<T> vertexWrapper : graph.values()) {
+                    for (VertexWrapper<T> adjacentVertex : vertexWrapper.getAdjacentVertices())
+                        ((DirectedVertexWrapper<T>) adjacentVertex).incomingVertices.add(vertexWrapper);
+                }
+            }
+
+            this.trackIncomingEdges = trackIncomingEdges;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    public boolean isTrackingIncomingEdges() {
+        return trackIncomingEdges;
+    }
+
+    /**
+     * Returns the vertices with an edge to the given vertex. Without the reverse index they are looked up in
+     * the {@link #snapshot() snapshot}, whose incoming edges are computed once per modification of the graph.
+     */
+    public List<T> predecessors(T vertex) {
+        rwl.readLock().lock();
+        try {
+            if (!trackIncomingEdges)
+                return snapshot().predecessors(vertex);
+
+            var incomingVertices = getExistingIncomingVertices(vertex);
+            List<T> predecessors = new ArrayList<>(incomingVertices.size());
+            for (VertexWrapper<T> incomingVertex : incomingVertices)
+                predecessors.add(incomingVertex.getValue());
+
+            return predecessors;
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the in-degree of the vertex, see {@link #predecessors(Object)}.
+     */
+    public int numberOfIncomingEdgesToVertex(T vertex) {
+        rwl.readLock().lock();
+        try {
+            if (!trackIncomingEdges)
+                return snapshot().numberOfIncomingEdgesToVertex(vertex);
+
+            return getExistingIncomingVertices(vertex).size();
+        } finally {
+            rwl.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a lazy stream of the vertices from which the start vertex can be reached, in breadth-first order
+     * along incoming edges.
+     */
+    public Stream<T> reverseBfs(T start) {
+        return reverseBfs(start, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #bfs(Object, int)} along incoming edges. Without the reverse index the traversal runs on
+     * the {@link #snapshot() snapshot}.
+     */
+    public Stream<T> reverseBfs(T start, int maxDepth) {
+        if (!trackIncomingEdges)
+            return snapshot().reverseBfs(start, maxDepth);
+
+        return breadthFirst(start, maxDepth, this::getIncomingVertices);
+    }
+
+    public Stream<T> reverseDfs(T start) {
+        return reverseDfs(start, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #dfs(Object, int)} along incoming edges. Without the reverse index the traversal runs on
+     * the {@link #snapshot() snapshot}.
+     */
+    public Stream<T> reverseDfs(T start, int maxDepth) {
+        if (!trackIncomingEdges)
+            return snapshot().reverseDfs(start, maxDepth);
+
+        return depthFirst(start, maxDepth, this::getIncomingVertices);
+    }
+
+    /**
+     * Returns true if each of the vertices can be reached from the other one. Strongly connected components
+     * are computed for the {@link #snapshot() snapshot}, so they are recomputed by the first call after
+     * a modification of the graph.
+     */
+    public boolean isStronglyConnected(T vertex1, T vertex2) {
+        return snapshot().isStronglyConnected(vertex1, vertex2);
+    }
+
+    /**
+     * Returns the strongly connected components of the {@link #snapshot() snapshot} in topological order,
+     * see {@link #isStronglyConnected(Object, Object)}.
+     */
+    public List<List<T>> stronglyConnectedComponents() {
+        return snapshot().stronglyConnectedComponents();
+    }
+
+    /**
+     * Returns the vertices in an order where every edge leads from an earlier vertex to a later one,
+     * or null if the graph has a cycle, see {@link #findCycle()}. Runs on the {@link #snapshot() snapshot}
+     * in time linear in the size of the graph.
+     */
+    public List<T> topologicalSort() {
+        return snapshot().topologicalSort();
+    }
+
+    /**
+     * Returns the vertices of some cycle in the order of its edges, starting and ending with the same vertex,
+     * or null if the graph is acyclic. Runs on the {@link #snapshot() snapshot}.
+     */
+    public List<T> findCycle() {
+        return snapshot().findCycle();
+    }
+
+    @Override
+    public boolean isDirected() {
+        return true;
+    }
+
+    @Override
+    protected VertexWrapper<T> createVertexWrapper(T vertex) {
+        var vertexWrapper = new DirectedVertexWrapper<>(vertex);
+        if (trackIncomingEdges)
+            vertexWrapper.incomingVertices = new HashSet<>();
+
+        return vertexWrapper;
+    }
+
+    /**
+     * Removes the incoming edges through the reverse index if it is kept.
+     */
+    @Override
+    protected boolean removeIncomingEdges(VertexWrapper<T> vertexWrapper) {
+        if (!trackIncomingEdges)
+            return false;
+
+        for (VertexWrapper<T> incomingVertex : ((DirectedVertexWrapper<T>) vertexWrapper).incomingVertices)
+            incomingVertex.removeAdjacentVertex(vertexWrapper);
+        for (VertexWrapper<T> adjacentVertex : vertexWrapper.getAdjacentVertices())
+            ((DirectedVertexWrapper<T>) adjacentVertex).incomingVertices.remove(vertexWrapper);
+
+        return true;
+    }
+
+    @Override
+    protected boolean supportsBackwardSearch() {
+        return trackIncomingEdges;
+    }
+
+    @Override
+    protected Collection<VertexWrapper<T>> getIncomingVertices(VertexWrapper<T> vertexWrapper) {
+        var incomingVertices = ((DirectedVertexWrapper<T>) vertexWrapper).incomingVertices;
+        if (incomingVertices == null)
+            throw new IllegalStateException("Incoming edges are no longer tracked");
+
+        return incomingVertices;
+    }
+
+    private Set<VertexWrapper<T>> getExistingIncomingVertices(T vertex) {
+        var vertexWrapper = getVertexWrapper(vertex);
+        if (vertexWrapper == null)
+            throw new IllegalArgumentException("No vertex " + vertex);
+
+        return ((DirectedVertexWrapper<T>) vertexWrapper).incomingVertices;
+    }
+
 }
@@ -1,18 +1,227 @@
 package org.fedyiv.graph.impl;
 
 import org.fedyiv.graph.AbstractGraph;
+import org.fedyiv.graph.ConnectedComponents;
+import org.fedyiv.graph.FrozenGraph;
+import org.fedyiv.graph.TraversalContext;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+
+/**
+ * Undirected graph which also keeps its connected components in a union-find structure,
+ * updated by every added edge, so {@link #isConnected(Object, Object)} does not need a search.
+ * A union-find can not split components, so removals mark it outdated and the next
+ * {@link #isConnected(Object, Object)} rebuilds it from all edges.
+ */
 public class UndirectedGraph<T> extends AbstractGraph<T> {
 
+    /**
+     * Vertex which is a node of a union-find forest: vertices are connected iff they have the same root.
+     */
+    private static final class ComponentVertexWrapper<T> extends VertexWrapper<T> {
+        private ComponentVertexWrapper<T> parent = this;
+        private int componentSize = 1;
+
+        private ComponentVertexWrapper(T value) {
+            super(value);
+        }
+
+        /**
+         * Finds the root with path halving. Queries halve paths under the read lock as well: concurrent
+         * halving only ever replaces a parent with one of its ancestors, and roots change only under the write lock.
+         */
+        private ComponentVertexWrapper<T> findRoot() {
+            var vertex = this;
+            while (vertex.parent != vertex) {
+                vertex.parent = vertex.parent.parent;
+                vertex = vertex.parent;
+            }
+            return vertex;
+        }
+
+        /**
+         * Attaches the smaller of the two components to the root of the larger one.
+         */
+        private void union(ComponentVertexWrapper<T> other) {
+            var root = findRoot();
+            var otherRoot = other.findRoot();
+            if (root == otherRoot)
+                return;
+
+            if (root.componentSize < otherRoot.componentSize) {
+                var smallerRoot = root;
+                root = otherRoot;
+                otherRoot = smallerRoot;
+            }
+
+            otherRoot.parent = root;
+            root.componentSize += otherRoot.componentSize;
+        }
+    }
+
+
+    private volatile boolean componentsOutdated;
+
+    public UndirectedGraph() {
+    }
+
+    public UndirectedGraph(int expectedNumberOfVertices) {
+        super(expectedNumberOfVertices);
+    }
 
     @Override
     public void addEdge(T vertex1, T vertex2) {
-        var vertexWrapper1 = getOrCreateVertexWrapper(vertex1);
-        var vertexWrapper2 = getOrCreateVertexWrapper(vertex2);
 
-        vertexWrapper1.addAdjacentVertex(vertexWrapper2);
-        vertexWrapper2.addAdjacentVertex(vertexWrapper1);
+        rwl.writeLock().lock();
+        try {
+
+            var vertexWrapper1 = getOrCreateVertexWrapper(vertex1);
+            var vertexWrapper2 = getOrCreateVertexWrapper(vertex2);
+
+            if (vertexWrapper1.addAdjacentVertex(vertexWrapper2)) {
+                modCount++;
+                ((ComponentVertexWrapper<T>) vertexWrapper1).union((ComponentVertexWrapper<T>) vertexWrapper2);
+            }
+            vertexWrapper2.addAdjacentVertex(vertexWrapper1);
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(T vertex1, T vertex2) {
+        rwl.writeLock().lock();
+        try {
+            var vertexWrapper1 = getVertexWrapper(vertex1);
+            var vertexWrapper2 = getVertexWrapper(vertex2);
+            if (vertexWrapper1 == null || vertexWrapper2 == null || !vertexWrapper1.removeAdjacentVertex(vertexWrapper2))
+                return false;
+
+            vertexWrapper2.removeAdjacentVertex(vertexWrapper1);
+            componentsOutdated = true;
+            modCount++;
+            return true;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Every edge is stored in both directions, so the adjacent vertices of the removed vertex know all its edges.
+     */
+    @Override
+    protected boolean removeIncomingEdges(VertexWrapper<T> vertexWrapper) {
+        for (VertexWrapper<T> adjacentVertex : vertexWrapper.getAdjacentVertices())
+            adjacentVertex.removeAdjacentVertex(vertexWrapper);
+
+        componentsOutdated = true;
+        return true;
+    }
+
+    /**
+     * Answers pairs of vertices in different components without a search, unless the components are outdated
+     * by a removal.
+     */
+    @Override
+    public List<T> getPath(T vertex1, T vertex2, TraversalContext context) {
+        if (!componentsOutdated && !isConnected(vertex1, vertex2))
+            return null;
+
+        return super.getPath(vertex1, vertex2, context);
+    }
+
+    /**
+     * Returns all connected components at once, found in parallel on the {@link #snapshot() snapshot}
+     * by fork-join tasks of the common pool.
+     */
+    public ConnectedComponents<T> connectedComponents() {
+        return snapshot().connectedComponents();
+    }
+
+    public ConnectedComponents<T> connectedComponents(ForkJoinPool pool) {
+        return snapshot().connectedComponents(pool);
+    }
+
+    /**
+     * Returns the vertices at most {@code k} edges away from the start, the start included, in breadth-first
+     * order. Runs on the {@link #snapshot() snapshot} with scratch buffers reused across calls, see
+     * {@link FrozenGraph#kHopNeighborhood(Object, int)}.
+     */
+    public List<T> kHopNeighborhood(T start, int k) {
+        return snapshot().kHopNeighborhood(start, k);
+    }
+
+    /**
+     * Returns true if there is a path between the vertices. Takes nearly constant time
+     * whether the vertices are connected or not, except for the first call after a removal.
+     */
+    public boolean isConnected(T vertex1, T vertex2) {
+        while (true) {
+            rwl.readLock().lock();
+            try {
+                var vertexWrapper1 = (ComponentVertexWrapper<T>) getVertexWrapper(vertex1);
+                var vertexWrapper2 = (ComponentVertexWrapper<T>) getVertexWrapper(vertex2);
+
+                if (vertexWrapper1 == null || vertexWrapper2 == null)
+                    throw new IllegalArgumentException("One  or both of verteces do not exist (" + vertex1 + ", " + vertex2 + ")");
+
+                if (!componentsOutdated)
+                    return vertexWrapper1.findRoot() == vertexWrapper2.findRoot();
+            } finally {
+                rwl.readLock().unlock();
+            }
+
+            rebuildComponents();
+        }
+    }
+
+    private void rebuildComponents() {
+        rwl.writeLock().lock();
+        try {
+            if (!componentsOutdated)
+                return;
+
+            for (VertexWrapper<T> vertexWrapper : graph.values()) {
+                var componentVertexWrapper = (ComponentVertexWrapper<T>) vertexWrapper;
+                componentVertexWrapper.parent = componentVertexWrapper;
+                componentVertexWrapper.componentSize = 1;
+            }
+
+            for (VertexWrapper<T> vertexWrapper : graph.values()) {
+                for (VertexWrapper<T> adjacentVertex : vertexWrapper.getAdjacentVertices())
+                    ((ComponentVertexWrapper<T>) vertexWrapper).union((ComponentVertexWrapper<T>) adjacentVertex);
+            }
+
+            componentsOutdated = false;
+        } finally {
+            rwl.writeLock().unlock();
+        }
+    }
+
+    @Override
+    protected VertexWrapper<T> createVertexWrapper(T vertex) {
+        return new ComponentVertexWrapper<>(vertex);
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    protected boolean supportsBackwardSearch() {
+        return true;
+    }
+
+    /**
+     * Every edge is stored in both directions, so the incoming vertices are the adjacent ones.
+     */
+    @Override
+    protected Collection<VertexWrapper<T>> getIncomingVertices(VertexWrapper<T> vertexWrapper) {
+        return vertexWrapper.getAdjacentVertices();
     }
 
 }
@@ -0,0 +1,364 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.CompactDirectedGraph;
+import org.fedyiv.graph.impl.CompactUndirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactGraphTest {
+
+    @Test
+    public void testDuplicateVertexIsNotAdded() {
+        Graph<Integer> graph = new CompactDirectedGraph<>();
+
+        final Integer vertex = 1;
+
+        assertFalse(graph.containsVertex(vertex));
+
+        graph.addVertex(vertex);
+        graph.addVertex(vertex);
+
+        assertTrue(graph.containsVertex(vertex));
+        assertEquals(1, graph.numberOfVertices());
+    }
+
+    @Test
+    public void testDirectedEdgeCreation() {
+        Graph<Integer> graph = new CompactDirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex1, vertex2);
+
+        assertTrue(graph.containsEdge(vertex1, vertex2));
+        assertFalse(graph.containsEdge(vertex2, vertex1));
+
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(vertex1));
+        assertEquals(0, graph.numberOfOutgoingEdgesFromVertex(vertex2));
+    }
+
+    @Test
+    public void testUndirectedEdgeCreation() {
+        Graph<Integer> graph = new CompactUndirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex2, vertex1);
+
+        assertTrue(graph.containsEdge(vertex1, vertex2));
+        assertTrue(graph.containsEdge(vertex2, vertex1));
+
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(vertex1));
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(vertex2));
+    }
+
+    @Test
+    public void testAdjacencyGrowsBeyondInitialCapacity() {
+        /*
+         * 0 -> 1, 0 -> 2, ..., 0 -> 99
+         * */
+        Graph<Integer> graph = new CompactDirectedGraph<>();
+
+        for (int vertex = 99; vertex > 0; vertex--)
+            graph.addEdge(0, vertex);
+
+        assertEquals(100, graph.numberOfVertices());
+        assertEquals(99, graph.numberOfOutgoingEdgesFromVertex(0));
+
+        for (int vertex = 1; vertex < 100; vertex++) {
+            assertTrue(graph.containsEdge(0, vertex));
+            assertFalse(graph.containsEdge(vertex, 0));
+        }
+    }
+
+    @Test
+    public void testGetPathForMeshGraph() {
+        /*
+         * 1->2->3
+         * |  |  |
+         * v  v  v
+         * 4->5->6
+         * |  |  |
+         * v  v  v
+         * 7->8->9
+         * */
+
+        CompactDirectedGraph<Integer> graph = new CompactDirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 4);
+        graph.addEdge(2, 3);
+        graph.addEdge(2, 5);
+        graph.addEdge(3, 6);
+        graph.addEdge(4, 5);
+        graph.addEdge(4, 7);
+        graph.addEdge(5, 6);
+        graph.addEdge(5, 8);
+        graph.addEdge(6, 9);
+        graph.addEdge(7, 8);
+        graph.addEdge(8, 9);
+
+        assertEquals(9, graph.numberOfVertices());
+
+        assertEquals(5, graph.getPath(1, 9).size());
+        assertEquals(List.of(2, 3, 6), graph.getPath(2, 6));
+        assertEquals(List.of(5), graph.getPath(5, 5));
+        assertNull(graph.getPath(9, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(1, 10));
+    }
+
+    @Test
+    public void testFreeze() {
+        /*
+         * 1 - 2 - 3    4
+         * */
+        CompactUndirectedGraph<Integer> graph = new CompactUndirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(3, 2);
+        graph.addVertex(4);
+
+        FrozenGraph<Integer> frozenGraph = graph.freeze();
+
+        graph.addEdge(3, 4);
+
+        assertFalse(frozenGraph.isDirected());
+        assertEquals(4, frozenGraph.numberOfVertices());
+        assertTrue(frozenGraph.containsEdge(2, 1));
+        assertTrue(frozenGraph.containsEdge(2, 3));
+        assertFalse(frozenGraph.containsEdge(3, 4));
+        assertEquals(2, frozenGraph.numberOfOutgoingEdgesFromVertex(2));
+        assertEquals(List.of(1, 2, 3), frozenGraph.getPath(1, 3));
+        assertNull(frozenGraph.getPath(1, 4));
+
+        assertThrows(UnsupportedOperationException.class, () -> frozenGraph.addEdge(1, 4));
+    }
+
+    @Test
+    public void testAddEdges() {
+        /*
+         * 1 - 2 - 3 - 4
+         *     |
+         *     5
+         * */
+        Graph<Integer> graph = new CompactUndirectedGraph<>();
+
+        graph.addEdge(3, 2);
+        graph.addEdges(List.of(Map.entry(1, 2), Map.entry(2, 3), Map.entry(3, 4), Map.entry(2, 1), Map.entry(5, 2)));
+
+        assertEquals(5, graph.numberOfVertices());
+        assertEquals(3, graph.numberOfOutgoingEdgesFromVertex(2));
+        assertEquals(2, graph.numberOfOutgoingEdgesFromVertex(3));
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(1));
+        assertTrue(graph.containsEdge(2, 5));
+        assertEquals(List.of(5, 2, 3, 4), graph.getPath(5, 4));
+
+        Graph<Integer> directedGraph = new CompactDirectedGraph<>(100);
+
+        directedGraph.addEdges(IntStream.range(0, 100).mapToObj(vertex -> Map.entry(vertex % 10, vertex)));
+
+        assertEquals(100, directedGraph.numberOfVertices());
+        assertEquals(10, directedGraph.numberOfOutgoingEdgesFromVertex(0));
+        assertTrue(directedGraph.containsEdge(0, 0));
+        assertTrue(directedGraph.containsEdge(9, 99));
+        assertFalse(directedGraph.containsEdge(99, 9));
+        assertEquals(List.of(1, 11), directedGraph.snapshot().getPath(1, 11));
+    }
+
+    @Test
+    public void testTraverse() {
+
+        /*
+         *   1 -> 2 ->  3
+         * */
+        Graph<Integer> graph = new CompactDirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+
+        graph.traverse(vertex -> vertex * 2);
+
+        assertEquals(List.of(2, 4, 6), graph.getPath(2, 6));
+        assertFalse(graph.containsVertex(1));
+
+    }
+
+    @Test
+    public void testGetShortestPathByWeight() {
+        //  1 --1.0--> 2 --1.0--> 3
+        //  |                     ^
+        //  +--------5.0----------+
+        WeightedGraph<Integer> graph = new CompactDirectedGraph<>();
+
+        graph.addEdge(1, 3, 5.0);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+
+        assertEquals(List.of(1, 3), graph.getPath(1, 3));
+        assertEquals(List.of(1, 2, 3), graph.getShortestPath(1, 3));
+        assertEquals(5.0, graph.getEdgeWeight(1, 3));
+        assertEquals(WeightedGraph.DEFAULT_WEIGHT, graph.getEdgeWeight(1, 2));
+
+        graph.addEdge(1, 3, 1.5);
+
+        assertEquals(List.of(1, 3), graph.getShortestPath(1, 3));
+        assertNull(graph.getShortestPath(3, 1));
+
+        var frozenGraph = graph.snapshot();
+
+        assertEquals(1.5, frozenGraph.getEdgeWeight(1, 3));
+        assertEquals(List.of(1, 3), frozenGraph.getShortestPath(1, 3));
+    }
+
+    @Test
+    public void testGetShortestPathWithHeuristicOnGrid() {
+        final int size = 20;
+        WeightedGraph<Integer> graph = new CompactUndirectedGraph<>();
+
+        // the direct row to the right is expensive, going around it through the second row is cheaper
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                int vertex = row * size + column;
+                if (column + 1 < size)
+                    graph.addEdge(vertex, vertex + 1, row == 0 ? 10.0 : 1.0);
+                if (row + 1 < size)
+                    graph.addEdge(vertex, vertex + size, 1.0);
+            }
+        }
+
+        final Integer target = size - 1;
+        var dijkstraPath = graph.getShortestPath(0, target);
+        var aStarPath = graph.getShortestPath(0, target,
+                (vertex, goal) -> Math.abs(vertex / size - goal / size) + Math.abs(vertex % size - goal % size));
+
+        assertEquals(size + 2, dijkstraPath.size());
+        assertEquals(pathWeight(graph, dijkstraPath), pathWeight(graph, aStarPath));
+        assertEquals(size + 1.0, pathWeight(graph, aStarPath));
+    }
+
+    @Test
+    public void testInvalidWeightIsRejected() {
+        WeightedGraph<Integer> graph = new CompactDirectedGraph<>();
+
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 2, -1.0));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 2, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> graph.getEdgeWeight(1, 2));
+        assertFalse(graph.containsVertex(1));
+    }
+
+    private static double pathWeight(WeightedGraph<Integer> graph, List<Integer> path) {
+        double weight = 0;
+        for (int i = 1; i < path.size(); i++)
+            weight += graph.getEdgeWeight(path.get(i - 1), path.get(i));
+
+        return weight;
+    }
+
+    @Test
+    public void testBfsAndDfs() {
+        //  binary tree 1 .. 15, every vertex v has children 2v and 2v + 1
+        Graph<Integer> graph = new CompactDirectedGraph<>();
+
+        for (int vertex = 1; vertex < 8; vertex++) {
+            graph.addEdge(vertex, 2 * vertex);
+            graph.addEdge(vertex, 2 * vertex + 1);
+        }
+
+        assertEquals(IntStream.rangeClosed(1, 15).boxed().collect(Collectors.toList()), graph.bfs(1).collect(Collectors.toList()));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), graph.bfs(1, 2).collect(Collectors.toList()));
+        assertEquals(List.of(1, 2, 4, 8, 9, 5, 10, 11, 3, 6, 12, 13, 7, 14, 15), graph.dfs(1).collect(Collectors.toList()));
+        assertEquals(List.of(1, 2, 4, 5, 3, 6, 7), graph.dfs(1, 2).collect(Collectors.toList()));
+        assertEquals(List.of(1, 2, 4), graph.dfs(1).limit(3).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testTraverseParallel() {
+        Graph<Integer> graph = new CompactUndirectedGraph<>();
+
+        for (int vertex = 0; vertex + 1 < 5_000; vertex++)
+            graph.addEdge(vertex, vertex + 1);
+
+        graph.traverseParallel(vertex -> vertex + 1);
+
+        assertTrue(graph.containsEdge(5_000, 4_999));
+        assertFalse(graph.containsVertex(0));
+        assertEquals(IntStream.rangeClosed(1, 5_000).boxed().collect(Collectors.toSet()), graph.parallelVertices().collect(Collectors.toSet()));
+
+        assertThrows(IllegalStateException.class, () -> graph.traverseParallel(vertex -> 0));
+
+        assertEquals(List.of(1, 2, 3), graph.getPath(1, 3));
+    }
+
+    @Test
+    public void testRemoveVertexAndEdge() {
+        /*
+         *   1 - 2 - 3 - 4
+         *   1 ----------/
+         * */
+        List<WeightedGraph<Integer>> graphs = List.of(new CompactDirectedGraph<>(), new CompactUndirectedGraph<>());
+        for (var graph : graphs) {
+            graph.addEdge(1, 2, 2);
+            graph.addEdge(2, 3, 2);
+            graph.addEdge(3, 4, 2);
+            graph.addEdge(1, 4, 10);
+
+            assertTrue(graph.removeEdge(1, 4));
+            assertFalse(graph.removeEdge(1, 4));
+            assertFalse(graph.removeEdge(4, 1));
+            assertEquals(List.of(1, 2, 3, 4), graph.getShortestPath(1, 4));
+
+            assertTrue(graph.removeVertex(3));
+            assertFalse(graph.removeVertex(3));
+            assertEquals(3, graph.numberOfVertices());
+            assertEquals(graph.isDirected() ? 0 : 1, graph.numberOfOutgoingEdgesFromVertex(2));
+            assertNull(graph.getPath(1, 4));
+
+            var frozenGraph = graph.snapshot();
+            assertEquals(3, frozenGraph.numberOfVertices());
+            assertEquals(2.0, frozenGraph.getEdgeWeight(1, 2));
+            assertFalse(frozenGraph.containsVertex(3));
+
+            graph.addEdge(4, 1, 3);
+            assertEquals(List.of(4, 1, 2), graph.getShortestPath(4, 2));
+            assertEquals(3.0, graph.getEdgeWeight(4, 1));
+        }
+    }
+
+    @Test
+    public void testRemovalsCompactVertexIds() {
+        final int numberOfVertices = 1000;
+        var graph = new CompactDirectedGraph<Integer>();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            graph.addEdge(vertex, (vertex + 1) % numberOfVertices, vertex);
+
+        // every removal of an even vertex leaves a tombstone in the adjacency of its predecessor
+        for (int vertex = 0; vertex < numberOfVertices; vertex += 2)
+            assertTrue(graph.removeVertex(vertex));
+
+        assertEquals(numberOfVertices / 2, graph.numberOfVertices());
+        for (int vertex = 1; vertex < numberOfVertices; vertex += 2) {
+            assertEquals(0, graph.numberOfOutgoingEdgesFromVertex(vertex));
+            graph.addEdge(vertex, (vertex + 2) % numberOfVertices, vertex);
+        }
+
+        assertEquals(List.of(1, 3, 5), graph.getShortestPath(1, 5));
+        assertEquals(3.0, graph.getEdgeWeight(3, 5));
+        assertEquals(numberOfVertices / 2, graph.snapshot().bfs(1).count());
+
+        graph.compact();
+        graph.traverse(vertex -> vertex * 10);
+        assertEquals(List.of(10, 30, 50), graph.getPath(10, 50));
+        assertEquals(numberOfVertices / 2, graph.freeze().numberOfVertices());
+    }
+}
@@ -0,0 +1,336 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.ConcurrentDirectedGraph;
+import org.fedyiv.graph.impl.ConcurrentUndirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentGraphTest {
+
+    @Test
+    public void testDirectedEdgeCreation() {
+        Graph<Integer> graph = new ConcurrentDirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex1, vertex2);
+
+        assertTrue(graph.containsEdge(vertex1, vertex2));
+        assertFalse(graph.containsEdge(vertex2, vertex1));
+
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(vertex1));
+        assertEquals(0, graph.numberOfOutgoingEdgesFromVertex(vertex2));
+    }
+
+    @Test
+    public void testUndirectedEdgeCreation() {
+        Graph<Integer> graph = new ConcurrentUndirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex2, vertex1);
+
+        assertTrue(graph.containsEdge(vertex1, vertex2));
+        assertTrue(graph.containsEdge(vertex2, vertex1));
+
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(vertex1));
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(vertex2));
+    }
+
+    @Test
+    public void testGetPathForMeshGraph() {
+        /*
+         * 1->2->3
+         * |  |  |
+         * v  v  v
+         * 4->5->6
+         * |  |  |
+         * v  v  v
+         * 7->8->9
+         * */
+
+        Graph<Integer> graph = new ConcurrentDirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 4);
+        graph.addEdge(2, 3);
+        graph.addEdge(2, 5);
+        graph.addEdge(3, 6);
+        graph.addEdge(4, 5);
+        graph.addEdge(4, 7);
+        graph.addEdge(5, 6);
+        graph.addEdge(5, 8);
+        graph.addEdge(6, 9);
+        graph.addEdge(7, 8);
+        graph.addEdge(8, 9);
+
+        assertEquals(9, graph.numberOfVertices());
+
+        assertEquals(5, graph.getPath(1, 9).size());
+        assertEquals(List.of(2, 3, 6), graph.getPath(2, 6));
+        assertNull(graph.getPath(9, 1));
+
+        FrozenGraph<Integer> snapshot = graph.snapshot();
+        assertSame(snapshot, graph.snapshot());
+        assertEquals(5, snapshot.getPath(1, 9).size());
+        assertTrue(snapshot.containsEdge(8, 9));
+    }
+
+    @Test
+    public void testAddEdges() {
+        /*
+         * 1 - 2 - 3
+         * */
+        Graph<Integer> graph = new ConcurrentUndirectedGraph<>();
+
+        graph.addEdge(2, 1);
+        graph.addEdges(List.of(Map.entry(1, 2), Map.entry(2, 3), Map.entry(3, 2)));
+
+        assertEquals(3, graph.numberOfVertices());
+        assertEquals(2, graph.numberOfOutgoingEdgesFromVertex(2));
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(3));
+        assertEquals(List.of(1, 2, 3), graph.getPath(1, 3));
+        assertTrue(graph.snapshot().containsEdge(3, 2));
+    }
+
+    @Test
+    public void testTraverse() {
+
+        /*
+         *   1 - 2 -  3
+         * */
+        Graph<Integer> graph = new ConcurrentUndirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+
+        graph.traverse(vertex -> vertex * 2);
+
+        assertEquals(List.of(2, 4, 6), graph.getPath(2, 6));
+        assertFalse(graph.containsVertex(1));
+        assertFalse(graph.containsVertex(3));
+        assertEquals(3, graph.numberOfVertices());
+
+    }
+
+    @Test
+    public void testConcurrentWritersAndReaders() throws Exception {
+        /*
+         * every writer builds its own chain  k -> k + 1 -> ... -> k + 999
+         * while readers keep searching paths in the chains
+         * */
+        final int numberOfWriters = 4;
+        final int chainLength = 1000;
+
+        Graph<Integer> graph = new ConcurrentDirectedGraph<>();
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfWriters * 2);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < numberOfWriters; writer++) {
+                final int first = writer * chainLength;
+
+                futures.add(executor.submit(() -> {
+                    for (int vertex = first; vertex < first + chainLength - 1; vertex++)
+                        graph.addEdge(vertex, vertex + 1);
+                }));
+
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        if (graph.containsVertex(first + 1)) {
+                            var path = graph.getPath(first, first + 1);
+                            assertEquals(List.of(first, first + 1), path);
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures)
+                future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(numberOfWriters * chainLength, graph.numberOfVertices());
+        for (int writer = 0; writer < numberOfWriters; writer++)
+            assertEquals(chainLength, graph.getPath(writer * chainLength, (writer + 1) * chainLength - 1).size());
+    }
+
+    @Test
+    public void testConcurrentUndirectedWritersKeepEdgesSymmetric() throws Exception {
+        final int numberOfWriters = 8;
+        final int numberOfVertices = 50;
+
+        Graph<Integer> graph = new ConcurrentUndirectedGraph<>();
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfWriters);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < numberOfWriters; writer++) {
+                final int seed = writer;
+
+                futures.add(executor.submit(() -> {
+                    var random = new Random(seed);
+                    for (int i = 0; i < 2000; i++)
+                        graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+                }));
+            }
+
+            for (Future<?> future : futures)
+                future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int vertex1 = 0; vertex1 < numberOfVertices; vertex1++)
+            for (int vertex2 = 0; vertex2 < numberOfVertices; vertex2++)
+                assertEquals(graph.containsEdge(vertex1, vertex2), graph.containsEdge(vertex2, vertex1));
+    }
+
+    @Test
+    public void testUndirectedEdgeIsNeverSeenFromOneEndOnly() throws Exception {
+        /*
+         * a writer adds the edges  i - 0  and then removes them again. The adjacency of i is published first,
+         * the one of 0 after copying all its other edges, while a reader asks for both directions of every edge
+         * right after each other: once an added edge is found from one end it must be found from the other,
+         * and the same for removed edges
+         * */
+        final int numberOfEdges = 10_000;
+
+        var graph = new ConcurrentUndirectedGraph<Integer>();
+        for (int vertex = 0; vertex <= numberOfEdges; vertex++)
+            graph.addVertex(vertex);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (boolean adding : new boolean[]{true, false}) {
+                var writer = executor.submit(() -> {
+                    for (int vertex = 1; vertex <= numberOfEdges; vertex++) {
+                        if (adding)
+                            graph.addEdge(vertex, 0);
+                        else
+                            graph.removeEdge(vertex, 0);
+                    }
+                });
+
+                var reader = executor.submit(() -> {
+                    while (!writer.isDone()) {
+                        for (int vertex = 1; vertex <= numberOfEdges; vertex++) {
+                            boolean forward = graph.containsEdge(vertex, 0);
+                            boolean backward = graph.containsEdge(0, vertex);
+                            if (adding ? forward && !backward : !forward && backward)
+                                fail("Edge " + vertex + " - 0 seen from one end only");
+                        }
+                    }
+                });
+
+                writer.get(30, TimeUnit.SECONDS);
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, graph.numberOfOutgoingEdgesFromVertex(0));
+        assertFalse(graph.snapshot().edges().iterator().hasNext());
+    }
+
+    @Test
+    public void testSnapshotsSeeWritersAtRest() throws Exception {
+        /*
+         * writers on many threads, and so on different stripes of the structure lock, add undirected edges
+         * while snapshots, which see the graph at rest, must never find an edge in one direction only
+         * */
+        final int numberOfWriters = 8;
+        final int numberOfVertices = 200;
+
+        Graph<Integer> graph = new ConcurrentUndirectedGraph<>();
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfWriters + 1);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < numberOfWriters; writer++) {
+                final int seed = writer;
+
+                futures.add(executor.submit(() -> {
+                    var random = new Random(seed);
+                    for (int i = 0; i < 5000; i++)
+                        graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+                }));
+            }
+
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    var snapshot = graph.snapshot();
+                    for (int vertex1 = 0; vertex1 < numberOfVertices; vertex1++)
+                        for (int vertex2 = 0; vertex2 < numberOfVertices; vertex2++)
+                            assertEquals(snapshot.containsEdge(vertex1, vertex2), snapshot.containsEdge(vertex2, vertex1));
+                }
+            }));
+
+            for (Future<?> future : futures)
+                future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBfsAndDfs() {
+        /*
+         *   1 - 2 - 3 - 4
+         * */
+        Graph<Integer> graph = new ConcurrentUndirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+
+        assertEquals(List.of(2, 1, 3, 4), graph.bfs(2).collect(Collectors.toList()));
+        assertEquals(List.of(2, 1, 3), graph.bfs(2, 1).collect(Collectors.toList()));
+        assertEquals(List.of(1, 2, 3), graph.dfs(1, 2).collect(Collectors.toList()));
+        assertEquals(List.of(4, 3, 2, 1), graph.dfs(4).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testRemoveVertexAndEdge() {
+        /*
+         *   1 - 2 - 3 - 4
+         * */
+        List<Graph<Integer>> graphs = List.of(new ConcurrentDirectedGraph<>(), new ConcurrentUndirectedGraph<>());
+        for (var graph : graphs) {
+            graph.addEdge(1, 2);
+            graph.addEdge(2, 3);
+            graph.addEdge(3, 4);
+            graph.addEdge(1, 4);
+
+            assertTrue(graph.removeEdge(1, 4));
+            assertFalse(graph.removeEdge(1, 4));
+            assertFalse(graph.containsEdge(4, 1));
+
+            assertTrue(graph.removeVertex(3));
+            assertFalse(graph.removeVertex(3));
+            assertEquals(3, graph.numberOfVertices());
+            assertEquals(graph.isDirected() ? 0 : 1, graph.numberOfOutgoingEdgesFromVertex(2));
+            assertNull(graph.getPath(1, 4));
+            assertEquals(List.of(1, 2), graph.bfs(1).collect(Collectors.toList()));
+            assertEquals(3, graph.snapshot().numberOfVertices());
+            assertFalse(graph.snapshot().containsVertex(3));
+        }
+    }
+}
@@ -4,7 +4,14 @@ import org.fedyiv.graph.impl.DirectedGraph;
 import org.fedyiv.graph.impl.UndirectedGraph;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -269,6 +276,129 @@ class DirectedGraphTest {
 
     }
 
+    @Test
+    public void testGetPathForGraphWithShortcut() {
+        /*
+         *   1 -> 2 -> 3 -> 4 -> 5
+         *   |                   ^
+         *   | _  _  _  _  _  _  |
+         * */
+
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+        final Integer vertex3 = 3;
+        final Integer vertex4 = 4;
+        final Integer vertex5 = 5;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex2, vertex3);
+        graph.addEdge(vertex3, vertex4);
+        graph.addEdge(vertex4, vertex5);
+        graph.addEdge(vertex1, vertex5);
+
+        assertEquals(List.of(vertex1, vertex5), graph.getPath(vertex1, vertex5));
+        assertEquals(List.of(vertex2, vertex3, vertex4, vertex5), graph.getPath(vertex2, vertex5));
+        assertNull(graph.getPath(vertex5, vertex1));
+
+    }
+
+    @Test
+    public void testBidirectionalSearchIsNotSupported() {
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        assertEquals(SearchMode.UNIDIRECTIONAL, graph.getSearchMode());
+        assertThrows(UnsupportedOperationException.class, () -> graph.setSearchMode(SearchMode.BIDIRECTIONAL));
+    }
+
+    @Test
+    public void testSnapshot() {
+        /*
+         *   1 -> 2 -> 3    4
+         * */
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addVertex(4);
+
+        FrozenGraph<Integer> snapshot = graph.snapshot();
+
+        assertSame(snapshot, graph.snapshot());
+        assertTrue(snapshot.isDirected());
+        assertEquals(4, snapshot.numberOfVertices());
+        assertTrue(snapshot.containsEdge(1, 2));
+        assertFalse(snapshot.containsEdge(2, 1));
+        assertEquals(List.of(1, 2, 3), snapshot.getPath(1, 3));
+        assertNull(snapshot.getPath(3, 1));
+
+        graph.addEdge(3, 4);
+
+        assertNotSame(snapshot, graph.snapshot());
+        assertFalse(snapshot.containsEdge(3, 4));
+        assertTrue(graph.snapshot().containsEdge(3, 4));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.addVertex(5));
+
+    }
+
+    @Test
+    public void testAddEdges() {
+        /*
+         *   1 -> 2 -> 3
+         * */
+        Graph<Integer> graph = new DirectedGraph<>(3);
+
+        graph.addEdges(Stream.of(Map.entry(1, 2), Map.entry(2, 3), Map.entry(1, 2)));
+
+        assertEquals(3, graph.numberOfVertices());
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(1));
+        assertEquals(List.of(1, 2, 3), graph.getPath(1, 3));
+        assertNull(graph.getPath(3, 1));
+    }
+
+    @Test
+    public void testGetPathInParallelMatchesGetPath() {
+        /*
+         * random graph with 2000 vertices and 6000 edges, searched with the parallel search forced on
+         * */
+        Graph<Integer> graph = new DirectedGraph<>();
+        Random random = new Random(7);
+
+        for (int vertex = 0; vertex < 2000; vertex++)
+            graph.addVertex(vertex);
+        for (int edge = 0; edge < 6000; edge++)
+            graph.addEdge(random.nextInt(2000), random.nextInt(2000));
+
+        FrozenGraph<Integer> snapshot = graph.snapshot();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            for (int query = 0; query < 200; query++) {
+                final Integer vertex1 = random.nextInt(2000);
+                final Integer vertex2 = random.nextInt(2000);
+
+                var expectedPath = graph.getPath(vertex1, vertex2);
+                var path = snapshot.getPathInParallel(vertex1, vertex2, pool, 0);
+
+                if (expectedPath == null) {
+                    assertNull(path);
+                    continue;
+                }
+
+                assertEquals(expectedPath.size(), path.size());
+                assertEquals(vertex1, path.get(0));
+                assertEquals(vertex2, path.get(path.size() - 1));
+                for (int i = 1; i < path.size(); i++)
+                    assertTrue(graph.containsEdge(path.get(i - 1), path.get(i)));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(List.of(0), graph.getPathInParallel(0, 0));
+    }
+
     @Test
     public void testTraverse() {
 
@@ -298,4 +428,562 @@ class DirectedGraphTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testTraverseDoesNotChangeGraphWhenVerticesCollide() {
+
+        /*
+         *   1 -> 2 ->  3
+         * */
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+        final Integer vertex3 = 3;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex2, vertex3);
+
+        assertThrows(IllegalStateException.class, () -> graph.traverse(vertex -> vertex / 2));
+
+        assertEquals(3, graph.numberOfVertices());
+        assertEquals(List.of(vertex1, vertex2, vertex3), graph.getPath(vertex1, vertex3));
+
+    }
+
+    @Test
+    public void testPathCache() {
+
+        /*
+         *   1 -> 2 ->  3   4
+         * */
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+        final Integer vertex3 = 3;
+        final Integer vertex4 = 4;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex2, vertex3);
+        graph.addVertex(vertex4);
+
+        graph.setPathCacheSize(2);
+
+        assertEquals(List.of(vertex1, vertex2, vertex3), graph.getPath(vertex1, vertex3));
+        assertEquals(List.of(vertex1, vertex2, vertex3), graph.getPath(vertex1, vertex3));
+        assertNull(graph.getPath(vertex1, vertex4));
+        assertNull(graph.getPath(vertex1, vertex4));
+        assertEquals(List.of(vertex2, vertex3), graph.getPath(vertex2, vertex3));
+
+        var statistics = graph.getPathCacheStatistics();
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(3, statistics.getMissCount());
+        assertEquals(1, statistics.getEvictionCount());
+        assertEquals(2, statistics.getSize());
+
+        graph.addEdge(vertex3, vertex4);
+
+        assertEquals(List.of(vertex1, vertex2, vertex3, vertex4), graph.getPath(vertex1, vertex4));
+
+        statistics = graph.getPathCacheStatistics();
+        assertEquals(1, statistics.getInvalidationCount());
+        assertEquals(1, statistics.getSize());
+
+        graph.setPathCacheSize(0);
+
+        assertEquals(0, graph.getPathCacheStatistics().getMissCount());
+    }
+
+    @Test
+    public void testIsStronglyConnected() {
+
+        /*
+         *   1 -> 2 -> 3 -> 4
+         *   ^         |
+         *   +---------+
+         * */
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+        final Integer vertex3 = 3;
+        final Integer vertex4 = 4;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex2, vertex3);
+        graph.addEdge(vertex3, vertex1);
+        graph.addEdge(vertex3, vertex4);
+
+        assertTrue(graph.isStronglyConnected(vertex1, vertex3));
+        assertTrue(graph.isStronglyConnected(vertex4, vertex4));
+        assertFalse(graph.isStronglyConnected(vertex1, vertex4));
+
+        graph.addEdge(vertex4, vertex2);
+
+        assertTrue(graph.isStronglyConnected(vertex1, vertex4));
+    }
+
+    @Test
+    public void testBfsAndDfs() {
+
+        /*
+         *   1 -> 2 -> 4 -> 5
+         *   |         ^
+         *   +--> 3 ---+
+         * */
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 4);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 5);
+
+        var bfs = graph.bfs(1).collect(Collectors.toList());
+        assertEquals(Set.of(1, 2, 3, 4, 5), Set.copyOf(bfs));
+        assertEquals((Integer) 1, bfs.get(0));
+        assertEquals(List.of(4, 5), bfs.subList(3, 5));
+
+        assertEquals(Set.of(1, 2, 3), graph.bfs(1, 1).collect(Collectors.toSet()));
+        assertEquals(List.of(1), graph.bfs(1, 0).collect(Collectors.toList()));
+        assertEquals(List.of(4, 5), graph.bfs(4).collect(Collectors.toList()));
+
+        var dfs = graph.dfs(1).collect(Collectors.toList());
+        assertEquals(5, dfs.size());
+        assertEquals(dfs.indexOf(4) + 1, dfs.indexOf(5));
+
+        assertEquals(2, graph.dfs(1).limit(2).count());
+        assertThrows(IllegalArgumentException.class, () -> graph.bfs(6));
+        assertThrows(IllegalArgumentException.class, () -> graph.dfs(1, -1));
+    }
+
+    @Test
+    public void testBfsIsLazy() {
+
+        /*
+         *   0 -> 1 -> 2 -> ... -> 99999
+         * */
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        for (int vertex = 0; vertex + 1 < 100_000; vertex++)
+            graph.addEdge(vertex, vertex + 1);
+
+        var vertices = graph.bfs(0).iterator();
+
+        assertEquals((Integer) 0, vertices.next());
+        assertEquals((Integer) 1, vertices.next());
+
+        graph.addEdge(2, 0);
+
+        assertEquals(List.of(0, 1, 2, 3), graph.bfs(0).limit(4).collect(Collectors.toList()));
+        assertEquals((Integer) 2, vertices.next());
+    }
+
+    @Test
+    public void testTraverseParallel() {
+
+        /*
+         *   0 -> 1 -> 2 -> ... -> 9999
+         * */
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        for (int vertex = 0; vertex + 1 < 10_000; vertex++)
+            graph.addEdge(vertex, vertex + 1);
+
+        graph.traverseParallel(vertex -> -vertex, new ForkJoinPool(4));
+
+        assertEquals(10_000, graph.numberOfVertices());
+        assertTrue(graph.containsEdge(-9998, -9999));
+        assertFalse(graph.containsVertex(1));
+        assertEquals(-49_995_000L, graph.parallelVertices().mapToLong(Integer::longValue).sum());
+
+        assertThrows(IllegalStateException.class, () -> graph.traverseParallel(vertex -> vertex / 2));
+        assertThrows(ArithmeticException.class, () -> graph.traverseParallel(vertex -> 1 / (vertex + 5000)));
+
+        assertEquals(List.of(-1, -2, -3), graph.getPath(-1, -3));
+    }
+
+    @Test
+    public void testIncomingEdges() {
+
+        /*
+         *   1 -> 2 -> 4
+         *   |         ^
+         *   +--> 3 ---+    5
+         * */
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 4);
+        graph.addVertex(5);
+
+        assertEquals(List.of(2), graph.predecessors(4));
+        assertEquals(0, graph.numberOfIncomingEdgesToVertex(1));
+
+        graph.setTrackIncomingEdges(true);
+        graph.addEdge(3, 4);
+
+        assertTrue(graph.isTrackingIncomingEdges());
+        assertEquals(SearchMode.BIDIRECTIONAL, graph.getSearchMode());
+        assertEquals(Set.of(2, 3), Set.copyOf(graph.predecessors(4)));
+        assertEquals(2, graph.numberOfIncomingEdgesToVertex(4));
+        assertEquals(List.of(), graph.predecessors(5));
+        // both shortest paths are valid, which one is found depends on the iteration order of the adjacency
+        assertTrue(Set.of(List.of(1, 2, 4), List.of(1, 3, 4)).contains(graph.getPath(1, 4)));
+        assertNull(graph.getPath(4, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.predecessors(6));
+
+        graph.setTrackIncomingEdges(false);
+
+        assertEquals(SearchMode.UNIDIRECTIONAL, graph.getSearchMode());
+        assertEquals(2, graph.numberOfIncomingEdgesToVertex(4));
+        assertThrows(IllegalArgumentException.class, () -> graph.numberOfIncomingEdgesToVertex(6));
+    }
+
+    @Test
+    public void testReverseBfsAndDfs() {
+
+        /*
+         *   1 -> 2 -> 3 -> 4
+         *        ^
+         *        5
+         * */
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(5, 2);
+
+        for (boolean trackIncomingEdges : new boolean[]{false, true}) {
+            graph.setTrackIncomingEdges(trackIncomingEdges);
+
+            assertEquals(Set.of(4, 3, 2, 1, 5), graph.reverseBfs(4).collect(Collectors.toSet()));
+            assertEquals(List.of(4, 3, 2), graph.reverseBfs(4, 2).collect(Collectors.toList()));
+            assertEquals(List.of(1), graph.reverseDfs(1).collect(Collectors.toList()));
+            assertEquals(4, graph.reverseDfs(3).count());
+            assertThrows(IllegalArgumentException.class, () -> graph.reverseBfs(6));
+        }
+    }
+
+    @Test
+    public void testBidirectionalSearchWithIncomingEdgesMatchesUnidirectional() {
+        var random = new Random(13);
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        graph.setTrackIncomingEdges(true);
+
+        for (int edge = 0; edge < 600; edge++)
+            graph.addEdge(random.nextInt(200), random.nextInt(200));
+
+        for (int query = 0; query < 200; query++) {
+            final Integer source = random.nextInt(200);
+            final Integer target = random.nextInt(200);
+            if (!graph.containsVertex(source) || !graph.containsVertex(target))
+                continue;
+
+            graph.setSearchMode(SearchMode.UNIDIRECTIONAL);
+            var expectedPath = graph.getPath(source, target);
+            graph.setSearchMode(SearchMode.BIDIRECTIONAL);
+            var path = graph.getPath(source, target);
+
+            assertEquals(expectedPath == null ? null : expectedPath.size(), path == null ? null : path.size());
+            if (path != null) {
+                for (int i = 1; i < path.size(); i++)
+                    assertTrue(graph.containsEdge(path.get(i - 1), path.get(i)));
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveVertexAndEdge() {
+        /*
+         *   1 -> 2 -> 3 -> 4
+         *   1 ------------^
+         * */
+        for (boolean trackIncomingEdges : new boolean[]{false, true}) {
+            var graph = new DirectedGraph<Integer>();
+            graph.setTrackIncomingEdges(trackIncomingEdges);
+
+            graph.addEdge(1, 2);
+            graph.addEdge(2, 3);
+            graph.addEdge(3, 4);
+            graph.addEdge(1, 4);
+
+            assertTrue(graph.removeEdge(1, 4));
+            assertFalse(graph.removeEdge(1, 4));
+            assertFalse(graph.removeEdge(4, 3));
+            assertEquals(List.of(1, 2, 3, 4), graph.getPath(1, 4));
+
+            assertTrue(graph.removeVertex(3));
+            assertFalse(graph.removeVertex(3));
+            assertFalse(graph.containsVertex(3));
+            assertEquals(3, graph.numberOfVertices());
+            assertEquals(0, graph.numberOfOutgoingEdgesFromVertex(2));
+            assertNull(graph.getPath(1, 4));
+            assertEquals(List.of(1, 2), graph.bfs(1).collect(Collectors.toList()));
+            assertEquals(List.of(), graph.predecessors(4));
+
+            var snapshot = graph.snapshot();
+            assertEquals(3, snapshot.numberOfVertices());
+            assertEquals(0, snapshot.numberOfOutgoingEdgesFromVertex(2));
+
+            graph.addEdge(2, 3);
+            assertTrue(graph.containsEdge(2, 3));
+            assertFalse(graph.containsEdge(3, 4));
+            assertEquals(List.of(2), graph.predecessors(3));
+        }
+    }
+
+    @Test
+    public void testRemovalsCompactTombstones() {
+        final int numberOfVertices = 1000;
+        var random = new Random(5);
+        var graph = new DirectedGraph<Integer>();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            graph.addEdge(vertex, (vertex + 1) % numberOfVertices);
+
+        for (int round = 0; round < 5000; round++) {
+            int vertex = random.nextInt(numberOfVertices);
+            if (graph.removeVertex(vertex)) {
+                graph.addEdge(vertex, (vertex + 1) % numberOfVertices);
+                graph.addEdge((vertex + numberOfVertices - 1) % numberOfVertices, vertex);
+            }
+        }
+
+        assertEquals(numberOfVertices, graph.numberOfVertices());
+        assertEquals(numberOfVertices, graph.bfs(0).count());
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(0));
+        assertEquals(numberOfVertices, graph.snapshot().getPath(1, 0).size());
+    }
+
+    @Test
+    public void testTopologicalSortAndFindCycle() {
+        /*
+         *   1 -> 2 -> 4
+         *   |         ^
+         *   +--> 3 ---+    5
+         * */
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(1, 3);
+        graph.addEdge(2, 4);
+        graph.addEdge(3, 4);
+        graph.addVertex(5);
+
+        assertEquals(List.of(1, 5, 2, 3, 4), graph.topologicalSort());
+        assertNull(graph.findCycle());
+
+        graph.addEdge(4, 1);
+
+        assertNull(graph.topologicalSort());
+        var cycle = graph.findCycle();
+        assertEquals(cycle.get(0), cycle.get(cycle.size() - 1));
+        assertEquals(4, cycle.size());
+        for (int i = 1; i < cycle.size(); i++)
+            assertTrue(graph.containsEdge(cycle.get(i - 1), cycle.get(i)));
+
+        graph.addEdge(5, 5);
+        graph.removeEdge(4, 1);
+        assertEquals(List.of(5, 5), graph.findCycle());
+    }
+
+    @Test
+    public void testTopologicalSortOfLongChain() {
+        final int numberOfVertices = 200_000;
+        var graph = new DirectedGraph<Integer>(numberOfVertices);
+
+        for (int vertex = numberOfVertices - 1; vertex > 0; vertex--)
+            graph.addEdge(vertex - 1, vertex);
+
+        var order = graph.topologicalSort();
+        assertEquals(numberOfVertices, order.size());
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            assertEquals((Integer) vertex, order.get(vertex));
+        assertNull(graph.findCycle());
+
+        graph.addEdge(numberOfVertices - 1, 0);
+        assertEquals(numberOfVertices + 1, graph.findCycle().size());
+        assertEquals(1, graph.stronglyConnectedComponents().size());
+    }
+
+    @Test
+    public void testStronglyConnectedComponents() {
+        /*
+         *   1 <-> 2 -> 3 <-> 4 -> 5
+         * */
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 1);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 3);
+        graph.addEdge(4, 5);
+
+        var components = graph.stronglyConnectedComponents();
+
+        assertEquals(3, components.size());
+        assertEquals(Set.of(1, 2), Set.copyOf(components.get(0)));
+        assertEquals(Set.of(3, 4), Set.copyOf(components.get(1)));
+        assertEquals(List.of(5), components.get(2));
+    }
+
+    @Test
+    public void testGetPathReusesContextAcrossGraphsAndCompaction() {
+        final int numberOfVertices = 2000;
+        var random = new Random(17);
+        var context = new TraversalContext();
+        var smallGraph = new DirectedGraph<Integer>();
+        var graph = new DirectedGraph<Integer>();
+
+        smallGraph.addEdge(0, 1);
+        for (int edge = 0; edge < 3 * numberOfVertices; edge++)
+            graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+
+        // removals trigger compaction, which renumbers the vertices
+        for (int vertex = 0; vertex < numberOfVertices; vertex += 3)
+            graph.removeVertex(vertex);
+
+        for (boolean trackIncomingEdges : new boolean[]{false, true}) {
+            graph.setTrackIncomingEdges(trackIncomingEdges);
+            var snapshot = graph.snapshot();
+
+            for (int query = 0; query < 200; query++) {
+                int vertex1 = 1 + 3 * random.nextInt(numberOfVertices / 3);
+                int vertex2 = 2 + 3 * random.nextInt(numberOfVertices / 3 - 1);
+
+                assertEquals(List.of(0, 1), smallGraph.getPath(0, 1, context));
+                if (!graph.containsVertex(vertex1) || !graph.containsVertex(vertex2))
+                    continue;
+
+                var path = graph.getPath(vertex1, vertex2, context);
+                var expectedPath = snapshot.getPath(vertex1, vertex2, context);
+                assertEquals(expectedPath == null ? null : expectedPath.size(), path == null ? null : path.size());
+                if (path != null) {
+                    assertEquals((Integer) vertex1, path.get(0));
+                    assertEquals((Integer) vertex2, path.get(path.size() - 1));
+                    for (int i = 1; i < path.size(); i++)
+                        assertTrue(graph.containsEdge(path.get(i - 1), path.get(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGrowingGraphRarelyReplacesContextBuffers() {
+        final int numberOfVertices = 10_000;
+        var context = new TraversalContext();
+        var graph = new DirectedGraph<Integer>();
+        graph.setTrackIncomingEdges(true);
+        graph.setSearchMode(SearchMode.BIDIRECTIONAL);
+
+        int replacements = 0;
+        int[] queue = context.queue();
+        int[] backwardQueue = context.backwardQueue();
+        for (int vertex = 1; vertex < numberOfVertices; vertex++) {
+            graph.addEdge(vertex - 1, vertex);
+            assertEquals(2, graph.getPath(vertex - 1, vertex, context).size());
+
+            if (context.queue() != queue || context.backwardQueue() != backwardQueue)
+                replacements++;
+            queue = context.queue();
+            backwardQueue = context.backwardQueue();
+        }
+
+        // growing by half, the buffers reach 10 000 vertices in about 25 steps, instead of one step per vertex
+        assertTrue(replacements <= 30, "buffers replaced " + replacements + " times");
+    }
+
+    @Test
+    public void testEdgeWeightsMatchAfterRandomUpdates() {
+        final int numberOfVertices = 50;
+        var random = new Random(23);
+        var graph = new DirectedGraph<Integer>();
+        Map<Map.Entry<Integer, Integer>, Double> expectedWeights = new HashMap<>();
+
+        for (int update = 0; update < 20_000; update++) {
+            int vertex1 = random.nextInt(numberOfVertices);
+            int vertex2 = random.nextInt(numberOfVertices);
+            var edge = Map.entry(vertex1, vertex2);
+
+            if (random.nextInt(4) == 0) {
+                graph.removeEdge(vertex1, vertex2);
+                expectedWeights.remove(edge);
+            } else {
+                // a third of the weights are the default, which is not stored
+                double weight = random.nextInt(3) == 0 ? WeightedGraph.DEFAULT_WEIGHT : random.nextInt(10);
+                graph.addEdge(vertex1, vertex2, weight);
+                expectedWeights.put(edge, weight);
+            }
+        }
+
+        for (int vertex1 = 0; vertex1 < numberOfVertices; vertex1++) {
+            for (int vertex2 = 0; vertex2 < numberOfVertices; vertex2++) {
+                var expectedWeight = expectedWeights.get(Map.entry(vertex1, vertex2));
+                assertEquals(expectedWeight != null, graph.containsEdge(vertex1, vertex2));
+                if (expectedWeight != null) {
+                    assertEquals((double) expectedWeight, graph.getEdgeWeight(vertex1, vertex2));
+                    assertEquals((double) expectedWeight, graph.snapshot().getEdgeWeight(vertex1, vertex2));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLandmarksDoNotChangePathsOfWeightedGraph() {
+        //  1 --1.0--> 2 --1.0--> 3 --1.0--> 4
+        //  |                                ^
+        //  +--------------10.0--------------+
+        var graph = new DirectedGraph<Integer>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(1, 4, 10.0);
+
+        assertEquals(List.of(1, 4), graph.getPath(1, 4));
+        assertEquals(List.of(1, 2, 3, 4), graph.getShortestPath(1, 4));
+
+        graph.setNumberOfLandmarks(2);
+
+        assertEquals(List.of(1, 4), graph.getPath(1, 4));
+        assertEquals(List.of(1, 2, 3, 4), graph.getShortestPath(1, 4));
+        assertEquals(10.0, graph.getEdgeWeight(1, 4));
+    }
+
+    @Test
+    public void testGetShortestPathByWeight() {
+        //  1 --1.0--> 2 --1.0--> 3
+        //  |                     ^
+        //  +--------5.0----------+
+        var graph = new DirectedGraph<Integer>();
+
+        graph.addEdge(1, 3, 5.0);
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+
+        assertEquals(List.of(1, 3), graph.getPath(1, 3));
+        assertEquals(List.of(1, 2, 3), graph.getShortestPath(1, 3));
+        assertEquals(5.0, graph.getEdgeWeight(1, 3));
+        assertEquals(WeightedGraph.DEFAULT_WEIGHT, graph.getEdgeWeight(1, 2));
+        assertThrows(IllegalArgumentException.class, () -> graph.getEdgeWeight(3, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(3, 1, -1.0));
+
+        graph.addEdge(1, 3, 1.5);
+
+        assertEquals(List.of(1, 3), graph.getShortestPath(1, 3));
+        assertEquals(1.5, graph.snapshot().getEdgeWeight(1, 3));
+        assertNull(graph.getShortestPath(3, 1));
+
+        // a removed edge loses its weight
+        graph.removeEdge(1, 3);
+        graph.addEdge(1, 3);
+
+        assertEquals(WeightedGraph.DEFAULT_WEIGHT, graph.getEdgeWeight(1, 3));
+        assertEquals(List.of(1, 3), graph.getShortestPath(1, 3));
+    }
+
+}
@@ -0,0 +1,306 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.CompactUndirectedGraph;
+import org.fedyiv.graph.impl.ConcurrentDirectedGraph;
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.fedyiv.graph.impl.UndirectedGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableGraphTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("durable-graph-test");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testRecoverFromLog() throws IOException {
+        /*
+         *   a -> b -> c    d
+         * */
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<String>(), VertexSerializer.strings())) {
+            graph.addEdge("a", "b");
+            graph.addEdges(List.of(Map.entry("b", "c")));
+            graph.addVertex("d");
+        }
+
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<String>(), VertexSerializer.strings())) {
+            assertEquals(4, graph.numberOfVertices());
+            assertTrue(graph.containsVertex("d"));
+            assertFalse(graph.containsEdge("b", "a"));
+            assertEquals(List.of("a", "b", "c"), graph.getPath("a", "c"));
+
+            graph.addEdge("c", "d");
+        }
+
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<String>(), VertexSerializer.strings())) {
+            assertEquals(List.of("a", "b", "c", "d"), graph.getPath("a", "d"));
+        }
+    }
+
+    @Test
+    public void testRecoverFromSnapshotAndLogTail() throws IOException {
+        var graph = DurableGraph.open(directory, new UndirectedGraph<Integer>(), VertexSerializer.integers());
+        graph.setCheckpointThreshold(100);
+
+        for (int vertex = 0; vertex < 250; vertex++)
+            graph.addEdge(vertex, vertex + 1);
+
+        // not closed, as if the process crashed
+        assertEquals(List.of("snapshot-2.graph", "wal-2.log"), listDirectory());
+
+        var recoveredGraph = DurableGraph.open(directory, new UndirectedGraph<Integer>(), VertexSerializer.integers());
+
+        assertEquals(251, recoveredGraph.numberOfVertices());
+        assertEquals(251, recoveredGraph.getPath(250, 0).size());
+        recoveredGraph.close();
+        graph.close();
+    }
+
+    @Test
+    public void testBatchIsDurableWhenAddEdgesReturns() throws IOException {
+        var graph = DurableGraph.open(directory, new DirectedGraph<Integer>(), VertexSerializer.integers(), FsyncPolicy.PER_BATCH);
+        graph.addEdge(1, 2);
+        graph.addEdges(List.of(Map.entry(2, 3), Map.entry(3, 4)));
+
+        // not closed, as if the process crashed
+        try (var recoveredGraph = DurableGraph.open(directory, new DirectedGraph<Integer>(), VertexSerializer.integers())) {
+            assertEquals(List.of(1, 2, 3, 4), recoveredGraph.getPath(1, 4));
+        }
+    }
+
+    @Test
+    public void testWeightsAreRecoveredFromLogAndSnapshot() throws IOException {
+        /*
+         *   1 -(5)- 2 -(1)- 3
+         *    \            /
+         *     ----(2)-----
+         * */
+        try (var graph = DurableGraph.open(directory, new CompactUndirectedGraph<Integer>(), VertexSerializer.integers())) {
+            graph.addEdge(1, 2, 5);
+            graph.addEdge(2, 3);
+            graph.addEdge(1, 3, 2);
+        }
+
+        try (var graph = DurableGraph.open(directory, new CompactUndirectedGraph<Integer>(), VertexSerializer.integers())) {
+            assertEquals((double) 5, graph.getEdgeWeight(2, 1));
+            assertEquals(List.of(1, 3, 2), graph.getShortestPath(1, 2));
+
+            graph.checkpoint();
+            graph.addEdge(1, 3, 10);
+        }
+
+        try (var graph = DurableGraph.open(directory, new CompactUndirectedGraph<Integer>(), VertexSerializer.integers())) {
+            assertEquals((double) 5, graph.getEdgeWeight(1, 2));
+            assertEquals((double) 10, graph.getEdgeWeight(3, 1));
+            assertEquals(List.of(1, 2), graph.getShortestPath(1, 2));
+        }
+    }
+
+    @Test
+    public void testWeightsNeedWeightedGraph() throws IOException {
+        try (var graph = DurableGraph.open(directory, new ConcurrentDirectedGraph<Integer>(), VertexSerializer.integers())) {
+            assertThrows(UnsupportedOperationException.class, () -> graph.addEdge(1, 2, 3));
+            assertThrows(UnsupportedOperationException.class, () -> graph.getShortestPath(1, 2));
+            assertFalse(graph.containsVertex(1));
+        }
+
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<Integer>(), VertexSerializer.integers())) {
+            graph.addEdge(1, 2, 3);
+        }
+
+        assertThrows(IOException.class, () -> DurableGraph.open(directory, new ConcurrentDirectedGraph<Integer>(), VertexSerializer.integers()));
+    }
+
+    @Test
+    public void testTornRecordIsDropped() throws IOException {
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<Integer>(), VertexSerializer.integers(), FsyncPolicy.PER_BATCH)) {
+            graph.addEdge(1, 2);
+            graph.addEdge(2, 3);
+        }
+
+        var log = directory.resolve("wal-0.log");
+        long size = Files.size(log);
+        try (var channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 1);
+        }
+
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<Integer>(), VertexSerializer.integers())) {
+            assertTrue(graph.containsEdge(1, 2));
+            assertFalse(graph.containsVertex(3));
+
+            graph.addEdge(3, 4);
+        }
+
+        try (var channel = FileChannel.open(log, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 9, 1, 2, 3, 4, 5}));
+        }
+
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<Integer>(), VertexSerializer.integers())) {
+            assertEquals(4, graph.numberOfVertices());
+            assertTrue(graph.containsEdge(3, 4));
+        }
+    }
+
+    @Test
+    public void testTraverseIsDurable() throws IOException {
+        /*
+         *   1 -> 2 -> 3   traversed to   10 -> 20 -> 30
+         * */
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<Integer>(), VertexSerializer.integers())) {
+            graph.addEdge(1, 2);
+            graph.addEdge(2, 3);
+            graph.traverse(vertex -> vertex * 10);
+            graph.addEdge(30, 40);
+
+            assertThrows(IllegalStateException.class, () -> graph.traverse(vertex -> 0));
+        }
+
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<Integer>(), VertexSerializer.integers())) {
+            assertEquals(List.of(10, 20, 30, 40), graph.getPath(10, 40));
+            assertFalse(graph.containsVertex(1));
+        }
+    }
+
+    @Test
+    public void testConcurrentWritersWithEveryPolicy() throws IOException {
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            var policyDirectory = directory.resolve(policy.name());
+
+            try (var graph = DurableGraph.open(policyDirectory, new DirectedGraph<Integer>(), VertexSerializer.integers(), policy)) {
+                graph.setCheckpointThreshold(500);
+                IntStream.range(0, 2000).parallel().forEach(vertex -> graph.addEdge(vertex, vertex + 1));
+            }
+
+            try (var graph = DurableGraph.open(policyDirectory, new DirectedGraph<Integer>(), VertexSerializer.integers(), policy)) {
+                assertEquals(2001, graph.numberOfVertices(), policy.name());
+                assertEquals(2001, graph.getPath(0, 2000).size(), policy.name());
+            }
+        }
+
+        var nonEmptyGraph = new DirectedGraph<Integer>();
+        nonEmptyGraph.addVertex(1);
+        assertThrows(IllegalArgumentException.class, () -> DurableGraph.open(directory, nonEmptyGraph, VertexSerializer.integers()));
+    }
+
+    private List<String> listDirectory() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(path -> path.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testRemovalsAreRecovered() throws IOException {
+        /*
+         *   a -> b -> c
+         * */
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<String>(), VertexSerializer.strings())) {
+            graph.addEdge("a", "b");
+            graph.addEdge("b", "c");
+            graph.addEdge("a", "c");
+            graph.addVertex("d");
+
+            assertTrue(graph.removeEdge("a", "c"));
+            assertTrue(graph.removeVertex("d"));
+            assertFalse(graph.removeVertex("e"));
+        }
+
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<String>(), VertexSerializer.strings())) {
+            assertEquals(3, graph.numberOfVertices());
+            assertFalse(graph.containsVertex("d"));
+            assertFalse(graph.containsEdge("a", "c"));
+            assertEquals(List.of("a", "b", "c"), graph.getPath("a", "c"));
+        }
+    }
+
+    @Test
+    public void testRejectedModificationsAreNotLogged() throws IOException {
+        // the vertex is larger than the log buffer, so its record is written out before the graph rejects it
+        String largeVertex = "!" + "x".repeat(3 << 20);
+
+        try (var graph = DurableGraph.open(directory, new RejectingGraph(), VertexSerializer.strings())) {
+            graph.addEdge("a", "b");
+
+            assertThrows(IllegalArgumentException.class, () -> graph.addVertex("!a"));
+            assertThrows(IllegalArgumentException.class, () -> graph.addEdge("b", "!b"));
+            assertThrows(IllegalArgumentException.class, () -> graph.addEdges(List.of(Map.entry("b", "c"), Map.entry("c", "!c"))));
+            assertThrows(IllegalArgumentException.class, () -> graph.addVertex(largeVertex));
+            assertThrows(IllegalArgumentException.class, () -> graph.removeVertex("!a"));
+            assertThrows(IllegalArgumentException.class, () -> graph.removeEdge("a", "!b"));
+
+            graph.addEdge("c", "d");
+        }
+
+        try (var graph = DurableGraph.open(directory, new DirectedGraph<String>(), VertexSerializer.strings())) {
+            assertEquals(4, graph.numberOfVertices());
+            assertEquals(List.of("a", "b", "c", "d"), graph.getPath("a", "d"));
+            assertFalse(graph.containsVertex("!a"));
+            assertFalse(graph.containsVertex("!b"));
+            assertFalse(graph.containsVertex(largeVertex));
+        }
+    }
+
+    /**
+     * Rejects every modification involving a vertex starting with an exclamation mark.
+     */
+    private static class RejectingGraph extends DirectedGraph<String> {
+
+        @Override
+        public void addVertex(String vertex) {
+            check(vertex);
+            super.addVertex(vertex);
+        }
+
+        @Override
+        public void addEdge(String vertex1, String vertex2) {
+            check(vertex1);
+            check(vertex2);
+            super.addEdge(vertex1, vertex2);
+        }
+
+        @Override
+        public boolean removeVertex(String vertex) {
+            check(vertex);
+            return super.removeVertex(vertex);
+        }
+
+        @Override
+        public boolean removeEdge(String vertex1, String vertex2) {
+            check(vertex1);
+            check(vertex2);
+            return super.removeEdge(vertex1, vertex2);
+        }
+
+        private static void check(String vertex) {
+            if (vertex.startsWith("!"))
+                throw new IllegalArgumentException("Rejected vertex " + vertex);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.fedyiv.graph.impl.UndirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphBuilderTest {
+
+    @Test
+    public void testBuildDirectedGraph() {
+        /*
+         *   1 -> 2 -> 3    4
+         * */
+        GraphBuilder<Integer> builder = GraphBuilder.directed();
+
+        builder.addEdge(1, 2);
+        builder.addEdge(2, 3);
+        builder.addEdge(1, 2);
+        builder.addVertex(4);
+
+        FrozenGraph<Integer> graph = builder.build();
+
+        assertTrue(graph.isDirected());
+        assertEquals(4, graph.numberOfVertices());
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(1));
+        assertTrue(graph.containsEdge(1, 2));
+        assertFalse(graph.containsEdge(2, 1));
+        assertEquals(List.of(1, 2, 3), graph.getPath(1, 3));
+        assertNull(graph.getPath(1, 4));
+
+        DirectedGraph<Integer> directedGraph = builder.buildInto(new DirectedGraph<>());
+
+        assertEquals(4, directedGraph.numberOfVertices());
+        assertTrue(directedGraph.containsVertex(4));
+        assertEquals(List.of(1, 2, 3), directedGraph.getPath(1, 3));
+        assertNull(directedGraph.getPath(3, 1));
+    }
+
+    @Test
+    public void testBuildUndirectedGraphFromManyProducers() throws Exception {
+        /*
+         * every producer adds a chain  k - k + 1 - ... - k + 9999  and a self loop on k
+         * */
+        final int numberOfProducers = 4;
+        final int chainLength = 10_000;
+
+        GraphBuilder<Integer> builder = GraphBuilder.undirected(new ForkJoinPool(4));
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfProducers);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int producer = 0; producer < numberOfProducers; producer++) {
+                final int first = producer * chainLength;
+
+                futures.add(executor.submit(() -> {
+                    builder.addEdge(first, first);
+                    for (int vertex = first; vertex < first + chainLength - 1; vertex++) {
+                        builder.addEdge(vertex, vertex + 1);
+                        builder.addEdge(vertex + 1, vertex);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures)
+                future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        FrozenGraph<Integer> graph = builder.build();
+
+        assertFalse(graph.isDirected());
+        assertEquals(numberOfProducers * chainLength, graph.numberOfVertices());
+        assertEquals(2, graph.numberOfOutgoingEdgesFromVertex(0));
+        assertEquals(2, graph.numberOfOutgoingEdgesFromVertex(chainLength / 2));
+        assertTrue(graph.containsEdge(chainLength - 1, chainLength - 2));
+        assertFalse(graph.containsEdge(chainLength - 1, chainLength));
+        assertEquals(chainLength, graph.getPath(chainLength - 1, 0).size());
+
+        UndirectedGraph<Integer> undirectedGraph = builder.buildInto(new UndirectedGraph<>());
+
+        assertEquals(numberOfProducers * chainLength, undirectedGraph.numberOfVertices());
+        assertTrue(undirectedGraph.containsEdge(1, 0));
+        assertTrue(undirectedGraph.containsEdge(0, 0));
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.CompactUndirectedGraph;
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphFileTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("graph-file-test");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testWriteAndMapDirectedGraph() throws IOException {
+        /*
+         *   a -> b -> c    d
+         * */
+        Graph<String> graph = new DirectedGraph<>();
+
+        graph.addEdge("a", "b");
+        graph.addEdge("b", "c");
+        graph.addVertex("d");
+
+        var path = directory.resolve("graph.bin");
+        GraphFile.write(graph, path, VertexSerializer.strings());
+
+        var mappedGraph = MappedGraph.open(path, VertexSerializer.strings());
+
+        assertTrue(mappedGraph.isDirected());
+        assertEquals(4, mappedGraph.numberOfVertices());
+        assertTrue(mappedGraph.containsVertex("d"));
+        assertFalse(mappedGraph.containsVertex("e"));
+        assertTrue(mappedGraph.containsEdge("a", "b"));
+        assertFalse(mappedGraph.containsEdge("b", "a"));
+        assertEquals(1, mappedGraph.numberOfOutgoingEdgesFromVertex("b"));
+        assertEquals(List.of("a", "b", "c"), mappedGraph.getPath("a", "c"));
+        assertNull(mappedGraph.getPath("a", "d"));
+
+        var context = new TraversalContext();
+        assertEquals(List.of("a", "b", "c"), mappedGraph.getPath("a", "c", context));
+        assertNull(mappedGraph.getPath("a", "d", context));
+        assertEquals(List.of("b", "c"), mappedGraph.getPath("b", "c", context));
+        assertThrows(UnsupportedOperationException.class, () -> mappedGraph.addEdge("c", "d"));
+
+        var snapshot = mappedGraph.snapshot();
+        assertEquals(List.of("a", "b", "c"), snapshot.getPath("a", "c"));
+    }
+
+    @Test
+    public void testWeightsAndLargeGraphSurviveRoundTrip() throws IOException {
+        final int numberOfVertices = 10_000;
+        var random = new Random(13);
+        var graph = new CompactUndirectedGraph<Integer>();
+
+        for (int edge = 0; edge < 3 * numberOfVertices; edge++)
+            graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices), 1 + random.nextInt(5));
+
+        var path = directory.resolve("weighted.bin");
+        GraphFile.write(graph, path, VertexSerializer.integers());
+
+        var mappedGraph = MappedGraph.open(path, VertexSerializer.integers());
+
+        assertFalse(mappedGraph.isDirected());
+        assertEquals(graph.numberOfVertices(), mappedGraph.numberOfVertices());
+
+        var snapshot = mappedGraph.snapshot();
+        for (int query = 0; query < 100; query++) {
+            final Integer vertex1 = random.nextInt(numberOfVertices);
+            final Integer vertex2 = random.nextInt(numberOfVertices);
+
+            if (!graph.containsVertex(vertex1) || !graph.containsVertex(vertex2)) {
+                assertFalse(mappedGraph.containsVertex(vertex1) && mappedGraph.containsVertex(vertex2));
+                continue;
+            }
+
+            assertEquals(graph.containsEdge(vertex1, vertex2), mappedGraph.containsEdge(vertex1, vertex2));
+            assertEquals(graph.numberOfOutgoingEdgesFromVertex(vertex1), mappedGraph.numberOfOutgoingEdgesFromVertex(vertex1));
+
+            var expectedPath = graph.getPath(vertex1, vertex2);
+            var mappedPath = mappedGraph.getPath(vertex1, vertex2);
+            assertEquals(expectedPath == null ? null : expectedPath.size(), mappedPath == null ? null : mappedPath.size());
+
+            var expectedShortestPath = graph.getShortestPath(vertex1, vertex2);
+            if (expectedShortestPath != null)
+                assertEquals(pathWeight(graph, expectedShortestPath), pathWeight(snapshot, snapshot.getShortestPath(vertex1, vertex2)));
+        }
+    }
+
+    @Test
+    public void testOpenRejectsOtherFiles() throws IOException {
+        var path = directory.resolve("graph.csv");
+        Files.writeString(path, "1,2\n2,3\n");
+
+        assertThrows(IOException.class, () -> MappedGraph.open(path, VertexSerializer.integers()));
+    }
+
+    private static double pathWeight(WeightedGraph<Integer> graph, List<Integer> path) {
+        double weight = 0;
+        for (int i = 1; i < path.size(); i++)
+            weight += graph.getEdgeWeight(path.get(i - 1), path.get(i));
+
+        return weight;
+    }
+}
@@ -0,0 +1,164 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.CompactDirectedGraph;
+import org.fedyiv.graph.impl.CompactUndirectedGraph;
+import org.fedyiv.graph.impl.ConcurrentDirectedGraph;
+import org.fedyiv.graph.impl.ConcurrentUndirectedGraph;
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.fedyiv.graph.impl.UndirectedGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphImporterTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("graph-importer-test");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testReadSnapEdgeList() throws IOException {
+        /*
+         *   1 -> 2 -> 3    10 -> 10
+         * */
+        var path = directory.resolve("graph.txt");
+        Files.writeString(path, "# Directed graph\n# FromNodeId\tToNodeId\n1\t2\n\n2 3\t0.5\r\n% comment\n10\t10");
+
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        assertEquals(3, GraphImporter.readEdgeList(path, graph));
+        assertEquals(4, graph.numberOfVertices());
+        assertTrue(graph.containsEdge(1, 2));
+        assertTrue(graph.containsEdge(2, 3));
+        assertTrue(graph.containsEdge(10, 10));
+        assertEquals(List.of(1, 2, 3), graph.getPath(1, 3));
+    }
+
+    @Test
+    public void testMalformedEdgeList() throws IOException {
+        var path = directory.resolve("graph.txt");
+        Files.writeString(path, "1\t2\n2\tx\n");
+
+        var exception = assertThrows(IOException.class, () -> GraphImporter.readEdgeList(path, new DirectedGraph<>()));
+        assertEquals("Number expected at line 2", exception.getMessage());
+    }
+
+    @Test
+    public void testReadMetisWithWeights() throws IOException {
+        /*
+         *   1 -3- 2 -1- 3    4
+         * */
+        var path = directory.resolve("graph.metis");
+        Files.writeString(path, "% weighted path\n4 2 001\n2 3\n1 3 3 1\n2 1\n\n");
+
+        var graph = new CompactUndirectedGraph<Integer>();
+
+        assertEquals(4, GraphImporter.readMetis(path, graph));
+        assertEquals(4, graph.numberOfVertices());
+        assertEquals(0, graph.numberOfOutgoingEdgesFromVertex(4));
+        assertEquals(3.0, graph.getEdgeWeight(1, 2));
+        assertEquals(1.0, graph.getEdgeWeight(3, 2));
+        assertEquals(List.of(1, 2, 3), graph.getShortestPath(1, 3));
+    }
+
+    @Test
+    public void testEdgeListRoundTrip() throws IOException {
+        var random = new Random(5);
+        Graph<Integer> graph = new UndirectedGraph<>();
+        for (int edge = 0; edge < 1000; edge++)
+            graph.addEdge(random.nextInt(300), random.nextInt(300));
+
+        var path = directory.resolve("graph.txt");
+        GraphExporter.writeSnap(graph, path);
+
+        Graph<Integer> readGraph = new UndirectedGraph<>();
+        GraphImporter.readEdgeList(path, readGraph);
+
+        assertSameGraph(graph.snapshot(), readGraph.snapshot());
+    }
+
+    @Test
+    public void testEdgeListOfEveryGraphWithRemovedVertices() throws IOException {
+        List<Graph<Integer>> graphs = List.of(new DirectedGraph<>(), new UndirectedGraph<>(), new CompactDirectedGraph<>(),
+                new CompactUndirectedGraph<>(), new ConcurrentDirectedGraph<>(), new ConcurrentUndirectedGraph<>());
+
+        for (Graph<Integer> graph : graphs) {
+            var random = new Random(7);
+            for (int edge = 0; edge < 500; edge++)
+                graph.addEdge(random.nextInt(100), random.nextInt(100));
+            // too few to compact, so removed vertices stay behind as tombstones
+            for (int vertex = 0; vertex < 100; vertex += 10)
+                graph.removeVertex(vertex);
+
+            var path = directory.resolve("graph.txt");
+            GraphExporter.writeSnap(graph, path);
+
+            Graph<Integer> readGraph = graph.isDirected() ? new DirectedGraph<>() : new UndirectedGraph<>();
+            long numberOfEdges = GraphImporter.readEdgeList(path, readGraph);
+
+            assertTrue(Files.readString(path).contains("# Nodes: " + graph.numberOfVertices() + " Edges: " + numberOfEdges + "\n"));
+            assertSameGraph(graph.snapshot(), readGraph.snapshot());
+        }
+    }
+
+    @Test
+    public void testMetisRoundTrip() throws IOException {
+        var graph = new CompactUndirectedGraph<Integer>();
+        for (int vertex = 1; vertex <= 50; vertex++)
+            graph.addVertex(vertex);
+        var random = new Random(3);
+        for (int edge = 0; edge < 200; edge++)
+            graph.addEdge(1 + random.nextInt(50), 1 + random.nextInt(50), 1 + random.nextInt(5));
+
+        var path = directory.resolve("graph.metis");
+        GraphExporter.writeMetis(graph, path);
+
+        var readGraph = new CompactUndirectedGraph<Integer>();
+        GraphImporter.readMetis(path, readGraph);
+
+        assertEquals(graph.numberOfVertices(), readGraph.numberOfVertices());
+        for (int vertex1 = 1; vertex1 <= 50; vertex1++) {
+            for (int vertex2 = 1; vertex2 <= 50; vertex2++) {
+                if (vertex1 == vertex2)
+                    continue;
+                assertEquals(graph.containsEdge(vertex1, vertex2), readGraph.containsEdge(vertex1, vertex2));
+                if (graph.containsEdge(vertex1, vertex2))
+                    assertEquals(graph.getEdgeWeight(vertex1, vertex2), readGraph.getEdgeWeight(vertex1, vertex2));
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> GraphExporter.writeMetis(new DirectedGraph<Integer>(), path));
+    }
+
+    private static void assertSameGraph(FrozenGraph<Integer> expected, FrozenGraph<Integer> actual) {
+        assertEquals(expected.numberOfVertices(), actual.numberOfVertices());
+        for (int vertexId = 0; vertexId < expected.numberOfVertices(); vertexId++) {
+            Integer vertex = expected.vertex(vertexId);
+            assertEquals(expected.numberOfOutgoingEdgesFromVertex(vertex), actual.numberOfOutgoingEdgesFromVertex(vertex));
+            var adjacency = expected.adjacency();
+            for (int position = adjacency.adjacencyStart(vertexId); position < adjacency.adjacencyEnd(vertexId); position++)
+                assertTrue(actual.containsEdge(vertex, expected.vertex(adjacency.targets[position])));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.CompactDirectedGraph;
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.fedyiv.graph.impl.UndirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandmarkIndexTest {
+
+    @Test
+    public void testDistancesMatchDijkstraOnRandomWeightedGraph() {
+        final int numberOfVertices = 500;
+        var random = new Random(7);
+        var compactGraph = new CompactDirectedGraph<Integer>();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            compactGraph.addVertex(vertex);
+        for (int edge = 0; edge < 4 * numberOfVertices; edge++)
+            compactGraph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices), 1 + random.nextInt(10));
+
+        var graph = compactGraph.freeze();
+        var index = LandmarkIndex.build(graph, 4);
+
+        assertEquals(4, index.getNumberOfLandmarks());
+
+        for (int query = 0; query < 200; query++) {
+            final Integer source = random.nextInt(numberOfVertices);
+            final Integer target = random.nextInt(numberOfVertices);
+
+            var expectedPath = graph.getShortestPath(source, target);
+            var path = index.getPath(source, target);
+
+            if (expectedPath == null) {
+                assertNull(path);
+                assertEquals(Double.POSITIVE_INFINITY, index.getDistance(source, target));
+            } else {
+                assertEquals(source, path.get(0));
+                assertEquals(target, path.get(path.size() - 1));
+                assertEquals(pathWeight(graph, expectedPath), pathWeight(graph, path));
+                assertEquals(pathWeight(graph, expectedPath), index.getDistance(source, target));
+            }
+        }
+    }
+
+    @Test
+    public void testDisconnectedComponents() {
+        /*
+         *   1 - 2 - 3    4 - 5
+         * */
+        var builder = GraphBuilder.<Integer>undirected();
+        builder.addEdge(1, 2);
+        builder.addEdge(2, 3);
+        builder.addEdge(4, 5);
+
+        var index = LandmarkIndex.build(builder.build(), 2);
+
+        assertEquals(List.of(1, 2, 3), index.getPath(1, 3));
+        assertEquals(2.0, index.getDistance(3, 1));
+        assertNull(index.getPath(1, 5));
+        assertThrows(IllegalArgumentException.class, () -> index.getPath(1, 6));
+    }
+
+    @Test
+    public void testGraphRebuildsIndexAfterModification() {
+        /*
+         *   1 -> 2 -> 3 -> 4
+         *   |              ^
+         *   +--------------+  added later
+         * */
+        DirectedGraph<Integer> graph = new DirectedGraph<>();
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+
+        graph.setNumberOfLandmarks(2);
+
+        assertEquals(List.of(1, 2, 3, 4), graph.getPath(1, 4));
+        assertNull(graph.getPath(4, 1));
+
+        graph.addEdge(1, 4);
+
+        assertEquals(List.of(1, 4), graph.getPath(1, 4));
+
+        graph.addEdge(4, 5);
+
+        assertEquals(List.of(1, 4, 5), graph.getPath(1, 5));
+    }
+
+    @Test
+    public void testLandmarkPathsHaveBreadthFirstLength() {
+        final int numberOfVertices = 300;
+        var random = new Random(11);
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+
+        for (int edge = 0; edge < 2 * numberOfVertices; edge++)
+            graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+
+        var vertices = graph.snapshot().toVertices(new int[]{0, 1, 2, 3, 4, 5, 6, 7});
+        for (Integer source : vertices) {
+            for (Integer target : vertices) {
+                graph.setNumberOfLandmarks(0);
+                var expectedPath = graph.getPath(source, target);
+                graph.setNumberOfLandmarks(3);
+                var path = graph.getPath(source, target);
+
+                assertEquals(expectedPath == null ? null : expectedPath.size(), path == null ? null : path.size());
+            }
+        }
+    }
+
+    private static double pathWeight(WeightedGraph<Integer> graph, List<Integer> path) {
+        double weight = 0;
+        for (int i = 1; i < path.size(); i++)
+            weight += graph.getEdgeWeight(path.get(i - 1), path.get(i));
+
+        return weight;
+    }
+}
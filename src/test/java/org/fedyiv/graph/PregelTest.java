@@ -0,0 +1,165 @@
+package org.fedyiv.graph;
+
+import org.fedyiv.graph.impl.DirectedGraph;
+import org.fedyiv.graph.impl.UndirectedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PregelTest {
+
+    @Test
+    public void testPageRankOfCycle() {
+        /*
+         *   1 -> 2 -> 3
+         *   ^         |
+         *   +---------+
+         * */
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 1);
+
+        var ranks = Pregel.run(graph, new PageRank());
+
+        assertEquals(1.0 / 3, ranks.get(1), 1e-12);
+        assertEquals(1.0 / 3, ranks.get(3), 1e-12);
+    }
+
+    @Test
+    public void testPageRankMatchesPowerIteration() {
+        final int numberOfVertices = 2_000;
+        var random = new Random(3);
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            graph.addVertex(vertex);
+        for (int edge = 0; edge < 5 * numberOfVertices; edge++)
+            graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices / 2));
+
+        var ranks = Pregel.run(graph, new PageRank(0.85, 1e-12, 200), new ForkJoinPool(4), Integer.MAX_VALUE);
+        var expectedRanks = powerIteration(graph.snapshot(), 0.85, 200);
+
+        double sum = 0;
+        for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+            assertEquals(expectedRanks[graph.snapshot().vertexId(vertex)], ranks.get(vertex), 1e-9);
+            sum += ranks.get(vertex);
+        }
+        assertEquals(1.0, sum, 1e-9);
+        assertTrue(ranks.getNumberOfSupersteps() < 200);
+    }
+
+    @Test
+    public void testEveryDoubleCanBeSent() {
+        /*
+         * every leaf sends the center a NaN with the bits Pregel uses internally to mark vertices without messages
+         * */
+        final int numberOfLeaves = 1_000;
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        for (int leaf = 1; leaf <= numberOfLeaves; leaf++)
+            graph.addEdge(leaf, 0);
+
+        var values = Pregel.run(graph, new VertexProgram() {
+            @Override
+            public double initialValue(int vertexId, int numberOfVertices) {
+                return 0;
+            }
+
+            @Override
+            public void compute(VertexContext context) {
+                if (context.getSuperstep() == 0)
+                    context.sendToNeighbors(Double.longBitsToDouble(0x7ff8_dead_beef_0000L));
+                else if (context.hasMessage())
+                    context.setValue(Double.isNaN(context.getMessage()) ? 1 : -1);
+
+                context.voteToHalt();
+            }
+
+            @Override
+            public double combineMessages(double message1, double message2) {
+                return message1;
+            }
+        }, new ForkJoinPool(4), Integer.MAX_VALUE);
+
+        assertEquals(1.0, values.get(0));
+        assertEquals(0.0, values.get(1));
+        assertEquals(2, values.getNumberOfSupersteps());
+    }
+
+    @Test
+    public void testWeaklyConnectedComponents() {
+        /*
+         *   1 -> 2 <- 3    4 -> 5    6
+         * */
+        Graph<Integer> graph = new DirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(3, 2);
+        graph.addEdge(4, 5);
+        graph.addVertex(6);
+
+        var components = Pregel.run(graph, new WeaklyConnectedComponents());
+
+        assertEquals(components.get(1), components.get(3));
+        assertEquals(components.get(2), components.get(3));
+        assertEquals(components.get(4), components.get(5));
+        assertNotEquals(components.get(1), components.get(4));
+        assertNotEquals(components.get(5), components.get(6));
+    }
+
+    @Test
+    public void testWeaklyConnectedComponentsMatchUnionFind() {
+        final int numberOfVertices = 5_000;
+        var random = new Random(5);
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            graph.addVertex(vertex);
+        for (int edge = 0; edge < numberOfVertices / 2; edge++)
+            graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+
+        var components = Pregel.run(graph, new WeaklyConnectedComponents());
+
+        Map<Double, Integer> representatives = new HashMap<>();
+        components.forEach((vertex, component) -> {
+            var representative = representatives.putIfAbsent(component, vertex);
+            if (representative != null)
+                assertTrue(graph.isConnected(representative, vertex));
+        });
+
+        for (int vertex = 1; vertex < numberOfVertices; vertex++)
+            assertEquals(graph.isConnected(0, vertex), components.get(0) == components.get(vertex));
+    }
+
+    private static double[] powerIteration(FrozenGraph<Integer> graph, double dampingFactor, int iterations) {
+        int numberOfVertices = graph.numberOfVertices();
+        var adjacency = graph.adjacency();
+        double[] ranks = new double[numberOfVertices];
+        Arrays.fill(ranks, 1.0 / numberOfVertices);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double[] nextRanks = new double[numberOfVertices];
+            double danglingRank = 0;
+            for (int vertex = 0; vertex < numberOfVertices; vertex++) {
+                int degree = adjacency.degree(vertex);
+                if (degree == 0)
+                    danglingRank += ranks[vertex];
+                for (int i = adjacency.offsets[vertex]; i < adjacency.offsets[vertex + 1]; i++)
+                    nextRanks[adjacency.targets[i]] += ranks[vertex] / degree;
+            }
+            for (int vertex = 0; vertex < numberOfVertices; vertex++)
+                nextRanks[vertex] = (1 - dampingFactor) / numberOfVertices + dampingFactor * (nextRanks[vertex] + danglingRank / numberOfVertices);
+            ranks = nextRanks;
+        }
+
+        return ranks;
+    }
+}
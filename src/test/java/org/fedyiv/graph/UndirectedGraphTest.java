@@ -4,6 +4,9 @@ import org.fedyiv.graph.impl.UndirectedGraph;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -241,6 +244,43 @@ class UndirectedGraphTest {
 
     }
 
+    @Test
+    public void testGetPathIsSameForBothSearchModes() {
+        /*
+         * 1-2-3-4
+         * |     |
+         * 5-6-7-8
+         * |
+         * 9
+         * */
+
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(1, 5);
+        graph.addEdge(4, 8);
+        graph.addEdge(5, 6);
+        graph.addEdge(6, 7);
+        graph.addEdge(7, 8);
+        graph.addEdge(5, 9);
+        graph.addVertex(10);
+
+        assertEquals(SearchMode.BIDIRECTIONAL, graph.getSearchMode());
+
+        for (SearchMode searchMode : SearchMode.values()) {
+            graph.setSearchMode(searchMode);
+
+            assertEquals(List.of(9, 5, 1, 2, 3), graph.getPath(9, 3));
+            assertEquals(List.of(9, 5, 6, 7), graph.getPath(9, 7));
+            assertEquals(5, graph.getPath(1, 8).size());
+            assertEquals(List.of(4), graph.getPath(4, 4));
+            assertNull(graph.getPath(1, 10));
+        }
+
+    }
+
     @Test
     public void testTraverse() {
 
@@ -270,4 +310,181 @@ class UndirectedGraphTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testIsConnected() {
+        /*
+         *   1 - 2    3 - 4    5
+         * */
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+
+        final Integer vertex1 = 1;
+        final Integer vertex2 = 2;
+        final Integer vertex3 = 3;
+        final Integer vertex4 = 4;
+        final Integer vertex5 = 5;
+
+        graph.addEdge(vertex1, vertex2);
+        graph.addEdge(vertex4, vertex3);
+        graph.addVertex(vertex5);
+
+        assertTrue(graph.isConnected(vertex1, vertex2));
+        assertTrue(graph.isConnected(vertex3, vertex4));
+        assertTrue(graph.isConnected(vertex5, vertex5));
+        assertFalse(graph.isConnected(vertex1, vertex3));
+        assertFalse(graph.isConnected(vertex4, vertex5));
+
+        graph.addEdge(vertex2, vertex3);
+        graph.traverse(vertex -> vertex * 10);
+
+        assertTrue(graph.isConnected(10, 40));
+        assertFalse(graph.isConnected(10, 50));
+        assertNull(graph.getPath(10, 50));
+        assertThrows(IllegalArgumentException.class, () -> graph.isConnected(10, 60));
+    }
+
+    @Test
+    public void testRemoveVertexAndEdge() {
+        /*
+         *   1 - 2 - 3 - 4 - 5
+         * */
+        var graph = new UndirectedGraph<Integer>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(4, 5);
+
+        assertTrue(graph.isConnected(1, 5));
+        assertTrue(graph.removeEdge(4, 3));
+        assertFalse(graph.containsEdge(3, 4));
+        assertFalse(graph.isConnected(1, 5));
+        assertNull(graph.getPath(1, 5));
+
+        graph.addEdge(3, 4);
+        assertTrue(graph.isConnected(1, 5));
+
+        assertTrue(graph.removeVertex(3));
+        assertFalse(graph.removeVertex(3));
+        assertEquals(4, graph.numberOfVertices());
+        assertEquals(1, graph.numberOfOutgoingEdgesFromVertex(2));
+        assertFalse(graph.isConnected(1, 5));
+        assertTrue(graph.isConnected(4, 5));
+        assertEquals(List.of(1, 2), graph.getPath(1, 2));
+    }
+
+    @Test
+    public void testConnectedComponents() {
+        /*
+         *   1 - 2 - 3    4 - 5    6
+         * */
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(4, 5);
+        graph.addVertex(6);
+
+        var components = graph.connectedComponents();
+
+        assertEquals(3, components.numberOfComponents());
+        assertTrue(components.isConnected(1, 3));
+        assertFalse(components.isConnected(3, 4));
+        assertEquals(List.of(1, 2, 3), components.component(components.componentId(2)));
+        assertEquals(2, components.componentSize(components.componentId(5)));
+        assertEquals(List.of(6), components.component(components.componentId(6)));
+        assertEquals(6, components.componentIds().length);
+        assertThrows(IllegalArgumentException.class, () -> components.componentId(7));
+    }
+
+    @Test
+    public void testConnectedComponentsMatchUnionFind() {
+        final int numberOfVertices = 50_000;
+        var random = new Random(11);
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+
+        for (int vertex = 0; vertex < numberOfVertices; vertex++)
+            graph.addVertex(vertex);
+        for (int edge = 0; edge < numberOfVertices / 2; edge++)
+            graph.addEdge(random.nextInt(numberOfVertices), random.nextInt(numberOfVertices));
+
+        var pool = new ForkJoinPool(4);
+        var components = graph.connectedComponents(pool);
+        pool.shutdown();
+
+        int[] componentIds = components.componentIds();
+        int numberOfComponents = 0;
+        for (int componentId : componentIds)
+            numberOfComponents = Math.max(numberOfComponents, componentId + 1);
+        assertEquals(numberOfComponents, components.numberOfComponents());
+
+        for (int query = 0; query < 1000; query++) {
+            int vertex1 = random.nextInt(numberOfVertices);
+            int vertex2 = random.nextInt(numberOfVertices);
+            assertEquals(graph.isConnected(vertex1, vertex2), components.isConnected(vertex1, vertex2));
+        }
+    }
+
+    @Test
+    public void testKHopNeighborhood() {
+        /*
+         *   1 - 2 - 3 - 4
+         *   |
+         *   5
+         * */
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 3);
+        graph.addEdge(3, 4);
+        graph.addEdge(1, 5);
+
+        assertEquals(List.of(2), graph.kHopNeighborhood(2, 0));
+        assertEquals(Set.of(1, 2, 3), Set.copyOf(graph.kHopNeighborhood(2, 1)));
+        assertEquals(Set.of(1, 2, 3, 4, 5), Set.copyOf(graph.kHopNeighborhood(2, 2)));
+        assertEquals(List.of(4, 3, 2), graph.kHopNeighborhood(4, 2));
+        assertEquals(5, graph.kHopNeighborhood(4, Integer.MAX_VALUE).size());
+        assertThrows(IllegalArgumentException.class, () -> graph.kHopNeighborhood(2, -1));
+        assertThrows(IllegalArgumentException.class, () -> graph.kHopNeighborhood(6, 1));
+    }
+
+    @Test
+    public void testGetPathWithContextBetweenComponents() {
+        /*
+         *   1 - 2    3 - 4
+         * */
+        UndirectedGraph<Integer> graph = new UndirectedGraph<>();
+        var context = new TraversalContext();
+
+        graph.addEdge(1, 2);
+        graph.addEdge(3, 4);
+
+        assertNull(graph.getPath(1, 4, context));
+        assertEquals(List.of(3, 4), graph.getPath(3, 4, context));
+        assertThrows(IllegalArgumentException.class, () -> graph.getPath(1, 5, context));
+
+        graph.addEdge(2, 3);
+        assertEquals(List.of(1, 2, 3, 4), graph.getPath(1, 4, context));
+    }
+
+    @Test
+    public void testWeightsApplyInBothDirections() {
+        //  1 --2.0-- 2 --2.0-- 3
+        //  |                   |
+        //  +-------3.0---------+
+        var graph = new UndirectedGraph<Integer>();
+
+        graph.addEdge(1, 2, 2.0);
+        graph.addEdge(2, 3, 2.0);
+        graph.addEdge(3, 1, 3.0);
+
+        assertEquals(3.0, graph.getEdgeWeight(1, 3));
+        assertEquals(List.of(3, 1), graph.getShortestPath(3, 1));
+        assertEquals(List.of(1, 3), graph.getShortestPath(1, 3, (vertex, target) -> 0));
+
+        graph.addEdge(1, 3, 5.0);
+
+        assertEquals(5.0, graph.getEdgeWeight(3, 1));
+        assertEquals(List.of(1, 2, 3), graph.getShortestPath(1, 3));
+    }
+
+}